@@ -8,15 +8,16 @@ import org.cirdles.topsoil.app.browse.DesktopWebBrowser;
 import org.cirdles.topsoil.app.control.AboutView;
 import org.cirdles.topsoil.app.control.dialog.DataImportDialog;
 import org.cirdles.topsoil.app.control.dialog.DataTableOptionsDialog;
+import org.cirdles.topsoil.app.control.dialog.ProgressDialog;
 import org.cirdles.topsoil.app.control.dialog.TopsoilNotification;
 import org.cirdles.topsoil.app.control.dialog.wizards.MultipleImportWizard;
 import org.cirdles.topsoil.app.data.FXDataTable;
 import org.cirdles.topsoil.app.data.TopsoilProject;
-import org.cirdles.topsoil.app.file.TopsoilFileUtils;
+import org.cirdles.topsoil.app.file.DataFileFollower;
+import org.cirdles.topsoil.app.file.DataImportTask;
 import org.cirdles.topsoil.app.file.serialization.ProjectSerializer;
 import org.cirdles.topsoil.app.file.RecentFiles;
 import org.cirdles.topsoil.app.file.FileChoosers;
-import org.cirdles.topsoil.app.file.Delimiter;
 import org.cirdles.topsoil.app.help.IssueCreator;
 import org.cirdles.topsoil.app.help.StandardGitHubIssueCreator;
 import org.cirdles.topsoil.app.metadata.TopsoilMetadata;
@@ -24,16 +25,24 @@ import org.cirdles.topsoil.app.util.TopsoilException;
 import org.cirdles.topsoil.data.DataTable;
 import org.cirdles.topsoil.data.DataTemplate;
 import org.cirdles.topsoil.data.ExampleData;
+import org.cirdles.topsoil.file.DataFormat;
+import org.cirdles.topsoil.file.Delimiter;
+import org.cirdles.topsoil.file.FormatSniffer;
+import org.cirdles.topsoil.file.TopsoilFileUtils;
 import org.cirdles.topsoil.file.parser.DataParser;
 
 import java.awt.*;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 final class MenuItemHelper {
 
@@ -212,14 +221,14 @@ final class MenuItemHelper {
 
         Path path = Paths.get(file.toURI());
         String fileName = (path.getFileName() != null) ? path.getFileName().toString() : path.toString();
-        Delimiter delimiter = TopsoilFileUtils.guessDelimiter(path);
+        DataFormat format = FormatSniffer.sniff(path);
         Map<DataImportDialog.Key, Object> settings =
-                new DataImportDialog(fileName, delimiter, Topsoil.getPrimaryStage()).showAndWait().orElse(null);
+                new DataImportDialog(fileName, format, Topsoil.getPrimaryStage()).showAndWait().orElse(null);
         if (settings == null) {
             return; // Dialog cancelled
         }
 
-        delimiter = (Delimiter) settings.get(DataImportDialog.Key.DELIMITER);
+        Delimiter delimiter = (Delimiter) settings.get(DataImportDialog.Key.DELIMITER);
         DataTemplate template = (DataTemplate) settings.get(DataImportDialog.Key.TEMPLATE);
         if (delimiter == null || template == null) {
             // This shouldn't happen
@@ -236,22 +245,72 @@ final class MenuItemHelper {
             // This shouldn't happen
             throw new TopsoilException("DataParser instance for template \"" + template + "\" is null, but parsing is supported.");
         }
+        parser.setColumnProjection((BitSet) settings.get(DataImportDialog.Key.COLUMNS));
 
-        FXDataTable table = new FXDataTable(parser.parseDataTable(path, delimiter.asString(), fileName));
-        Map<DataTableOptionsDialog.Key, Object> tableOptions = DataTableOptionsDialog.showDialog(table, Topsoil.getPrimaryStage());
-        if (tableOptions == null) {
+        runImportTask(
+                new DataImportTask(parser, path, delimiter.asString(), fileName),
+                "Invalid File",
+                "Topsoil could not read the selected file."
+        );
+    }
+
+    /**
+     * Handles the parsing of a {@code DataTable} from a file that is still being written, such as the output of an
+     * instrument during a run. Once the table has been imported, records appended to the file are added to the table
+     * as they are written.
+     *
+     * @throws IOException  if unable to read the file
+     */
+    static void followTableFile() throws IOException, TopsoilException {
+        File file = FileChoosers.openTableFile().showOpenDialog(Topsoil.getPrimaryStage());
+        if (file == null) {
             return; // Dialog cancelled
         }
 
-        // Apply table options
-        DataTableOptionsDialog.applySettings(table, tableOptions);
+        Path path = Paths.get(file.toURI());
+        String fileName = (path.getFileName() != null) ? path.getFileName().toString() : path.toString();
+        DataFormat format = FormatSniffer.sniff(path);
+        if (! StandardCharsets.UTF_8.equals(format.getCharset())) {
+            TopsoilNotification.info("Unsupported Operation",
+                    "Only UTF-8 encoded files can be followed.");
+            return;
+        }
+        Map<DataImportDialog.Key, Object> settings =
+                new DataImportDialog(fileName, format, Topsoil.getPrimaryStage()).showAndWait().orElse(null);
+        if (settings == null) {
+            return; // Dialog cancelled
+        }
 
-        // Add table to existing project, or create a new project
-        if (ProjectManager.getProject() == null) {
-            ProjectManager.setProject(new TopsoilProject(table));
-        } else {
-            ProjectManager.getProject().addDataTable(table);
+        Delimiter delimiter = (Delimiter) settings.get(DataImportDialog.Key.DELIMITER);
+        DataTemplate template = (DataTemplate) settings.get(DataImportDialog.Key.TEMPLATE);
+        if (delimiter == null || template == null) {
+            // This shouldn't happen
+            throw new TopsoilException("Null setting from DataImportDialog");
         }
+        if (template != DataTemplate.DEFAULT) {
+            TopsoilNotification.info("Unsupported Operation",
+                    "Following " + template + " data files is not currently supported.");
+            return;
+        }
+
+        // Only complete records are imported; the follower reads the rest once they have been written
+        long end = TopsoilFileUtils.findLastRecordEnd(path, 0, Files.size(path));
+        BitSet projection = (BitSet) settings.get(DataImportDialog.Key.COLUMNS);
+        DataParser parser = template.getParser();
+        parser.setColumnProjection(projection);
+        runImportTask(
+                new DataImportTask(parser, path, delimiter.asString(), fileName, end),
+                "Invalid File",
+                "Topsoil could not read the selected file.",
+                table -> {
+                    try {
+                        DataFileFollower.follow(table, path, delimiter.asString(), end, projection);
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                        TopsoilNotification.error("Error", "Topsoil is unable to follow the file: " + fileName);
+                    }
+                }
+        );
     }
 
     /**
@@ -261,17 +320,17 @@ final class MenuItemHelper {
      */
     static void importTableFromClipboard() throws TopsoilException {
         String content = Clipboard.getSystemClipboard().getString();
-        Delimiter delimiter = TopsoilFileUtils.guessDelimiter(content);
+        DataFormat format = FormatSniffer.sniff(content);
 
         // Get necessary information from user
         Map<DataImportDialog.Key, Object> settings =
-                new DataImportDialog("Clipboard", delimiter, Topsoil.getPrimaryStage()).showAndWait().orElse(null);
+                new DataImportDialog("Clipboard", format, Topsoil.getPrimaryStage()).showAndWait().orElse(null);
         if (settings == null) {
             return; // Dialog cancelled
         }
 
         // Extract information from dialog settings
-        delimiter = (Delimiter) settings.get(DataImportDialog.Key.DELIMITER);   // Overwrite guessed delimiter
+        Delimiter delimiter = (Delimiter) settings.get(DataImportDialog.Key.DELIMITER);   // Overwrite guessed delimiter
         DataTemplate template = (DataTemplate) settings.get(DataImportDialog.Key.TEMPLATE);
         if (delimiter == null || template == null) {
             // This shouldn't happen
@@ -289,6 +348,8 @@ final class MenuItemHelper {
             throw new TopsoilException("DataParser instance for template \"" + template + "\" is null, but parsing is supported.");
         }
 
+        parser.setColumnProjection((BitSet) settings.get(DataImportDialog.Key.COLUMNS));
+
         // Check if the String content is able to be parsed into a data table
         if (! parser.isParseableString(content, delimiter.asString())) {
             TopsoilNotification.error("Unreadable Data",
@@ -296,22 +357,12 @@ final class MenuItemHelper {
             return;
         }
 
-        // Parse table; get table options from user
-        FXDataTable table = new FXDataTable(parser.parseDataTable(content, delimiter.asString(), "clipboard-content"));
-        Map<DataTableOptionsDialog.Key, Object> tableOptions = DataTableOptionsDialog.showDialog(table, Topsoil.getPrimaryStage());
-        if (tableOptions == null) {
-            return; // Dialog cancelled
-        }
-
-        // Apply table options
-        DataTableOptionsDialog.applySettings(table, tableOptions);
-
-        // Add table to existing project, or create a new project
-        if (ProjectManager.getProject() == null) {
-            ProjectManager.setProject(new TopsoilProject(table));
-        } else {
-            ProjectManager.getProject().addDataTable(table);
-        }
+        // Parse table in the background; get table options from user once it has been read
+        runImportTask(
+                new DataImportTask(parser, content, delimiter.asString(), "clipboard-content"),
+                "Unreadable Data",
+                "Topsoil could not read table data from the clipboard."
+        );
     }
 
     /**
@@ -399,6 +450,64 @@ final class MenuItemHelper {
     //                PRIVATE METHODS               //
     //**********************************************//
 
+    /**
+     * Runs an import in the background while displaying its progress. Once the table has been read, the user is
+     * prompted for table options on the JavaFX application thread, and the table is added to the current project.
+     *
+     * @param task          DataImportTask
+     * @param errorTitle    String title of the notification shown if the import fails
+     * @param errorMessage  String message of the notification shown if the import fails
+     */
+    private static void runImportTask(DataImportTask task, String errorTitle, String errorMessage) {
+        runImportTask(task, errorTitle, errorMessage, table -> {});
+    }
+
+    /**
+     * Runs an import in the background while displaying its progress, as above, then passes the table to the provided
+     * {@code Consumer} once it has been added to the current project.
+     *
+     * @param task          DataImportTask
+     * @param errorTitle    String title of the notification shown if the import fails
+     * @param errorMessage  String message of the notification shown if the import fails
+     * @param onImported    Consumer of the imported FXDataTable
+     */
+    private static void runImportTask(DataImportTask task, String errorTitle, String errorMessage,
+                                      Consumer<FXDataTable> onImported) {
+        ProgressDialog progressDialog = new ProgressDialog(task, Topsoil.getPrimaryStage());
+        task.setOnSucceeded(event -> {
+            if (addImportedTable(task.getValue())) {
+                onImported.accept(task.getValue());
+            }
+        });
+        task.setOnFailed(event -> {
+            task.getException().printStackTrace();
+            TopsoilNotification.error(errorTitle, errorMessage);
+        });
+        progressDialog.show();
+
+        Thread thread = new Thread(task, "Topsoil Data Import");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static boolean addImportedTable(FXDataTable table) {
+        Map<DataTableOptionsDialog.Key, Object> tableOptions = DataTableOptionsDialog.showDialog(table, Topsoil.getPrimaryStage());
+        if (tableOptions == null) {
+            return false; // Dialog cancelled
+        }
+
+        // Apply table options
+        DataTableOptionsDialog.applySettings(table, tableOptions);
+
+        // Add table to existing project, or create a new project
+        if (ProjectManager.getProject() == null) {
+            ProjectManager.setProject(new TopsoilProject(table));
+        } else {
+            ProjectManager.getProject().addDataTable(table);
+        }
+        return true;
+    }
+
     /**
      * Asks the user whether or not to save the current project, saves the project if appropriate, then closes the
      * project.
@@ -6,6 +6,7 @@ import javafx.beans.property.SimpleObjectProperty;
 import javafx.stage.Stage;
 import javafx.stage.WindowEvent;
 import org.cirdles.topsoil.app.data.TopsoilProject;
+import org.cirdles.topsoil.app.file.DataFileFollower;
 
 import java.nio.file.Path;
 
@@ -76,6 +77,7 @@ public final class ProjectManager {
      * Closes all open plots for the project and sets the project to null.
      */
     public static void closeProject() {
+        DataFileFollower.stopAll();
         ProjectManager.setProject(null);
         ProjectManager.setProjectPath(null);
 
@@ -114,6 +114,16 @@ public class TopsoilMenuBar extends MenuBar {
         });
         MenuItem fromMultipleItem = new MenuItem(resources.getString("importMultiFile"));
         fromMultipleItem.setOnAction(event -> MenuItemHelper.importMultipleFiles());
+        MenuItem followFileItem = new MenuItem(resources.getString("followFile"));
+        followFileItem.setOnAction(event -> {
+            try {
+                MenuItemHelper.followTableFile();
+            } catch (IOException e) {
+                TopsoilNotification.error("Invalid File", "Topsoil could not read the selected file.");
+            } catch (TopsoilException e) {
+                TopsoilNotification.error("Error", "An unknown error occurred.");
+            }
+        });
         MenuItem fromClipboardItem = new MenuItem(resources.getString("importClipboard"));
         fromClipboardItem.setOnAction(event -> {
             try {
@@ -126,6 +136,7 @@ public class TopsoilMenuBar extends MenuBar {
         Menu importTableMenu = new Menu(resources.getString("importMenu"), null,
                 fromFileItem,
                 fromMultipleItem,
+                followFileItem,
                 fromClipboardItem
         );
         importTableMenu.setOnShown(event -> fromClipboardItem.setDisable(! Clipboard.getSystemClipboard().hasString()));
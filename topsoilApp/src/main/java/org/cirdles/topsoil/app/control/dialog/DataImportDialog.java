@@ -1,21 +1,32 @@
 package org.cirdles.topsoil.app.control.dialog;
 
+import javafx.beans.Observable;
 import javafx.beans.binding.Bindings;
+import javafx.beans.binding.BooleanBinding;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.fxml.FXML;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Dialog;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.cell.CheckBoxListCell;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import javafx.util.StringConverter;
 import org.cirdles.topsoil.app.Topsoil;
 import org.cirdles.topsoil.app.control.FXMLUtils;
-import org.cirdles.topsoil.app.file.Delimiter;
 import org.cirdles.topsoil.app.ResourceBundles;
 import org.cirdles.topsoil.data.DataTemplate;
+import org.cirdles.topsoil.file.DataFormat;
+import org.cirdles.topsoil.file.Delimiter;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -28,6 +39,27 @@ public class DataImportDialog extends Dialog<Map<DataImportDialog.Key, Object>>
     //**********************************************//
 
     public DataImportDialog(String sourceName, Delimiter initial, Stage owner) {
+        this(sourceName, initial, null, owner);
+    }
+
+    /**
+     * Constructs a new dialog with the choices pre-filled from the sniffed format of the data. The user may also
+     * choose which of the columns identified in the format to import.
+     *
+     * @param sourceName    String name of data source
+     * @param format        DataFormat of the data
+     * @param owner         the Stage owner of this dialog
+     */
+    public DataImportDialog(String sourceName, DataFormat format, Stage owner) {
+        this(sourceName, format.getDelimiter(), format.getTemplate(), format, owner);
+    }
+
+    public DataImportDialog(String sourceName, Delimiter initial, DataTemplate initialTemplate, Stage owner) {
+        this(sourceName, initial, initialTemplate, null, owner);
+    }
+
+    private DataImportDialog(String sourceName, Delimiter initial, DataTemplate initialTemplate, DataFormat format,
+                             Stage owner) {
         this.setTitle(ResourceBundles.DIALOGS.getString("importingData") + " " + sourceName);
         this.initOwner(owner);
 
@@ -35,11 +67,12 @@ public class DataImportDialog extends Dialog<Map<DataImportDialog.Key, Object>>
         stage.getIcons().addAll(Topsoil.getLogo());
         stage.setOnShown(event -> stage.requestFocus());
 
-        DataImportDialogController controller = new DataImportDialogController(initial);
+        DataImportDialogController controller = new DataImportDialogController(initial, initialTemplate, format);
         this.getDialogPane().setContent(controller);
         this.getDialogPane().getButtonTypes().addAll(ButtonType.CANCEL, ButtonType.OK);
         this.getDialogPane().lookupButton(ButtonType.OK).disableProperty().bind(
                 Bindings.isNull(controller.delimiterComboBox.getSelectionModel().selectedItemProperty())
+                        .or(controller.noColumnsSelected)
         );
 
         this.setResultConverter(value -> {
@@ -47,6 +80,7 @@ public class DataImportDialog extends Dialog<Map<DataImportDialog.Key, Object>>
                 Map<Key, Object> choices = new HashMap<>();
                 choices.put(Key.DELIMITER, controller.delimiterComboBox.getValue());
                 choices.put(Key.TEMPLATE, controller.templateComboBox.getValue());
+                choices.put(Key.COLUMNS, controller.getColumnProjection());
                 return choices;
             }
             return null;
@@ -83,6 +117,21 @@ public class DataImportDialog extends Dialog<Map<DataImportDialog.Key, Object>>
         return dialog.showAndWait().orElse(null);
     }
 
+    /**
+     * Displays a dialog prompting the user for information about a table of data that they intend to import, with the
+     * choices pre-filled from the sniffed format of the data.
+     *
+     * @param sourceName    String name of data source
+     * @param format        DataFormat of the data
+     * @param owner         the Stage owner of this dialog
+     *
+     * @return              Map of input selections
+     */
+    public static Map<DataImportDialog.Key, Object> showDialog(String sourceName, DataFormat format, Stage owner) {
+        DataImportDialog dialog = new DataImportDialog(sourceName, format, owner);
+        return dialog.showAndWait().orElse(null);
+    }
+
     //**********************************************//
     //                INNER CLASSES                 //
     //**********************************************//
@@ -91,14 +140,22 @@ public class DataImportDialog extends Dialog<Map<DataImportDialog.Key, Object>>
 
         private static final String CONTROLLER_FXML = "data-import-dialog.fxml";
 
-        @FXML private Label delimiterLabel, templateLabel;
+        @FXML private Label delimiterLabel, templateLabel, columnsLabel;
         @FXML private ComboBox<Delimiter> delimiterComboBox;
         @FXML private ComboBox<DataTemplate> templateComboBox;
+        @FXML private ListView<Integer> columnsListView;
 
         private Delimiter delimiter;
+        private DataTemplate template;
+        private DataFormat format;
+
+        private final Map<Integer, BooleanProperty> selectedColumns = new HashMap<>();
+        private BooleanBinding noColumnsSelected;
 
-        DataImportDialogController(Delimiter initial) {
+        DataImportDialogController(Delimiter initial, DataTemplate initialTemplate, DataFormat format) {
             delimiter = initial;
+            template = (initialTemplate != null) ? initialTemplate : DataTemplate.DEFAULT;
+            this.format = format;
             try {
                 FXMLUtils.loadController(CONTROLLER_FXML, DataImportDialogController.class, this);
             } catch (IOException e) {
@@ -118,12 +175,82 @@ public class DataImportDialog extends Dialog<Map<DataImportDialog.Key, Object>>
             }
 
             templateComboBox.getItems().addAll(DataTemplate.values());
-            templateComboBox.getSelectionModel().select(DataTemplate.DEFAULT);
+            templateComboBox.getSelectionModel().select(template);
+
+            columnsLabel.setText(ResourceBundles.DIALOGS.getString("columnsLabel"));
+            List<String> titles = (format != null) ? format.getColumnTitles() : null;
+            if (titles == null || titles.isEmpty()) {
+                columnsLabel.setVisible(false);
+                columnsLabel.setManaged(false);
+                columnsListView.setVisible(false);
+                columnsListView.setManaged(false);
+                columnsListView.setDisable(true);
+                noColumnsSelected = Bindings.createBooleanBinding(() -> false);
+                return;
+            }
+
+            // The first cell of Squid 3 data holds the row labels, which are always read
+            int firstCell = (format.getTemplate() == DataTemplate.SQUID_3) ? 1 : 0;
+            for (int i = firstCell; i < titles.size(); i++) {
+                selectedColumns.put(i, new SimpleBooleanProperty(true));
+                columnsListView.getItems().add(i);
+            }
+            columnsListView.setCellFactory(CheckBoxListCell.forListView(
+                    selectedColumns::get,
+                    new StringConverter<Integer>() {
+                        @Override
+                        public String toString(Integer cellIndex) {
+                            String title = titles.get(cellIndex);
+                            return (cellIndex + 1) + ": " + (title.isEmpty() ? "newColumn" : title);
+                        }
+
+                        @Override
+                        public Integer fromString(String string) {
+                            return null;
+                        }
+                    }
+            ));
+
+            // The columns were identified for the sniffed template and delimiter, so they can only be chosen for those
+            columnsListView.disableProperty().bind(
+                    Bindings.notEqual(format.getTemplate(), templateComboBox.valueProperty())
+                            .or(Bindings.notEqual(format.getDelimiter(), delimiterComboBox.valueProperty()))
+            );
+            List<Observable> dependencies = new ArrayList<>(selectedColumns.values());
+            dependencies.add(columnsListView.disabledProperty());
+            noColumnsSelected = Bindings.createBooleanBinding(
+                    () -> ! columnsListView.isDisabled() &&
+                            selectedColumns.values().stream().noneMatch(BooleanProperty::get),
+                    dependencies.toArray(new Observable[]{})
+            );
+        }
+
+        /**
+         * Returns the cells of the columns chosen to be imported, or null if every column should be imported. Every
+         * column is imported if a template or delimiter other than the sniffed one is chosen, since the listed columns
+         * no longer match the cells that will be read.
+         *
+         * @return  BitSet of cell indices, or null
+         */
+        BitSet getColumnProjection() {
+            if (columnsListView.isDisabled() ||
+                    selectedColumns.values().stream().allMatch(BooleanProperty::get)) {
+                return null;
+            }
+            BitSet cells = new BitSet();
+            cells.set(0, format.getColumnTitles().size());
+            for (Map.Entry<Integer, BooleanProperty> entry : selectedColumns.entrySet()) {
+                if (! entry.getValue().get()) {
+                    cells.clear(entry.getKey());
+                }
+            }
+            return cells;
         }
     }
 
     public enum Key {
         DELIMITER,
-        TEMPLATE
+        TEMPLATE,
+        COLUMNS
     }
 }
@@ -0,0 +1,60 @@
+package org.cirdles.topsoil.app.control.dialog;
+
+import javafx.concurrent.Worker;
+import javafx.geometry.Insets;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import org.cirdles.topsoil.app.Topsoil;
+
+/**
+ * A dialog that displays the progress of a background {@link Worker}, allowing the user to cancel it. The dialog closes
+ * itself once the worker has finished, whether it succeeded, failed, or was cancelled.
+ */
+public class ProgressDialog extends Dialog<Void> {
+
+    //**********************************************//
+    //                  CONSTANTS                   //
+    //**********************************************//
+
+    private static final Double STANDARD_WIDTH = 400.0;
+
+    //**********************************************//
+    //                 CONSTRUCTORS                 //
+    //**********************************************//
+
+    public ProgressDialog(Worker<?> worker, Stage owner) {
+        this.titleProperty().bind(worker.titleProperty());
+        this.initOwner(owner);
+
+        Stage stage = (Stage) this.getDialogPane().getScene().getWindow();
+        stage.getIcons().addAll(Topsoil.getLogo());
+
+        Label messageLabel = new Label();
+        messageLabel.textProperty().bind(worker.messageProperty());
+        ProgressBar progressBar = new ProgressBar();
+        progressBar.progressProperty().bind(worker.progressProperty());
+        progressBar.setMaxWidth(Double.MAX_VALUE);
+
+        VBox content = new VBox(10.0, messageLabel, progressBar);
+        content.setPadding(new Insets(10.0));
+        content.setPrefWidth(STANDARD_WIDTH);
+        this.getDialogPane().setContent(content);
+        this.getDialogPane().getButtonTypes().add(ButtonType.CANCEL);
+
+        this.setOnCloseRequest(event -> {
+            if (worker.isRunning()) {
+                worker.cancel();
+            }
+        });
+        worker.runningProperty().addListener((observable, wasRunning, isRunning) -> {
+            if (! isRunning && worker.getState() != Worker.State.READY) {
+                close();
+            }
+        });
+    }
+
+}
@@ -3,9 +3,13 @@ package org.cirdles.topsoil.app.control.dialog.wizards;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
 import javafx.beans.binding.Bindings;
+import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ListProperty;
+import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleListProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ObservableSet;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -15,13 +19,17 @@ import org.cirdles.topsoil.app.Topsoil;
 import org.cirdles.topsoil.app.control.dialog.DataImportDialog;
 import org.cirdles.topsoil.app.control.dialog.TopsoilNotification;
 import org.cirdles.topsoil.app.control.FXMLUtils;
-import org.cirdles.topsoil.app.file.TopsoilFileUtils;
-import org.cirdles.topsoil.app.file.Delimiter;
 import org.cirdles.topsoil.app.file.FileChoosers;
 import org.cirdles.topsoil.app.ResourceBundles;
 import org.cirdles.topsoil.data.DataTable;
 import org.cirdles.topsoil.data.DataTemplate;
+import org.cirdles.topsoil.file.DataFormat;
+import org.cirdles.topsoil.file.Delimiter;
+import org.cirdles.topsoil.file.FormatSniffer;
+import org.cirdles.topsoil.file.TopsoilFileUtils;
+import org.cirdles.topsoil.file.cache.TableCache;
 import org.cirdles.topsoil.file.parser.DataParser;
+import org.cirdles.topsoil.utils.StringPool;
 import org.controlsfx.dialog.Wizard;
 import org.controlsfx.dialog.WizardPane;
 
@@ -30,6 +38,8 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.cirdles.topsoil.app.control.dialog.wizards.MultipleImportWizard.INIT_HEIGHT;
 import static org.cirdles.topsoil.app.control.dialog.wizards.MultipleImportWizard.INIT_WIDTH;
@@ -42,6 +52,18 @@ class MultipleImportSourcesView extends WizardPane {
 
     private static final String CONTROLLER_FXML = "project-sources.fxml";
 
+    /**
+     * Parses the files selected for import, at most one per available processor at a time.
+     */
+    private static final ExecutorService IMPORT_EXECUTOR = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "Topsoil Multiple Import");
+                thread.setDaemon(true);
+                return thread;
+            }
+    );
+
     @FXML private Label selectFilesLabel;
     @FXML private Button addFilesButton, removeFileButton;
     @FXML private ListView<DataTable> filesListView;
@@ -52,6 +74,7 @@ class MultipleImportSourcesView extends WizardPane {
 
     private ListProperty<DataTable> tables = new SimpleListProperty<>(FXCollections.observableArrayList());
     private BiMap<DataTable, Path> tablePathMap = HashBiMap.create();
+    private ObservableSet<Path> pendingPaths = FXCollections.observableSet();
     private ResourceBundle resources = ResourceBundles.DIALOGS.getBundle();
 
     //**********************************************//
@@ -85,7 +108,7 @@ class MultipleImportSourcesView extends WizardPane {
 
     @Override
     public void onEnteringPage(Wizard wizard) {
-        wizard.invalidProperty().bind(tables.emptyProperty());
+        wizard.invalidProperty().bind(tables.emptyProperty().or(Bindings.isNotEmpty(pendingPaths)));
         wizard.setTitle(resources.getString("importMultiTitle"));
         if (wizard.getSettings().containsKey(TABLES)) {
             List<DataTable> tableList = (List<DataTable>) wizard.getSettings().get(TABLES);
@@ -115,58 +138,114 @@ class MultipleImportSourcesView extends WizardPane {
     /**
      * Upon pressing "Add Files...", the user is presented with a {@code FileChooser} where they can select multiple
      * table files to import into their new project.
+     * <p>
+     * The import settings for every selected file are collected up front; the files are then parsed concurrently on
+     * {@link #IMPORT_EXECUTOR}, and each table is added to {@link #tables} as soon as it has been read. Files that can't
+     * be read are reported together once the whole batch has finished.
      */
     @FXML
     private void addFilesButtonAction() {
         List<File> files = FileChoosers.openTableFile().showOpenMultipleDialog(Topsoil.getPrimaryStage());
         if ( files != null && !files.isEmpty() ) {
-            List<File> selectedFiles = new ArrayList<>(files);
+            List<Task<DataTable>> importTasks = new ArrayList<>();
             List<File> rejectedFiles = new ArrayList<>();
 
-            // Check all of the files for compatibility.
-            Iterator<File> iterator = selectedFiles.iterator();
+            // Check all of the files for compatibility, and collect their import settings.
             Path path;
-            while ( iterator.hasNext() ) {
-                File file = iterator.next();
+            DataFormat format;
+            for (File file : files) {
                 path = Paths.get(file.toURI());
-                if ( !isFileValid(file) ) {
-                    iterator.remove();
+                if (tablePathMap.containsValue(path) || pendingPaths.contains(path)) {
+                    continue;   // don't read in duplicates
+                }
+                try {
+                    format = TopsoilFileUtils.isFileSupported(path) ? FormatSniffer.sniff(path) : null;
+                } catch (IOException e) {
+                    format = null;
+                }
+                if ( format == null || format.isEmpty() ) {
                     rejectedFiles.add(file);
-                } else if (tablePathMap.containsValue(path)) {
-                    iterator.remove();  // don't read in duplicates
-                } else {
-                    try {
-                        Delimiter guess = TopsoilFileUtils.guessDelimiter(path);
-                        Map<DataImportDialog.Key, Object> fileSettings =
-                                DataImportDialog.showDialog(path.getFileName().toString(), guess, (Stage) this.getScene().getWindow());
-                        if (guess == null) {
-                            guess = (Delimiter) fileSettings.get(DataImportDialog.Key.DELIMITER);
+                    continue;
+                }
+                Map<DataImportDialog.Key, Object> fileSettings =
+                        DataImportDialog.showDialog(path.getFileName().toString(), format, (Stage) this.getScene().getWindow());
+                if (fileSettings == null) {
+                    continue;   // dialog cancelled
+                }
+                String delimiter = ((Delimiter) fileSettings.get(DataImportDialog.Key.DELIMITER)).asString();
+                DataTemplate template = (DataTemplate) fileSettings.get(DataImportDialog.Key.TEMPLATE);
+                DataParser parser = template.getParser();
+                parser.setColumnProjection((BitSet) fileSettings.get(DataImportDialog.Key.COLUMNS));
+                importTasks.add(createImportTask(file, parser, delimiter, rejectedFiles));
+                pendingPaths.add(path);
+            }
+
+            if (importTasks.isEmpty()) {
+                showRejectedFiles(rejectedFiles);
+                return;
+            }
+
+            IntegerProperty remaining = new SimpleIntegerProperty(importTasks.size());
+            for (Task<DataTable> task : importTasks) {
+                task.runningProperty().addListener((observable, wasRunning, isRunning) -> {
+                    if (! isRunning) {
+                        remaining.set(remaining.get() - 1);
+                        if (remaining.get() == 0) {
+                            showRejectedFiles(rejectedFiles);
                         }
-                        String delimiter = (guess != null) ? guess.asString() :
-                                ((Delimiter) fileSettings.get(DataImportDialog.Key.DELIMITER)).asString();
-                        DataTemplate template = (DataTemplate) fileSettings.get(DataImportDialog.Key.TEMPLATE);
-                        DataParser parser = template.getParser();
-                        DataTable table = parser.parseDataTable(path, delimiter, path.getFileName().toString());
-                        tables.add(table);
-                        tablePathMap.put(table, path);
-                    } catch (IOException e) {
-                        iterator.remove();
-                        rejectedFiles.add(file);
                     }
-                }
+                });
+                IMPORT_EXECUTOR.execute(task);
             }
+        }
+    }
 
-            if ( rejectedFiles.size() > 0 ) {
-                StringJoiner badFileNames = new StringJoiner("\n");
-                for (File file : rejectedFiles) {
-                    badFileNames.add(file.getName());
-                }
+    /**
+     * Returns a new {@code Task} that parses the specified file off of the JavaFX application thread. When the task
+     * finishes, the table is added to {@link #tables}, or the file is added to the provided list of rejected files.
+     *
+     * @param file          data File
+     * @param parser        DataParser for the template of the data
+     * @param delimiter     String delimiter
+     * @param rejectedFiles List of Files that couldn't be read
+     *
+     * @return              Task
+     */
+    private Task<DataTable> createImportTask(File file, DataParser parser, String delimiter, List<File> rejectedFiles) {
+        Path path = Paths.get(file.toURI());
+        String label = path.getFileName().toString();
+        Task<DataTable> task = new Task<DataTable>() {
+            @Override
+            protected DataTable call() throws Exception {
+                parser.setTableCache(TableCache.getDefault());
+                parser.setStringPool(StringPool.getDefault());
+                return parser.parseDataTable(path, delimiter, label);
+            }
+        };
+        task.setOnSucceeded(event -> {
+            pendingPaths.remove(path);
+            DataTable table = task.getValue();
+            tables.add(table);
+            tablePathMap.put(table, path);
+        });
+        task.setOnFailed(event -> {
+            pendingPaths.remove(path);
+            rejectedFiles.add(file);
+        });
+        return task;
+    }
 
-                TopsoilNotification.error(
-                        resources.getString("fileErrorTitle"),
-                        resources.getString("fileErrorMessage") + " \n\n" + badFileNames.toString()
-                );
+    private void showRejectedFiles(List<File> rejectedFiles) {
+        if ( rejectedFiles.size() > 0 ) {
+            StringJoiner badFileNames = new StringJoiner("\n");
+            for (File file : rejectedFiles) {
+                badFileNames.add(file.getName());
             }
+
+            TopsoilNotification.error(
+                    resources.getString("fileErrorTitle"),
+                    resources.getString("fileErrorMessage") + " \n\n" + badFileNames.toString()
+            );
         }
     }
 
@@ -181,15 +260,4 @@ class MultipleImportSourcesView extends WizardPane {
         tablePathMap.remove(selected);
     }
 
-    private boolean isFileValid(File file) {
-        Path path = Paths.get(file.toURI());
-        boolean valid;
-        try {
-            valid = TopsoilFileUtils.isFileSupported(path) && ! TopsoilFileUtils.isFileEmpty(path);
-        } catch ( IOException e ) {
-            throw new RuntimeException(e);
-        }
-        return valid;
-    }
-
 }
@@ -5,19 +5,30 @@ import org.cirdles.topsoil.Variable;
 import org.cirdles.topsoil.app.data.FXDataRow;
 import org.cirdles.topsoil.app.data.FXDataTable;
 import org.cirdles.topsoil.data.DataColumn;
+import org.cirdles.topsoil.data.DataRow;
 import org.cirdles.topsoil.data.DataTable;
+import org.cirdles.topsoil.data.TableUtils;
 import org.cirdles.topsoil.javafx.PlotView;
 import org.cirdles.topsoil.plot.DataEntry;
 import org.cirdles.topsoil.plot.PlotOptions;
 import org.cirdles.topsoil.plot.PlotType;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class FXPlotView extends PlotView {
 
     private ListChangeListener<FXDataRow> tableListener;
 
+    // The number of data entries for each top-level row of the table, in order, and the rows whose entries are out of
+    // date. These are not initialized with the fields, since the superclass constructor updates the data entries.
+    private List<Integer> entryCounts;
+    private Set<DataRow> changedRows;
+
     FXPlotView(PlotType plotType, PlotOptions options, FXDataTable table, Map<Variable<?>, DataColumn<?>> variableMap) {
         super(plotType, options, table, variableMap);
     }
@@ -49,13 +60,113 @@ public class FXPlotView extends PlotView {
         super.setData(table, variableMap);
     }
 
+    //**********************************************//
+    //               PROTECTED METHODS              //
+    //**********************************************//
+
+    @Override
+    protected void updateDataEntries() {
+        super.updateDataEntries();
+
+        entryCounts = new ArrayList<>();
+        changedRows = Collections.newSetFromMap(new IdentityHashMap<>());
+        DataTable table = getDataTable();
+        if (table != null) {
+            for (DataRow row : table.getRows()) {
+                entryCounts.add(TableUtils.countLeafRows(Collections.singletonList(row)));
+            }
+        }
+    }
+
+    //**********************************************//
+    //                PRIVATE METHODS               //
+    //**********************************************//
+
     private void setTableListenerIfNull() {
         if (tableListener == null) {
             tableListener = c -> {
                 while (c.next()) {
-                    updateDataEntries();
+                    if (c.wasPermutated()) {
+                        updateDataEntries();
+                        return;
+                    }
+                    if (c.wasUpdated()) {
+                        // A row, or a row in its tree, has changed; its entries are rebuilt at the next pulse, since
+                        // changing a row with many children reports a change for each child
+                        changedRows.addAll(c.getList().subList(c.getFrom(), c.getTo()));
+                    } else {
+                        replaceRows(c.getFrom(), c.getRemovedSize(), c.getAddedSubList());
+                        changedRows.removeAll(c.getRemoved());
+                    }
+                }
+                if (! changedRows.isEmpty()) {
+                    getUpdateScheduler().request("rows", this::updateChangedRows);
                 }
             };
         }
     }
+
+    /**
+     * Replaces the entries of {@code removedSize} rows, starting with the row at {@code from}, with the entries of the
+     * provided rows.
+     */
+    private void replaceRows(int from, int removedSize, List<? extends DataRow> addedRows) {
+        int offset = countEntries(from);
+        List<Integer> removedCounts = entryCounts.subList(from, from + removedSize);
+        int removedEntries = 0;
+        for (int count : removedCounts) {
+            removedEntries += count;
+        }
+        removedCounts.clear();
+
+        List<DataEntry> entries = new ArrayList<>();
+        List<Integer> addedCounts = new ArrayList<>(addedRows.size());
+        for (DataRow row : addedRows) {
+            List<DataEntry> rowEntries = getPlotData(row);
+            addedCounts.add(rowEntries.size());
+            entries.addAll(rowEntries);
+        }
+        entryCounts.addAll(from, addedCounts);
+        replaceDataEntries(offset, offset + removedEntries, entries);
+    }
+
+    /**
+     * Rebuilds the entries of the rows that have changed since the last update, replacing only the entries that
+     * differ.
+     */
+    private void updateChangedRows() {
+        DataTable table = getDataTable();
+        if (table == null) {
+            changedRows.clear();
+            return;
+        }
+        List<? extends DataRow> rows = table.getRows();
+        int offset = 0;
+        for (int i = 0; i < rows.size() && ! changedRows.isEmpty(); i++) {
+            DataRow row = rows.get(i);
+            int count = entryCounts.get(i);
+            if (changedRows.remove(row)) {
+                List<DataEntry> rowEntries = getPlotData(row);
+                replaceDataEntries(offset, offset + count, rowEntries);
+                count = rowEntries.size();
+                entryCounts.set(i, count);
+            }
+            offset += count;
+        }
+    }
+
+    private List<DataEntry> getPlotData(DataRow row) {
+        return TableUtils.getPlotData(
+                Collections.singletonList(row), getVariableMap(), getDataTable().getUncertainty()
+        );
+    }
+
+    private int countEntries(int rowCount) {
+        int count = 0;
+        for (int i = 0; i < rowCount; i++) {
+            count += entryCounts.get(i);
+        }
+        return count;
+    }
+
 }
@@ -0,0 +1,177 @@
+package org.cirdles.topsoil.app.data;
+
+import org.apache.commons.lang3.Validate;
+import org.cirdles.topsoil.data.ColumnarDataTable;
+import org.cirdles.topsoil.data.DataColumn;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The values of one row of a {@link ColumnarDataTable}, as a map of the columns of an {@link FXDataTable} to their
+ * values. Values are read from and written to the table's arrays, so that an imported table's values are not copied
+ * into a map for each row.
+ * <p>
+ * Only the columns the map was created with can be given values.
+ */
+class ColumnarValueMap extends AbstractMap<DataColumn<?>, Object> {
+
+    //**********************************************//
+    //                  ATTRIBUTES                  //
+    //**********************************************//
+
+    private final ColumnarDataTable table;
+    private final int rowIndex;
+    private final DataColumn<?>[] columns;
+    private final Map<DataColumn<?>, Integer> columnIndices;
+
+    //**********************************************//
+    //                 CONSTRUCTORS                 //
+    //**********************************************//
+
+    /**
+     * Constructs a new map for a row of the provided table. The columns and their indices are shared by the maps of
+     * every row of the table, and should not be modified.
+     *
+     * @param table         ColumnarDataTable
+     * @param rowIndex      index of the row in the table's arrays
+     * @param columns       the column for each leaf column index, or null if a leaf column has no column
+     * @param columnIndices Map of each column to its leaf column index
+     */
+    ColumnarValueMap(ColumnarDataTable table, int rowIndex, DataColumn<?>[] columns,
+                     Map<DataColumn<?>, Integer> columnIndices) {
+        this.table = table;
+        this.rowIndex = rowIndex;
+        this.columns = columns;
+        this.columnIndices = columnIndices;
+    }
+
+    //**********************************************//
+    //                PUBLIC METHODS                //
+    //**********************************************//
+
+    @Override
+    public boolean containsKey(Object key) {
+        Integer index = columnIndices.get(key);
+        return index != null && table.hasValue(rowIndex, index);
+    }
+
+    @Override
+    public Object get(Object key) {
+        Integer index = columnIndices.get(key);
+        return (index != null) ? table.getValue(rowIndex, index) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the column is not one of the map's columns
+     */
+    @Override
+    public Object put(DataColumn<?> key, Object value) {
+        Integer index = columnIndices.get(key);
+        Validate.isTrue(index != null, "Column is not a leaf column of the table: " + key);
+        Object old = table.getValue(rowIndex, index);
+        table.setValue(rowIndex, index, value);
+        return old;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        Integer index = columnIndices.get(key);
+        if (index == null) {
+            return null;
+        }
+        Object old = table.getValue(rowIndex, index);
+        table.setValue(rowIndex, index, null);
+        return old;
+    }
+
+    @Override
+    public Set<Entry<DataColumn<?>, Object>> entrySet() {
+        return new AbstractSet<Entry<DataColumn<?>, Object>>() {
+            @Override
+            public Iterator<Entry<DataColumn<?>, Object>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                int size = 0;
+                for (int i = 0; i < columns.length; i++) {
+                    if (columns[i] != null && table.hasValue(rowIndex, i)) {
+                        size++;
+                    }
+                }
+                return size;
+            }
+        };
+    }
+
+    //**********************************************//
+    //                INNER CLASSES                 //
+    //**********************************************//
+
+    private class EntryIterator implements Iterator<Entry<DataColumn<?>, Object>> {
+
+        private int next = advance(0);
+        private int last = -1;
+
+        @Override
+        public boolean hasNext() {
+            return next < columns.length;
+        }
+
+        @Override
+        public Entry<DataColumn<?>, Object> next() {
+            if (! hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next = advance(next + 1);
+            return new ValueEntry(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            table.setValue(rowIndex, last, null);
+            last = -1;
+        }
+
+        private int advance(int from) {
+            while (from < columns.length && (columns[from] == null || ! table.hasValue(rowIndex, from))) {
+                from++;
+            }
+            return from;
+        }
+    }
+
+    /**
+     * An entry whose value is written through to the table when set.
+     */
+    private class ValueEntry extends SimpleEntry<DataColumn<?>, Object> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int index;
+
+        private ValueEntry(int index) {
+            super(columns[index], table.getValue(rowIndex, index));
+            this.index = index;
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            table.setValue(rowIndex, index, value);
+            return super.setValue(value);
+        }
+    }
+
+}
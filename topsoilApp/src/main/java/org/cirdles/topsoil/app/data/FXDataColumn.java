@@ -7,6 +7,7 @@ import javafx.beans.property.SimpleListProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import org.cirdles.topsoil.data.DataColumn;
+import org.cirdles.topsoil.symbols.SymbolKeyRegistry;
 
 public class FXDataColumn<T> extends FXDataComponent<DataColumn<?>> implements DataColumn<T> {
 
@@ -31,6 +32,7 @@ public class FXDataColumn<T> extends FXDataComponent<DataColumn<?>> implements D
 
     private Class<T> valueType;
     private T defaultValue;
+    private final int ordinal = SymbolKeyRegistry.nextOrdinal();
 
     //**********************************************//
     //                 CONSTRUCTORS                 //
@@ -60,4 +62,9 @@ public class FXDataColumn<T> extends FXDataComponent<DataColumn<?>> implements D
         return valueType;
     }
 
+    @Override
+    public int getOrdinal() {
+        return ordinal;
+    }
+
 }
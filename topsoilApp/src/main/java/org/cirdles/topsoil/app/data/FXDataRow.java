@@ -1,5 +1,6 @@
 package org.cirdles.topsoil.app.data;
 
+import javafx.beans.InvalidationListener;
 import javafx.beans.Observable;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.ListProperty;
@@ -15,8 +16,12 @@ import javafx.collections.ObservableList;
 import javafx.collections.ObservableMap;
 import org.cirdles.topsoil.data.DataColumn;
 import org.cirdles.topsoil.data.DataRow;
-import org.cirdles.topsoil.symbols.SimpleSymbolMap;
+import org.cirdles.topsoil.data.ImmutableDataColumn;
+import org.cirdles.topsoil.data.ImmutableDataRow;
+import org.cirdles.topsoil.symbols.ArraySymbolMap;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 public class FXDataRow extends FXDataComponent<DataRow> implements DataRow {
@@ -29,7 +34,8 @@ public class FXDataRow extends FXDataComponent<DataRow> implements DataRow {
                         row.titleProperty(),
                         row.selectedProperty(),
                         row.columnMapReadOnlyProperty(),
-                        row.childRowsProperty()
+                        row.childRowsProperty(),
+                        row.visibleProperty()
                 };
             })
     );
@@ -45,8 +51,7 @@ public class FXDataRow extends FXDataComponent<DataRow> implements DataRow {
 //    public final ReadOnlyMapProperty<DataColumn<?>, ObjectProperty<?>> columnMapProperty() {
 //        return columnMap;
 //    }
-    private MapProperty<DataColumn<?>, Object> columnMap = new SimpleMapProperty<>(
-            FXCollections.observableMap(new SimpleSymbolMap<>()));
+    private final MapProperty<DataColumn<?>, Object> columnMap;
     public final ReadOnlyMapProperty<DataColumn<?>, Object> columnMapReadOnlyProperty() {
         return columnMap;
     }
@@ -66,12 +71,31 @@ public class FXDataRow extends FXDataComponent<DataRow> implements DataRow {
         visible.set(value);
     }
 
+    // The last snapshot of this row and the column copies it was taken with, discarded whenever the row or a row in its
+    // tree changes. The listener that discards it is only attached when the first snapshot is taken.
+    private ImmutableDataRow snapshot;
+    private InvalidationListener discardSnapshot;
+    private Map<DataColumn<?>, ImmutableDataColumn<?>> snapshotColumns;
+
     //**********************************************//
     //                 CONSTRUCTORS                 //
     //**********************************************//
 
     public FXDataRow(String title, boolean selected) {
+        this(title, selected, new ArraySymbolMap<>());
+    }
+
+    /**
+     * Constructs a new row whose values are held in the provided map, such as a view of the values of a row of a
+     * {@code ColumnarDataTable}.
+     *
+     * @param title     String row title
+     * @param selected  true if selected
+     * @param values    Map of columns to values
+     */
+    FXDataRow(String title, boolean selected, Map<DataColumn<?>, Object> values) {
         super(title, selected);
+        columnMap = new SimpleMapProperty<>(FXCollections.observableMap(values));
     }
 
     public FXDataRow(DataRow row) {
@@ -103,6 +127,34 @@ public class FXDataRow extends FXDataComponent<DataRow> implements DataRow {
         columnMap.put(column, value);
     }
 
+    /**
+     * Returns an immutable snapshot of this row and its children, with values mapped by the provided column copies.
+     * The last snapshot is returned again if neither the row, its tree, nor the column copies have changed since it
+     * was taken, so that unchanged trees are shared between snapshots of the table.
+     *
+     * @param columns   Map of columns to their immutable copies
+     * @return          ImmutableDataRow
+     */
+    ImmutableDataRow snapshot(Map<DataColumn<?>, ImmutableDataColumn<?>> columns) {
+        if (discardSnapshot == null) {
+            discardSnapshot = observable -> snapshot = null;
+            titleProperty().addListener(discardSnapshot);
+            selectedProperty().addListener(discardSnapshot);
+            visible.addListener(discardSnapshot);
+            columnMap.addListener(discardSnapshot);
+            childRows.addListener(discardSnapshot);
+        }
+        if (snapshot == null || snapshotColumns != columns) {
+            List<ImmutableDataRow> children = new ArrayList<>(childRows.size());
+            for (FXDataRow child : childRows) {
+                children.add(child.snapshot(columns));
+            }
+            snapshot = new ImmutableDataRow(this, columns, children);
+            snapshotColumns = columns;
+        }
+        return snapshot;
+    }
+
     void setValueForColumnUnsafe(DataColumn<?> column, Object value) {
         if (! column.match(value)) {
             throw new IllegalArgumentException("Value \"" + value + "\" must match type of column (" + column.getType() +").");
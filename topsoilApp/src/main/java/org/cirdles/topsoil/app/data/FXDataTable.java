@@ -13,14 +13,22 @@ import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import org.cirdles.topsoil.data.Uncertainty;
 import org.cirdles.topsoil.app.control.undo.UndoAction;
 import org.cirdles.topsoil.app.control.undo.UndoManager;
+import org.cirdles.topsoil.data.ColumnarDataRow;
+import org.cirdles.topsoil.data.ColumnarDataTable;
 import org.cirdles.topsoil.data.DataColumn;
 import org.cirdles.topsoil.data.DataRow;
 import org.cirdles.topsoil.data.DataTable;
 import org.cirdles.topsoil.data.DataTemplate;
+import org.cirdles.topsoil.data.ImmutableDataColumn;
+import org.cirdles.topsoil.data.ImmutableDataRow;
+import org.cirdles.topsoil.data.ImmutableDataTable;
+import org.cirdles.topsoil.data.LeafIndex;
+import org.cirdles.topsoil.data.TableUtils;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -69,7 +77,8 @@ public class FXDataTable implements DataTable {
                         row.titleProperty(),
                         row.selectedProperty(),
                         row.columnMapReadOnlyProperty(),
-                        row.childRowsProperty()
+                        row.childRowsProperty(),
+                        row.visibleProperty()
                 };
             })
     );
@@ -119,12 +128,25 @@ public class FXDataTable implements DataTable {
     private final DataTemplate template;
     private UndoManager undoManager = new UndoManager(50);
 
+    // Title and leaf indices of the column and row trees, discarded whenever either tree changes and rebuilt when
+    // next used
+    private Map<String, DataColumn<?>> columnIndex;
+    private Map<String, DataRow> rowIndex;
+    private LeafIndex<DataColumn<?>> leafColumnIndex;
+    private LeafIndex<DataRow> leafRowIndex;
+
+    // Immutable copies of the column tree for snapshots, mapped by the columns they were copied from; discarded
+    // whenever the column tree changes
+    private List<ImmutableDataColumn<?>> columnSnapshot;
+    private Map<DataColumn<?>, ImmutableDataColumn<?>> columnSnapshotMap;
+
     //**********************************************//
     //                 CONSTRUCTORS                 //
     //**********************************************//
 
     public FXDataTable(DataTable table) {
         this.template = table.getTemplate();
+        invalidateIndicesOnChange();
         setTitle(table.getTitle());
         setUncertainty(table.getUncertainty());
 
@@ -135,11 +157,26 @@ public class FXDataTable implements DataTable {
         }
 
         // Create FXDataRows for each row, and associate their values with the newly created FXDataColumn
-        this.rows.addAll(mapRowsToFXDataColumns(table.getRows(), this.columns));
+        if (table instanceof ColumnarDataTable) {
+            ColumnarDataTable columnarTable = (ColumnarDataTable) table;
+            List<DataColumn<?>> leafColumns = columnarTable.getLeafColumns();
+            FXDataColumn<?>[] fxLeafColumns = new FXDataColumn<?>[leafColumns.size()];
+            Map<DataColumn<?>, Integer> fxLeafIndices = new HashMap<>();
+            for (int i = 0; i < fxLeafColumns.length; i++) {
+                fxLeafColumns[i] = findColumn(leafColumns.get(i).getTitle());
+                if (fxLeafColumns[i] != null) {
+                    fxLeafIndices.put(fxLeafColumns[i], i);
+                }
+            }
+            this.rows.addAll(mapColumnarRows(columnarTable, table.getRows(), fxLeafColumns, fxLeafIndices));
+        } else {
+            this.rows.addAll(mapRowsToFXDataColumns(table.getRows()));
+        }
     }
 
     public FXDataTable(DataTemplate template, String title, List<FXDataColumn<?>> columns, List<FXDataRow> rows) {
         this.template = template;
+        invalidateIndicesOnChange();
         setTitle(title);
 
         if (columns != null) {
@@ -159,6 +196,101 @@ public class FXDataTable implements DataTable {
         return template;
     }
 
+    /**
+     * Appends rows to the end of the table, such as rows read from data appended to the table's source file. The values
+     * of each row are associated with the table's columns by title, and the rows are added in a single change.
+     *
+     * @param dataRows  List of DataRows
+     */
+    public void appendRows(List<? extends DataRow> dataRows) {
+        rows.addAll(mapRowsToFXDataColumns(dataRows));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned list is cached until the column tree changes, and cannot be modified.
+     */
+    @Override
+    public List<DataColumn<?>> getLeafColumns() {
+        return getLeafColumnIndex().getLeaves();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned list is cached until the row tree changes, and cannot be modified.
+     */
+    @Override
+    public List<DataRow> getLeafRows() {
+        return getLeafRowIndex().getLeaves();
+    }
+
+    @Override
+    public int indexOfLeafColumn(DataColumn<?> column) {
+        return getLeafColumnIndex().indexOf(column);
+    }
+
+    @Override
+    public int indexOfLeafRow(DataRow row) {
+        return getLeafRowIndex().indexOf(row);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Columns are found in an index of the titles in the column tree, which is rebuilt after the tree changes.
+     */
+    @Override
+    public FXDataColumn<?> findColumn(String title) {
+        if (title == null) {
+            return null;
+        }
+        if (columnIndex == null) {
+            columnIndex = TableUtils.indexByTitle(getColumns());
+        }
+        return (FXDataColumn<?>) columnIndex.get(title);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Rows are found in an index of the titles in the row tree, which is rebuilt after the tree changes.
+     */
+    @Override
+    public FXDataRow findRow(String title) {
+        if (title == null) {
+            return null;
+        }
+        if (rowIndex == null) {
+            rowIndex = TableUtils.indexByTitle(getRows());
+        }
+        return (FXDataRow) rowIndex.get(title);
+    }
+
+    /**
+     * Returns an immutable snapshot of this table as it is now, which can be read from a background thread while this
+     * table continues to be edited.
+     * <p>
+     * A snapshot shares the copies of any rows whose trees have not changed since the last snapshot, and the copies of
+     * the columns if the column tree has not changed, so that taking a snapshot after a small edit is cheap. This
+     * method reads JavaFX properties, so it must be called on the JavaFX application thread.
+     *
+     * @return  ImmutableDataTable
+     */
+    public ImmutableDataTable snapshot() {
+        if (columnSnapshot == null) {
+            Map<DataColumn<?>, ImmutableDataColumn<?>> copies = new HashMap<>();
+            columnSnapshot = ImmutableDataColumn.copyOf(getColumns(), copies);
+            columnSnapshotMap = copies;
+        }
+        List<ImmutableDataRow> rowSnapshot = new ArrayList<>(getRows().size());
+        for (FXDataRow row : getRows()) {
+            rowSnapshot.add(row.snapshot(columnSnapshotMap));
+        }
+        return new ImmutableDataTable(getTemplate(), getTitle(), getUncertainty(), columnSnapshot, rowSnapshot);
+    }
+
     public void addUndo(UndoAction action) {
         undoManager.add(action);
     }
@@ -183,7 +315,38 @@ public class FXDataTable implements DataTable {
     //                PRIVATE METHODS               //
     //**********************************************//
 
-    private List<FXDataRow> mapRowsToFXDataColumns(List<? extends DataRow> dataRows, List<FXDataColumn<?>> fxColumns) {
+    /**
+     * Discards the indices of a tree, and the column copies used for snapshots, whenever a component is added to or
+     * removed from it, or a title in it changes.
+     */
+    private void invalidateIndicesOnChange() {
+        getColumns().addListener((ListChangeListener<FXDataColumn<?>>) c -> {
+            columnIndex = null;
+            leafColumnIndex = null;
+            columnSnapshot = null;
+            columnSnapshotMap = null;
+        });
+        getRows().addListener((ListChangeListener<FXDataRow>) c -> {
+            rowIndex = null;
+            leafRowIndex = null;
+        });
+    }
+
+    private LeafIndex<DataColumn<?>> getLeafColumnIndex() {
+        if (leafColumnIndex == null) {
+            leafColumnIndex = new LeafIndex<>(getColumns());
+        }
+        return leafColumnIndex;
+    }
+
+    private LeafIndex<DataRow> getLeafRowIndex() {
+        if (leafRowIndex == null) {
+            leafRowIndex = new LeafIndex<>(getRows());
+        }
+        return leafRowIndex;
+    }
+
+    private List<FXDataRow> mapRowsToFXDataColumns(List<? extends DataRow> dataRows) {
         List<FXDataRow> fxRows = new ArrayList<>();
         FXDataRow newRow;
         FXDataColumn<?> col;
@@ -191,16 +354,12 @@ public class FXDataTable implements DataTable {
             newRow = new FXDataRow(oldRow.getTitle(), oldRow.isSelected());
 
             if (oldRow.countChildren() > 0) {
-                newRow.getChildren().addAll(mapRowsToFXDataColumns(oldRow.getChildren(), fxColumns));
+                newRow.getChildren().addAll(mapRowsToFXDataColumns(oldRow.getChildren()));
             } else {
-                Map<DataColumn<?>, Object> map = new HashMap<>(oldRow.getColumnValueMap());
-                for (Map.Entry<DataColumn<?>, Object> entry : map.entrySet()) {
-                    for (FXDataColumn<?> fxColumn : fxColumns) {
-                        col = (FXDataColumn<?>) fxColumn.find(entry.getKey().getTitle());
-                        if (col != null) {
-                            newRow.setValueForColumnUnsafe(col, entry.getValue());
-                            break;
-                        }
+                for (Map.Entry<? extends DataColumn<?>, Object> entry : oldRow.getColumnValueMap().entrySet()) {
+                    col = findColumn(entry.getKey().getTitle());
+                    if (col != null) {
+                        newRow.setValueForColumnUnsafe(col, entry.getValue());
                     }
                 }
             }
@@ -210,4 +369,30 @@ public class FXDataTable implements DataTable {
         return fxRows;
     }
 
+    /**
+     * Creates FXDataRows for the rows of a {@code ColumnarDataTable}, whose values remain in the table's arrays and
+     * are read and written through a {@link ColumnarValueMap}, rather than being copied into a map for each row.
+     */
+    private List<FXDataRow> mapColumnarRows(ColumnarDataTable table, List<? extends DataRow> dataRows,
+                                            FXDataColumn<?>[] fxLeafColumns,
+                                            Map<DataColumn<?>, Integer> fxLeafIndices) {
+        List<FXDataRow> fxRows = new ArrayList<>();
+        FXDataRow newRow;
+        for (DataRow oldRow : dataRows) {
+            if (oldRow.countChildren() > 0) {
+                newRow = new FXDataRow(oldRow.getTitle(), oldRow.isSelected());
+                newRow.getChildren().addAll(mapColumnarRows(table, oldRow.getChildren(), fxLeafColumns, fxLeafIndices));
+            } else {
+                newRow = new FXDataRow(
+                        oldRow.getTitle(),
+                        oldRow.isSelected(),
+                        new ColumnarValueMap(table, ((ColumnarDataRow) oldRow).getIndex(), fxLeafColumns, fxLeafIndices)
+                );
+            }
+
+            fxRows.add(newRow);
+        }
+        return fxRows;
+    }
+
 }
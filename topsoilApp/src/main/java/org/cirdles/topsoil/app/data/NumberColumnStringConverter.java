@@ -6,8 +6,8 @@ import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.util.StringConverter;
 import org.cirdles.topsoil.data.TableUtils;
+import org.cirdles.topsoil.utils.NumberLexer;
 
-import java.math.BigDecimal;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
@@ -25,6 +25,7 @@ public class NumberColumnStringConverter extends StringConverter<Number> {
     private String patternBase;
     private char decSeparator;
     private DecimalFormat df = (DecimalFormat) DecimalFormat.getNumberInstance(Locale.getDefault());
+    private final NumberLexer lexer = new NumberLexer();
 
     private IntegerProperty numFractionDigits = new SimpleIntegerProperty(9);
     public IntegerProperty numFractionDigitsProperty() {
@@ -121,12 +122,7 @@ public class NumberColumnStringConverter extends StringConverter<Number> {
         if (str.isEmpty()) {
             return null;
         }
-        try {
-            return new BigDecimal(str);
-        } catch (NumberFormatException e) {
-            return Double.NaN;
-        }
-
+        return lexer.lex(str) ? lexer.doubleValue() : Double.NaN;
     }
 
 }
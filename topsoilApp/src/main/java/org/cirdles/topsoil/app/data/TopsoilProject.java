@@ -12,6 +12,7 @@ import javafx.collections.ObservableList;
 import javafx.collections.ObservableMap;
 import javafx.stage.Stage;
 import org.cirdles.topsoil.Lambda;
+import org.cirdles.topsoil.app.file.DataFileFollower;
 import org.cirdles.topsoil.plot.PlotOption;
 import org.cirdles.topsoil.plot.PlotOptions;
 import org.cirdles.topsoil.javafx.PlotView;
@@ -67,6 +68,7 @@ public class TopsoilProject {
     }
 
     public void removeDataTable(FXDataTable table) {
+        DataFileFollower.stopFollowing(table);
         dataTables.remove(table);
         ReadOnlyListProperty<PlotView> plotList = plotMap.get(table);
         for (PlotView plot : plotList) {
@@ -0,0 +1,249 @@
+package org.cirdles.topsoil.app.file;
+
+import javafx.application.Platform;
+import org.apache.commons.lang3.Validate;
+import org.cirdles.topsoil.app.ResourceBundles;
+import org.cirdles.topsoil.app.control.dialog.TopsoilNotification;
+import org.cirdles.topsoil.app.data.FXDataTable;
+import org.cirdles.topsoil.data.DataColumn;
+import org.cirdles.topsoil.data.DataRow;
+import org.cirdles.topsoil.file.MappedRecordReader;
+import org.cirdles.topsoil.file.RecordReader;
+import org.cirdles.topsoil.file.TopsoilFileUtils;
+import org.cirdles.topsoil.file.parser.DefaultDataParser;
+import org.cirdles.topsoil.utils.StringPool;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Follows a data file that is still being written, such as the output of an instrument during a run, appending the
+ * records written to the file to an {@link FXDataTable}.
+ * <p>
+ * The file's directory is watched with a {@link WatchService}. Each time the file is modified, only the bytes after the
+ * last record read are parsed, and the new rows are added to the table on the JavaFX application thread in batches of
+ * at most {@value #APPEND_BATCH_SIZE}, so that open plots of the table only need to process the new rows. A record is
+ * read once its line terminator has been written. Only tables of the default template can be followed.
+ * <p>
+ * Followers are started and stopped on the JavaFX application thread.
+ */
+public class DataFileFollower implements Closeable {
+
+    //**********************************************//
+    //                  CONSTANTS                   //
+    //**********************************************//
+
+    private static final int APPEND_BATCH_SIZE = 1024;
+
+    private static final Map<FXDataTable, DataFileFollower> FOLLOWERS = new HashMap<>();
+
+    //**********************************************//
+    //                  ATTRIBUTES                  //
+    //**********************************************//
+
+    private final FXDataTable table;
+    private final Path path;
+    private final String delimiter;
+    private final List<DataColumn<?>> columns;
+    private final DefaultDataParser parser = new DefaultDataParser(false);
+    private final WatchService watchService;
+
+    // Accessed only by the watch thread once started
+    private long offset;
+    private int rowCount;
+
+    private volatile boolean closed;
+
+    //**********************************************//
+    //                 CONSTRUCTORS                 //
+    //**********************************************//
+
+    private DataFileFollower(FXDataTable table, Path path, String delimiter, long offset, BitSet projection)
+            throws IOException {
+        this.table = table;
+        this.path = path.toAbsolutePath();
+        this.delimiter = delimiter;
+        this.columns = new ArrayList<>(table.getLeafColumns());
+        this.offset = offset;
+        this.rowCount = table.getRows().size();
+        parser.setColumnProjection(projection);
+        parser.setStringPool(StringPool.getDefault());
+
+        this.watchService = path.getFileSystem().newWatchService();
+        this.path.getParent().register(
+                watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY
+        );
+    }
+
+    //**********************************************//
+    //                PUBLIC METHODS                //
+    //**********************************************//
+
+    /**
+     * Starts following the data file of a table, appending any records written to the file after the specified byte
+     * offset. Any follower already started for the table is stopped.
+     *
+     * @param table         FXDataTable parsed from the file
+     * @param path          data file Path
+     * @param delimiter     String delimiter
+     * @param offset        byte offset following the last record of the file that has been read into the table
+     * @param projection    BitSet of the cells that the table was parsed with, or null if every cell was read
+     *
+     * @return              DataFileFollower
+     * @throws IOException  if the file's directory cannot be watched
+     */
+    public static DataFileFollower follow(FXDataTable table, Path path, String delimiter, long offset,
+                                          BitSet projection) throws IOException {
+        Validate.notNull(table, "Table cannot be null.");
+        Validate.notNull(path, "Path cannot be null.");
+        Validate.notEmpty(delimiter, "Delimiter cannot be empty.");
+        Validate.isTrue(offset >= 0, "Offset cannot be negative.");
+
+        stopFollowing(table);
+        DataFileFollower follower = new DataFileFollower(table, path, delimiter, offset, projection);
+        FOLLOWERS.put(table, follower);
+
+        Thread thread = new Thread(follower::watch, "Topsoil Follow " + path.getFileName());
+        thread.setDaemon(true);
+        thread.start();
+        return follower;
+    }
+
+    /**
+     * Stops following the data file of the specified table, if it is being followed.
+     *
+     * @param table FXDataTable
+     */
+    public static void stopFollowing(FXDataTable table) {
+        DataFileFollower follower = FOLLOWERS.get(table);
+        if (follower != null) {
+            follower.close();
+        }
+    }
+
+    /**
+     * Stops following the data files of all tables.
+     */
+    public static void stopAll() {
+        for (DataFileFollower follower : new ArrayList<>(FOLLOWERS.values())) {
+            follower.close();
+        }
+    }
+
+    /**
+     * Returns true if the data file of the specified table is being followed.
+     *
+     * @param table FXDataTable
+     * @return      true if following
+     */
+    public static boolean isFollowing(FXDataTable table) {
+        return FOLLOWERS.containsKey(table);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public void close() {
+        if (! closed) {
+            closed = true;
+            FOLLOWERS.remove(table, this);
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    //**********************************************//
+    //                PRIVATE METHODS               //
+    //**********************************************//
+
+    /**
+     * Reads anything written since the table was parsed, then waits for changes to the file's directory until the
+     * follower is closed.
+     */
+    private void watch() {
+        try {
+            readAppendedRecords();
+            WatchKey key;
+            boolean modified;
+            while (! closed) {
+                key = watchService.take();
+                modified = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW ||
+                            path.getFileName().equals(event.context())) {
+                        modified = true;
+                    }
+                }
+                if (modified) {
+                    readAppendedRecords();
+                }
+                if (! key.reset()) {
+                    throw new IOException("Directory is no longer accessible: " + path.getParent());
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Stopped following
+        } catch (IOException | RuntimeException e) {
+            if (! closed) {
+                e.printStackTrace();
+                Platform.runLater(() -> {
+                    close();
+                    TopsoilNotification.error(
+                            ResourceBundles.DIALOGS.getString("followErrorTitle"),
+                            ResourceBundles.DIALOGS.getString("followErrorMessage") + "\n\n" + path.getFileName()
+                    );
+                });
+            }
+        }
+    }
+
+    /**
+     * Parses the complete records written since the last read, and appends their rows to the table.
+     */
+    private void readAppendedRecords() throws IOException {
+        long size = Files.size(path);
+        if (size < offset) {
+            throw new IOException("File was truncated: " + path);
+        }
+        long end = TopsoilFileUtils.findLastRecordEnd(path, offset, size);
+        if (end <= offset) {
+            return;
+        }
+
+        List<DataRow> rows;
+        try (RecordReader records = new MappedRecordReader(path, delimiter, offset, end)) {
+            rows = parser.parseRows(records, columns, rowCount);
+        }
+        offset = end;
+        rowCount += rows.size();
+
+        for (int i = 0; i < rows.size(); i += APPEND_BATCH_SIZE) {
+            List<DataRow> batch = rows.subList(i, Math.min(i + APPEND_BATCH_SIZE, rows.size()));
+            Platform.runLater(() -> {
+                if (! closed) {
+                    table.appendRows(batch);
+                }
+            });
+        }
+    }
+
+}
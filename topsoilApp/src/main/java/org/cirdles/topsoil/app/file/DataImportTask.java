@@ -0,0 +1,168 @@
+package org.cirdles.topsoil.app.file;
+
+import javafx.concurrent.Task;
+import org.apache.commons.lang3.Validate;
+import org.cirdles.topsoil.app.ResourceBundles;
+import org.cirdles.topsoil.app.data.FXDataTable;
+import org.cirdles.topsoil.data.ColumnarDataTable;
+import org.cirdles.topsoil.data.DataTable;
+import org.cirdles.topsoil.file.MappedRecordReader;
+import org.cirdles.topsoil.file.RecordReader;
+import org.cirdles.topsoil.file.cache.TableCache;
+import org.cirdles.topsoil.file.parser.DataParser;
+import org.cirdles.topsoil.file.parser.ParseMonitor;
+import org.cirdles.topsoil.utils.StringPool;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.MessageFormat;
+
+/**
+ * A {@code Task} that parses a table of data and builds its {@link FXDataTable} off of the JavaFX application thread.
+ * <p>
+ * Progress is reported in terms of the input consumed, when its size is known, and the number of rows read. If the
+ * task is cancelled, the parse is abandoned at its next progress update. Files are imported through the default
+ * {@link TableCache}, so a file that has not changed since it was last imported is not parsed again.
+ * <p>
+ * Data of at least {@link #COLUMNAR_THRESHOLD} bytes or characters is parsed into a {@link ColumnarDataTable}, whose
+ * arrays continue to hold the values of the resulting {@code FXDataTable}.
+ */
+public class DataImportTask extends Task<FXDataTable> {
+
+    //**********************************************//
+    //                  CONSTANTS                   //
+    //**********************************************//
+
+    /**
+     * The size of data, in bytes of a file or characters of a {@code String}, from which values are stored by column.
+     */
+    public static final long COLUMNAR_THRESHOLD = 8L << 20;
+
+    //**********************************************//
+    //                  ATTRIBUTES                  //
+    //**********************************************//
+
+    private final DataParser parser;
+    private final Path path;
+    private final String content;
+    private final String delimiter;
+    private final String label;
+    private final long end;
+
+    //**********************************************//
+    //                 CONSTRUCTORS                 //
+    //**********************************************//
+
+    /**
+     * Constructs a new task that imports the data file at the specified path.
+     *
+     * @param parser        DataParser for the template of the data
+     * @param path          data file Path
+     * @param delimiter     String delimiter
+     * @param label         String table label
+     */
+    public DataImportTask(DataParser parser, Path path, String delimiter, String label) {
+        this(parser, Validate.notNull(path, "Path cannot be null."), null, delimiter, label, -1);
+    }
+
+    /**
+     * Constructs a new task that imports the records of the UTF-8 data file at the specified path that end before the
+     * specified byte offset, such as the complete records of a file that is still being written.
+     *
+     * @param parser        DataParser for the template of the data
+     * @param path          data file Path
+     * @param delimiter     String delimiter
+     * @param label         String table label
+     * @param end           byte offset following the last record to import
+     */
+    public DataImportTask(DataParser parser, Path path, String delimiter, String label, long end) {
+        this(parser, Validate.notNull(path, "Path cannot be null."), null, delimiter, label, end);
+        Validate.isTrue(end >= 0, "End offset cannot be negative.");
+    }
+
+    /**
+     * Constructs a new task that imports the provided {@code String} data.
+     *
+     * @param parser        DataParser for the template of the data
+     * @param content       String data
+     * @param delimiter     String delimiter
+     * @param label         String table label
+     */
+    public DataImportTask(DataParser parser, String content, String delimiter, String label) {
+        this(parser, null, Validate.notNull(content, "String content cannot be null."), delimiter, label, -1);
+    }
+
+    private DataImportTask(DataParser parser, Path path, String content, String delimiter, String label, long end) {
+        Validate.notNull(parser, "DataParser cannot be null.");
+        Validate.notNull(delimiter, "Delimiter cannot be null.");
+
+        this.parser = parser;
+        this.path = path;
+        this.content = content;
+        this.delimiter = delimiter;
+        this.label = label;
+        this.end = end;
+
+        updateTitle(ResourceBundles.DIALOGS.getString("importingData") + " " + label);
+    }
+
+    //**********************************************//
+    //               PROTECTED METHODS              //
+    //**********************************************//
+
+    @Override
+    protected FXDataTable call() throws Exception {
+        updateMessage(ResourceBundles.DIALOGS.getString("importReadingData"));
+        parser.setParseMonitor(new ParseMonitor() {
+            @Override
+            public void updateProgress(long rowsRead, long workDone, long totalWork) {
+                DataImportTask.this.updateProgress(workDone, totalWork);
+                updateMessage(MessageFormat.format(ResourceBundles.DIALOGS.getString("importRowsRead"), rowsRead));
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return DataImportTask.this.isCancelled();
+            }
+        });
+
+        parser.setTableCache(TableCache.getDefault());
+        parser.setStringPool(StringPool.getDefault());
+        parser.setColumnarStorage(getDataSize() >= COLUMNAR_THRESHOLD);
+
+        DataTable table;
+        try {
+            if (path == null) {
+                table = parser.parseDataTable(content, delimiter, label);
+            } else if (end < 0) {
+                table = parser.parseDataTable(path, delimiter, label);
+            } else {
+                try (RecordReader records = new MappedRecordReader(path, delimiter, 0, end)) {
+                    table = parser.parseDataTable(records, label);
+                }
+            }
+        } finally {
+            parser.setParseMonitor(null);
+            parser.setTableCache(null);
+            parser.setStringPool(null);
+            parser.setColumnarStorage(false);
+        }
+
+        updateProgress(-1, -1);
+        updateMessage(ResourceBundles.DIALOGS.getString("importBuildingTable"));
+        return new FXDataTable(table);
+    }
+
+    //**********************************************//
+    //                PRIVATE METHODS               //
+    //**********************************************//
+
+    private long getDataSize() throws IOException {
+        if (path == null) {
+            return content.length();
+        }
+        return (end >= 0) ? end : Files.size(path);
+    }
+
+}
@@ -9,6 +9,7 @@ import org.cirdles.topsoil.Lambda;
 import org.cirdles.topsoil.data.Uncertainty;
 import org.cirdles.topsoil.data.DataColumn;
 import org.cirdles.topsoil.data.DataRow;
+import org.cirdles.topsoil.data.DataTable;
 import org.cirdles.topsoil.data.DataTemplate;
 import org.cirdles.topsoil.data.SimpleDataColumn;
 import org.cirdles.topsoil.data.SimpleDataRow;
@@ -18,6 +19,7 @@ import org.cirdles.topsoil.plot.Plot;
 import org.cirdles.topsoil.plot.PlotOption;
 import org.cirdles.topsoil.plot.PlotOptions;
 import org.cirdles.topsoil.plot.PlotType;
+import org.cirdles.topsoil.utils.StringPool;
 import org.cirdles.topsoil.Variable;
 
 import java.io.Serializable;
@@ -111,10 +113,10 @@ public class SerializableProject implements Serializable {
         plotData.put(PLOT_TYPE, plot.getPlotType());
         plotData.put(PLOT_OPTIONS, extractPlotOptions(plot.getOptions()));
 
-        List<? extends DataColumn<?>> columns = plot.getDataTable().getLeafColumns();
+        DataTable table = plot.getDataTable();
         HashMap<String, Integer> varMap = new HashMap<>();
         for (Map.Entry<Variable<?>, DataColumn<?>> entry : plot.getVariableMap().entrySet()) {
-            varMap.put(entry.getKey().toJSONString(), columns.indexOf(entry.getValue()));
+            varMap.put(entry.getKey().toJSONString(), table.indexOfLeafColumn(entry.getValue()));
         }
         plotData.put(PLOT_VARIABLES, varMap);
 
@@ -142,10 +144,9 @@ public class SerializableProject implements Serializable {
         }
         tableData.put(TABLE_COLUMNS, columnData);
 
-        List<? extends DataColumn<?>> columns = table.getLeafColumns();
         ArrayList<HashMap<SerializationKey, Serializable>> rowData = new ArrayList<>();
         for (DataRow row : table.getRows()) {
-            rowData.add(extractRowData(row, columns));
+            rowData.add(extractRowData(row, table));
         }
         tableData.put(TABLE_ROWS, rowData);
 
@@ -226,7 +227,7 @@ public class SerializableProject implements Serializable {
         return column;
     }
 
-    private HashMap<SerializationKey, Serializable> extractRowData(DataRow row, List<? extends DataColumn<?>> columns) {
+    private HashMap<SerializationKey, Serializable> extractRowData(DataRow row, DataTable table) {
         HashMap<SerializationKey, Serializable> rowData = new HashMap<>();
         rowData.put(ROW_LABEL, row.getTitle());
         rowData.put(ROW_SELECTED, row.isSelected());
@@ -235,7 +236,7 @@ public class SerializableProject implements Serializable {
         HashMap<SerializationKey, Serializable> valueData;
         for (Map.Entry<? extends DataColumn<?>, Object> entry : row.getColumnValueMap().entrySet()) {
             valueData = new HashMap<>();
-            valueData.put(VALUE_COL_INDEX, columns.indexOf(entry.getKey()));
+            valueData.put(VALUE_COL_INDEX, table.indexOfLeafColumn(entry.getKey()));
             valueData.put(VALUE, (Serializable) entry.getValue());      // TODO Check that values are actually Serializable
             values.add(valueData);
         }
@@ -243,7 +244,7 @@ public class SerializableProject implements Serializable {
 
         ArrayList<HashMap<SerializationKey, Serializable>> childData = new ArrayList<>();
         for (DataRow child : row.getChildren()) {
-            childData.add(extractRowData(child, columns));
+            childData.add(extractRowData(child, table));
         }
         rowData.put(ROW_CHILDREN, childData);
 
@@ -251,6 +252,7 @@ public class SerializableProject implements Serializable {
     }
 
     private FXDataRow createDataRow(Map<SerializationKey, Object> data, List<FXDataColumn<?>> columns) {
+        StringPool pool = StringPool.getDefault();
         FXDataRow row = new FXDataRow(new SimpleDataRow(String.valueOf(data.get(ROW_LABEL))));
         row.setSelected((boolean) data.get(ROW_SELECTED));
 
@@ -262,7 +264,9 @@ public class SerializableProject implements Serializable {
             if (column.getType() == Number.class) {
                 row.setValueForColumn((FXDataColumn<Number>) column, (Number) valueData.get(VALUE));
             } else {
-                row.setValueForColumn((FXDataColumn<String>) column, String.valueOf(valueData.get(VALUE)));
+                row.setValueForColumn(
+                        (FXDataColumn<String>) column, pool.intern(String.valueOf(valueData.get(VALUE)))
+                );
             }
         }
 
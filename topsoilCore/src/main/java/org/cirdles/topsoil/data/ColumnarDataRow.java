@@ -0,0 +1,209 @@
+package org.cirdles.topsoil.data;
+
+import org.apache.commons.lang3.Validate;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A row of a {@link ColumnarDataTable}, which is a view of one index of the table's arrays. Only the row's children,
+ * if it has any, are held by the row itself.
+ */
+public class ColumnarDataRow implements DataRow {
+
+    //**********************************************//
+    //                  ATTRIBUTES                  //
+    //**********************************************//
+
+    private final ColumnarDataTable table;
+    private final int index;
+    private List<ColumnarDataRow> children;
+    private List<ColumnarDataRow> childrenView = Collections.emptyList();
+
+    //**********************************************//
+    //                 CONSTRUCTORS                 //
+    //**********************************************//
+
+    ColumnarDataRow(ColumnarDataTable table, int index) {
+        this.table = table;
+        this.index = index;
+    }
+
+    //**********************************************//
+    //                PUBLIC METHODS                //
+    //**********************************************//
+
+    /**
+     * Returns the index of this row in the arrays of its table.
+     *
+     * @return  int row index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    @Override
+    public String getTitle() {
+        return table.getTitle(index);
+    }
+
+    @Override
+    public void setTitle(String title) {
+        table.setTitle(index, title);
+    }
+
+    @Override
+    public boolean isSelected() {
+        return table.isSelected(index);
+    }
+
+    @Override
+    public void setSelected(boolean selected) {
+        table.setSelected(index, selected);
+    }
+
+    @Override
+    public boolean isVisible() {
+        return table.isVisible(index);
+    }
+
+    @Override
+    public void setVisible(boolean visible) {
+        table.setVisible(index, visible);
+    }
+
+    @Override
+    public List<ColumnarDataRow> getChildren() {
+        return childrenView;
+    }
+
+    @Override
+    public int countChildren() {
+        return (children != null) ? children.size() : 0;
+    }
+
+    /**
+     * Adds a child row to the end of this row's children. The child must belong to the same table.
+     *
+     * @param child ColumnarDataRow
+     */
+    public void addChild(ColumnarDataRow child) {
+        Validate.isTrue(child.table == table, "Child row must belong to the same table.");
+        if (children == null) {
+            children = new ArrayList<>();
+            childrenView = Collections.unmodifiableList(children);
+        }
+        children.add(child);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The map reads the values from the table's arrays.
+     */
+    @Override
+    public Map<? extends DataColumn<?>, Object> getColumnValueMap() {
+        return new ValueMap();
+    }
+
+    @Override
+    public <T> T getValueForColumn(DataColumn<T> column) {
+        int columnIndex = table.indexOfLeafColumn(column);
+        return (columnIndex >= 0) ? column.getType().cast(table.getValue(index, columnIndex)) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the column is not a leaf column of the row's table
+     */
+    @Override
+    public <T> void setValueForColumn(DataColumn<T> column, T value) {
+        int columnIndex = table.indexOfLeafColumn(column);
+        Validate.isTrue(columnIndex >= 0, "Column is not a leaf column of the table: " + column.getTitle());
+        table.setValue(index, columnIndex, value);
+    }
+
+    //**********************************************//
+    //                INNER CLASSES                 //
+    //**********************************************//
+
+    /**
+     * A read-only view of the row's values, mapped by leaf column.
+     */
+    private class ValueMap extends AbstractMap<DataColumn<?>, Object> {
+
+        @Override
+        public boolean containsKey(Object key) {
+            int columnIndex = indexOf(key);
+            return columnIndex >= 0 && table.hasValue(index, columnIndex);
+        }
+
+        @Override
+        public Object get(Object key) {
+            int columnIndex = indexOf(key);
+            return (columnIndex >= 0) ? table.getValue(index, columnIndex) : null;
+        }
+
+        @Override
+        public Set<Entry<DataColumn<?>, Object>> entrySet() {
+            return new AbstractSet<Entry<DataColumn<?>, Object>>() {
+                @Override
+                public Iterator<Entry<DataColumn<?>, Object>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    int size = 0;
+                    for (int i = 0; i < table.getLeafColumns().size(); i++) {
+                        if (table.hasValue(index, i)) {
+                            size++;
+                        }
+                    }
+                    return size;
+                }
+            };
+        }
+
+        private int indexOf(Object key) {
+            return (key instanceof DataColumn) ? table.indexOfLeafColumn((DataColumn<?>) key) : -1;
+        }
+
+        private class EntryIterator implements Iterator<Entry<DataColumn<?>, Object>> {
+
+            private final List<DataColumn<?>> columns = table.getLeafColumns();
+            private int next = advance(0);
+
+            @Override
+            public boolean hasNext() {
+                return next < columns.size();
+            }
+
+            @Override
+            public Entry<DataColumn<?>, Object> next() {
+                if (! hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int columnIndex = next;
+                next = advance(next + 1);
+                return new SimpleImmutableEntry<>(columns.get(columnIndex), table.getValue(index, columnIndex));
+            }
+
+            private int advance(int from) {
+                while (from < columns.size() && ! table.hasValue(index, from)) {
+                    from++;
+                }
+                return from;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,530 @@
+package org.cirdles.topsoil.data;
+
+import org.apache.commons.lang3.Validate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link DataTable} that stores its values by column in primitive arrays.
+ * <p>
+ * Each {@code Number} leaf column is stored as a {@code double[]} with a bitmap of the rows that have a value, and each
+ * {@code String} leaf column as an {@code int[]} of codes into a dictionary of its distinct values. The titles and
+ * flags of the rows are stored in the same way, and each {@link ColumnarDataRow} is only a view of one index of these
+ * arrays. Rows with children, such as the aliquots of Squid 3 data, have an index like any other row, but no values.
+ * <p>
+ * A row may have no value for a column. Once the table is trimmed, a {@code Number} column in which few rows have a
+ * value is stored sparsely, as the sorted indices of those rows and their values, so that mostly empty columns cost
+ * little more than their values.
+ * <p>
+ * Only {@code Number} and {@code String} leaf columns are supported.
+ */
+public class ColumnarDataTable implements DataTable {
+
+    //**********************************************//
+    //                  CONSTANTS                   //
+    //**********************************************//
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * A {@code Number} column is stored sparsely when trimmed if at most one in this many rows has a value.
+     */
+    private static final int SPARSE_RATIO = 4;
+
+    //**********************************************//
+    //                  ATTRIBUTES                  //
+    //**********************************************//
+
+    private final DataTemplate template;
+    private String title;
+    private Uncertainty uncertainty = Uncertainty.ONE_SIGMA_ABSOLUTE;
+    private final List<DataColumn<?>> columns = new ArrayList<>();
+    private final List<DataRow> rows = new ArrayList<>();
+
+    private final List<DataColumn<?>> leafColumns;
+    private final Map<DataColumn<?>, Integer> leafIndices = new HashMap<>();
+    private final Object[] vectors;
+
+    private int rowCount;
+    private String[] titles = new String[INITIAL_CAPACITY];
+    private long[] selected = new long[words(INITIAL_CAPACITY)];
+    private long[] visible = new long[words(INITIAL_CAPACITY)];
+
+    //**********************************************//
+    //                 CONSTRUCTORS                 //
+    //**********************************************//
+
+    /**
+     * Constructs a new table with the specified columns and no rows.
+     *
+     * @param template  DataTemplate
+     * @param title     String title
+     * @param columns   List of columns
+     *
+     * @throws IllegalArgumentException if a leaf column is of a type other than {@code Number} or {@code String}
+     */
+    public ColumnarDataTable(DataTemplate template, String title, List<DataColumn<?>> columns) {
+        this.template = template;
+        this.title = title;
+        if (columns != null) {
+            this.columns.addAll(columns);
+        }
+        this.leafColumns = Collections.unmodifiableList(TableUtils.getLeafColumns(this.columns));
+        this.vectors = new Object[leafColumns.size()];
+        DataColumn<?> column;
+        for (int i = 0; i < leafColumns.size(); i++) {
+            column = leafColumns.get(i);
+            leafIndices.put(column, i);
+            if (column.getType() == Number.class) {
+                vectors[i] = new NumberVector(INITIAL_CAPACITY);
+            } else if (column.getType() == String.class) {
+                vectors[i] = new StringVector(INITIAL_CAPACITY);
+            } else {
+                throw new IllegalArgumentException("Unsupported column type: " + column.getType());
+            }
+        }
+    }
+
+    //**********************************************//
+    //                PUBLIC METHODS                //
+    //**********************************************//
+
+    /**
+     * Returns a new {@code ColumnarDataTable} with the same columns, rows, and values as the provided table.
+     *
+     * @param table DataTable
+     * @return      ColumnarDataTable
+     */
+    public static ColumnarDataTable copyOf(DataTable table) {
+        Validate.notNull(table, "Table cannot be null.");
+
+        ColumnarDataTable copy = new ColumnarDataTable(
+                table.getTemplate(), table.getTitle(), new ArrayList<>(table.getColumns())
+        );
+        copy.setUncertainty(table.getUncertainty());
+        for (DataRow row : table.getRows()) {
+            copy.getRows().add(copy.copyRow(row));
+        }
+        copy.trimToSize();
+        return copy;
+    }
+
+    @Override
+    public DataTemplate getTemplate() {
+        return template;
+    }
+
+    @Override
+    public String getTitle() {
+        return title;
+    }
+
+    @Override
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    @Override
+    public List<DataColumn<?>> getColumns() {
+        return columns;
+    }
+
+    @Override
+    public List<DataColumn<?>> getLeafColumns() {
+        return leafColumns;
+    }
+
+    @Override
+    public List<DataRow> getRows() {
+        return rows;
+    }
+
+    @Override
+    public Uncertainty getUncertainty() {
+        return uncertainty;
+    }
+
+    @Override
+    public void setUncertainty(Uncertainty uncertainty) {
+        this.uncertainty = uncertainty;
+    }
+
+    /**
+     * Creates a row with the next index of the table, which is selected and visible and has no values. The row is
+     * not added to the table; it should be added either to {@link #getRows()} or as the child of another row.
+     *
+     * @param title     String row title
+     * @return          ColumnarDataRow
+     */
+    public ColumnarDataRow createRow(String title) {
+        if (rowCount == titles.length) {
+            grow(titles.length * 2);
+        }
+        int index = rowCount++;
+        titles[index] = title;
+        setFlag(selected, index, true);
+        setFlag(visible, index, true);
+        return new ColumnarDataRow(this, index);
+    }
+
+    /**
+     * Returns the number of rows that have been created for the table, including rows with children.
+     *
+     * @return  int row count
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int indexOfLeafColumn(DataColumn<?> column) {
+        Integer index = leafIndices.get(column);
+        return (index != null) ? index : -1;
+    }
+
+    /**
+     * Returns true if the row with the specified index has a value for the specified leaf column.
+     *
+     * @param rowIndex      row index
+     * @param columnIndex   leaf column index
+     *
+     * @return              true if there is a value
+     */
+    public boolean hasValue(int rowIndex, int columnIndex) {
+        Object vector = vectors[columnIndex];
+        if (vector instanceof NumberVector) {
+            return getFlag(((NumberVector) vector).valid, rowIndex);
+        }
+        if (vector instanceof SparseNumberVector) {
+            return ((SparseNumberVector) vector).find(rowIndex) >= 0;
+        }
+        return ((StringVector) vector).codes[rowIndex] >= 0;
+    }
+
+    /**
+     * Returns the value of a {@code Number} leaf column for the row with the specified index, without boxing it. The
+     * result is undefined if the row has no value for the column.
+     *
+     * @param rowIndex      row index
+     * @param columnIndex   leaf column index
+     *
+     * @return              double value
+     */
+    public double getDouble(int rowIndex, int columnIndex) {
+        Object vector = vectors[columnIndex];
+        if (vector instanceof SparseNumberVector) {
+            SparseNumberVector sparse = (SparseNumberVector) vector;
+            int position = sparse.find(rowIndex);
+            return (position >= 0) ? sparse.values[position] : Double.NaN;
+        }
+        return ((NumberVector) vector).values[rowIndex];
+    }
+
+    /**
+     * Sets the value of a {@code Number} leaf column for the row with the specified index, without boxing it.
+     *
+     * @param rowIndex      row index
+     * @param columnIndex   leaf column index
+     * @param value         double value
+     */
+    public void setDouble(int rowIndex, int columnIndex, double value) {
+        if (vectors[columnIndex] instanceof SparseNumberVector) {
+            SparseNumberVector sparse = (SparseNumberVector) vectors[columnIndex];
+            int position = sparse.find(rowIndex);
+            if (position >= 0) {
+                sparse.values[position] = value;
+                return;
+            }
+            vectors[columnIndex] = sparse.toDense(titles.length);
+        }
+        NumberVector vector = (NumberVector) vectors[columnIndex];
+        vector.values[rowIndex] = value;
+        setFlag(vector.valid, rowIndex, true);
+    }
+
+    /**
+     * Returns the value of a leaf column for the row with the specified index.
+     *
+     * @param rowIndex      row index
+     * @param columnIndex   leaf column index
+     *
+     * @return              value, or null if there is none
+     */
+    public Object getValue(int rowIndex, int columnIndex) {
+        Object vector = vectors[columnIndex];
+        if (vector instanceof NumberVector) {
+            NumberVector numbers = (NumberVector) vector;
+            return getFlag(numbers.valid, rowIndex) ? numbers.values[rowIndex] : null;
+        }
+        if (vector instanceof SparseNumberVector) {
+            SparseNumberVector sparse = (SparseNumberVector) vector;
+            int position = sparse.find(rowIndex);
+            return (position >= 0) ? sparse.values[position] : null;
+        }
+        return ((StringVector) vector).decode(rowIndex);
+    }
+
+    /**
+     * Returns the dictionary code of the value of a {@code String} leaf column for the row with the specified index.
+     * Rows have the same value for the column if and only if they have the same code, so values can be compared
+     * without comparing their text.
+     *
+     * @param rowIndex      row index
+     * @param columnIndex   leaf column index
+     *
+     * @return              int code, or -1 if there is no value
+     */
+    public int getCode(int rowIndex, int columnIndex) {
+        return ((StringVector) vectors[columnIndex]).codes[rowIndex];
+    }
+
+    /**
+     * Sets the value of a leaf column for the row with the specified index.
+     *
+     * @param rowIndex      row index
+     * @param columnIndex   leaf column index
+     * @param value         value, or null for none
+     */
+    public void setValue(int rowIndex, int columnIndex, Object value) {
+        if (vectors[columnIndex] instanceof SparseNumberVector) {
+            if (value != null) {
+                setDouble(rowIndex, columnIndex, ((Number) value).doubleValue());
+                return;
+            }
+            vectors[columnIndex] = ((SparseNumberVector) vectors[columnIndex]).toDense(titles.length);
+        }
+        Object vector = vectors[columnIndex];
+        if (vector instanceof NumberVector) {
+            NumberVector numbers = (NumberVector) vector;
+            if (value == null) {
+                setFlag(numbers.valid, rowIndex, false);
+            } else {
+                numbers.values[rowIndex] = ((Number) value).doubleValue();
+                setFlag(numbers.valid, rowIndex, true);
+            }
+        } else {
+            StringVector strings = (StringVector) vector;
+            strings.codes[rowIndex] = (value == null) ? -1 : strings.encode((String) value);
+        }
+    }
+
+    /**
+     * Trims the capacity of the table's arrays to its row count, once all rows have been created, and stores any
+     * {@code Number} column in which few rows have a value sparsely. A sparse column is stored densely again if a row
+     * without a value is given one.
+     */
+    public void trimToSize() {
+        if (titles.length > rowCount) {
+            grow(rowCount);
+        }
+        NumberVector numbers;
+        for (int i = 0; i < vectors.length; i++) {
+            if (vectors[i] instanceof NumberVector) {
+                numbers = (NumberVector) vectors[i];
+                if ((long) numbers.countValid() * SPARSE_RATIO <= rowCount) {
+                    vectors[i] = new SparseNumberVector(numbers);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns true if the specified leaf column is stored sparsely.
+     *
+     * @param columnIndex   leaf column index
+     * @return              true if sparse
+     */
+    public boolean isSparse(int columnIndex) {
+        return vectors[columnIndex] instanceof SparseNumberVector;
+    }
+
+    //**********************************************//
+    //               PACKAGE METHODS                //
+    //**********************************************//
+
+    String getTitle(int rowIndex) {
+        return titles[rowIndex];
+    }
+
+    void setTitle(int rowIndex, String title) {
+        titles[rowIndex] = title;
+    }
+
+    boolean isSelected(int rowIndex) {
+        return getFlag(selected, rowIndex);
+    }
+
+    void setSelected(int rowIndex, boolean value) {
+        setFlag(selected, rowIndex, value);
+    }
+
+    boolean isVisible(int rowIndex) {
+        return getFlag(visible, rowIndex);
+    }
+
+    void setVisible(int rowIndex, boolean value) {
+        setFlag(visible, rowIndex, value);
+    }
+
+    //**********************************************//
+    //                PRIVATE METHODS               //
+    //**********************************************//
+
+    private ColumnarDataRow copyRow(DataRow row) {
+        ColumnarDataRow copy = createRow(row.getTitle());
+        copy.setSelected(row.isSelected());
+        copy.setVisible(row.isVisible());
+        List<? extends DataRow> children = row.getChildren();
+        if (! children.isEmpty()) {
+            for (DataRow child : children) {
+                copy.addChild(copyRow(child));
+            }
+        } else {
+            for (int i = 0; i < leafColumns.size(); i++) {
+                setValue(copy.getIndex(), i, row.getValueForColumn(leafColumns.get(i)));
+            }
+        }
+        return copy;
+    }
+
+    private void grow(int capacity) {
+        capacity = Math.max(capacity, 1);
+        titles = Arrays.copyOf(titles, capacity);
+        selected = Arrays.copyOf(selected, words(capacity));
+        visible = Arrays.copyOf(visible, words(capacity));
+        for (Object vector : vectors) {
+            if (vector instanceof NumberVector) {
+                ((NumberVector) vector).resize(capacity);
+            } else if (vector instanceof StringVector) {
+                ((StringVector) vector).resize(capacity);
+            }
+            // Sparse vectors only store the rows that have values, so they do not depend on the capacity
+        }
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) >> 6;
+    }
+
+    private static boolean getFlag(long[] bitmap, int index) {
+        return (bitmap[index >> 6] & (1L << index)) != 0;
+    }
+
+    private static void setFlag(long[] bitmap, int index, boolean value) {
+        if (value) {
+            bitmap[index >> 6] |= 1L << index;
+        } else {
+            bitmap[index >> 6] &= ~(1L << index);
+        }
+    }
+
+    //**********************************************//
+    //                INNER CLASSES                 //
+    //**********************************************//
+
+    private static final class NumberVector {
+
+        private double[] values;
+        private long[] valid;
+
+        NumberVector(int capacity) {
+            values = new double[capacity];
+            valid = new long[words(capacity)];
+        }
+
+        void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+            valid = Arrays.copyOf(valid, words(capacity));
+        }
+
+        int countValid() {
+            int count = 0;
+            for (long word : valid) {
+                count += Long.bitCount(word);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * A {@code Number} column stored as the ascending indices of the rows that have a value, and their values.
+     */
+    private static final class SparseNumberVector {
+
+        private final int[] rows;
+        private final double[] values;
+
+        SparseNumberVector(NumberVector dense) {
+            int count = dense.countValid();
+            rows = new int[count];
+            values = new double[count];
+            int position = 0;
+            long word;
+            int row;
+            for (int w = 0; w < dense.valid.length; w++) {
+                word = dense.valid[w];
+                while (word != 0) {
+                    row = (w << 6) + Long.numberOfTrailingZeros(word);
+                    rows[position] = row;
+                    values[position] = dense.values[row];
+                    position++;
+                    word &= word - 1;
+                }
+            }
+        }
+
+        int find(int rowIndex) {
+            return Arrays.binarySearch(rows, rowIndex);
+        }
+
+        NumberVector toDense(int capacity) {
+            NumberVector dense = new NumberVector(capacity);
+            for (int i = 0; i < rows.length; i++) {
+                dense.values[rows[i]] = values[i];
+                setFlag(dense.valid, rows[i], true);
+            }
+            return dense;
+        }
+    }
+
+    private static final class StringVector {
+
+        private int[] codes;
+        private final List<String> dictionary = new ArrayList<>();
+        private final Map<String, Integer> codesByValue = new HashMap<>();
+
+        StringVector(int capacity) {
+            codes = new int[capacity];
+            Arrays.fill(codes, -1);
+        }
+
+        int encode(String value) {
+            Integer code = codesByValue.get(value);
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.add(value);
+                codesByValue.put(value, code);
+            }
+            return code;
+        }
+
+        String decode(int index) {
+            int code = codes[index];
+            return (code >= 0) ? dictionary.get(code) : null;
+        }
+
+        void resize(int capacity) {
+            int oldCapacity = codes.length;
+            codes = Arrays.copyOf(codes, capacity);
+            if (capacity > oldCapacity) {
+                Arrays.fill(codes, oldCapacity, capacity, -1);
+            }
+        }
+    }
+
+}
@@ -3,7 +3,6 @@ package org.cirdles.topsoil.data;
 import org.json.JSONString;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 
 public interface DataComponent<T extends DataComponent<T>> extends JSONString {
@@ -16,18 +15,27 @@ public interface DataComponent<T extends DataComponent<T>> extends JSONString {
 
     void setSelected(boolean b);
 
+    /**
+     * Returns the children of this component. Implementations should return an unmodifiable view of their children
+     * rather than a copy, so that reading or counting them does not allocate; callers that need to modify the list
+     * should use {@link #copyChildren()}.
+     *
+     * @return  List of children
+     */
     List<? extends T> getChildren();
 
+    /**
+     * Returns a new, modifiable list of the children of this component.
+     *
+     * @return  List of children
+     */
+    default List<T> copyChildren() {
+        return new ArrayList<>(getChildren());
+    }
+
     default List<? extends T> getLeafChildren() {
         List<T> leaves = new ArrayList<>();
-        List<? extends T> children = getChildren();
-        if (children.size() == 0) {
-            leaves.add((T) this);
-        } else {
-            for (T child : children) {
-                leaves.addAll(child.getLeafChildren());
-            }
-        }
+        TableUtils.addLeafComponents(this, leaves);
         return leaves;
     }
 
@@ -35,6 +43,13 @@ public interface DataComponent<T extends DataComponent<T>> extends JSONString {
         return getChildren().size();
     }
 
+    /**
+     * Returns the first component with the specified title in this component's tree: this component, then its
+     * children, then the trees of each of its children in order. Each component is visited at most once.
+     *
+     * @param title String title
+     * @return      component, or null if there is none
+     */
     default T find(String title) {
         if (title == null) {
             return null;
@@ -42,23 +57,7 @@ public interface DataComponent<T extends DataComponent<T>> extends JSONString {
         if (title.equals(getTitle())) {
             return (T) this;
         }
-
-        List<? extends T> children = getChildren();
-        LinkedList<T> queue = new LinkedList<>();
-        for (T child : children) {
-            if (child.getTitle().equals(title)) {
-                return child;
-            }
-            queue.add(child);
-        }
-        T child;
-        while (! queue.isEmpty()) {
-            child = queue.poll().find(title);
-            if (child != null) {
-                return child;
-            }
-        }
-        return null;
+        return (T) TableUtils.findBelow(title, this);
     }
 
 }
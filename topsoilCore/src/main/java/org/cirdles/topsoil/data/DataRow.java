@@ -2,13 +2,29 @@ package org.cirdles.topsoil.data;
 
 import org.json.JSONObject;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 public interface DataRow extends DataComponent<DataRow> {
 
+    /**
+     * Returns the values of this row, mapped by column. Implementations should return an unmodifiable view of their
+     * values rather than a copy; callers that need to modify the map should use {@link #copyColumnValueMap()}.
+     *
+     * @return  Map of columns to values
+     */
     Map<? extends DataColumn<?>, Object> getColumnValueMap();
 
+    /**
+     * Returns a new, modifiable map of the values of this row.
+     *
+     * @return  Map of columns to values
+     */
+    default Map<DataColumn<?>, Object> copyColumnValueMap() {
+        return new HashMap<>(getColumnValueMap());
+    }
+
     <T> T getValueForColumn(DataColumn<T> column);
 
     <T> void setValueForColumn(DataColumn<T> column, T value);
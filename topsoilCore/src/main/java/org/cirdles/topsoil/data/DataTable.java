@@ -25,6 +25,50 @@ public interface DataTable extends JSONString {
         return TableUtils.getLeafRows(getRows());
     }
 
+    /**
+     * Returns the position of a column in {@link #getLeafColumns()}, or -1 if it is not a leaf column of this table.
+     *
+     * @param column    DataColumn
+     * @return          int leaf column index, or -1
+     */
+    default int indexOfLeafColumn(DataColumn<?> column) {
+        return getLeafColumns().indexOf(column);
+    }
+
+    /**
+     * Returns the position of a row in {@link #getLeafRows()}, or -1 if it is not a leaf row of this table.
+     *
+     * @param row   DataRow
+     * @return      int leaf row index, or -1
+     */
+    default int indexOfLeafRow(DataRow row) {
+        return getLeafRows().indexOf(row);
+    }
+
+    /**
+     * Returns the first column with the specified title in the trees of this table's columns, as
+     * {@link TableUtils#findIn(String, List)} would. Implementations whose columns can be observed may answer from an
+     * index maintained as the columns change.
+     *
+     * @param title String title
+     * @return      DataColumn, or null if there is none
+     */
+    default DataColumn<?> findColumn(String title) {
+        return TableUtils.<DataColumn<?>>findIn(title, getColumns());
+    }
+
+    /**
+     * Returns the first row with the specified title in the trees of this table's rows, as
+     * {@link TableUtils#findIn(String, List)} would. Implementations whose rows can be observed may answer from an
+     * index maintained as the rows change.
+     *
+     * @param title String title
+     * @return      DataRow, or null if there is none
+     */
+    default DataRow findRow(String title) {
+        return TableUtils.<DataRow>findIn(title, getRows());
+    }
+
     Uncertainty getUncertainty();
 
     void setUncertainty(Uncertainty u);
@@ -0,0 +1,131 @@
+package org.cirdles.topsoil.data;
+
+import org.cirdles.topsoil.symbols.SymbolKeyRegistry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link DataColumn} that cannot be modified, for use in an {@link ImmutableDataTable}. Since none of its state
+ * changes after it is constructed, it can be read from any thread.
+ *
+ * @param <T>   the type of values associated with this column
+ */
+public final class ImmutableDataColumn<T> implements DataColumn<T> {
+
+    //**********************************************//
+    //                  ATTRIBUTES                  //
+    //**********************************************//
+
+    private final String title;
+    private final boolean selected;
+    private final T defaultValue;
+    private final Class<T> valueType;
+    private final List<ImmutableDataColumn<?>> children;
+    private final int ordinal = SymbolKeyRegistry.nextOrdinal();
+
+    //**********************************************//
+    //                 CONSTRUCTORS                 //
+    //**********************************************//
+
+    private ImmutableDataColumn(String title, boolean selected, T defaultValue, Class<T> valueType,
+                                List<ImmutableDataColumn<?>> children) {
+        this.title = title;
+        this.selected = selected;
+        this.defaultValue = defaultValue;
+        this.valueType = valueType;
+        this.children = children;
+    }
+
+    //**********************************************//
+    //                PUBLIC METHODS                //
+    //**********************************************//
+
+    /**
+     * Returns immutable copies of the provided columns and their trees, recording the copy of each column in the
+     * provided map so that values can be re-keyed by the copied columns.
+     *
+     * @param columns   List of columns
+     * @param copies    Map to add each column and its copy to
+     * @return          unmodifiable List of copies
+     */
+    public static List<ImmutableDataColumn<?>> copyOf(List<? extends DataColumn<?>> columns,
+                                                      Map<DataColumn<?>, ImmutableDataColumn<?>> copies) {
+        List<ImmutableDataColumn<?>> list = new ArrayList<>(columns.size());
+        for (DataColumn<?> column : columns) {
+            list.add(copyOf(column, copies));
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    @Override
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Throws an {@code UnsupportedOperationException}; the title of an immutable column cannot be changed.
+     */
+    @Override
+    public void setTitle(String s) {
+        throw new UnsupportedOperationException("ImmutableDataColumn cannot be modified.");
+    }
+
+    @Override
+    public boolean isSelected() {
+        return selected;
+    }
+
+    /**
+     * Throws an {@code UnsupportedOperationException}; the selection of an immutable column cannot be changed.
+     */
+    @Override
+    public void setSelected(boolean b) {
+        throw new UnsupportedOperationException("ImmutableDataColumn cannot be modified.");
+    }
+
+    @Override
+    public List<ImmutableDataColumn<?>> getChildren() {
+        return children;
+    }
+
+    @Override
+    public T getDefaultValue() {
+        return defaultValue;
+    }
+
+    @Override
+    public Class<T> getType() {
+        return valueType;
+    }
+
+    @Override
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    @Override
+    public String toString() {
+        return title;
+    }
+
+    //**********************************************//
+    //                PRIVATE METHODS               //
+    //**********************************************//
+
+    private static <T> ImmutableDataColumn<T> copyOf(DataColumn<T> column,
+                                                     Map<DataColumn<?>, ImmutableDataColumn<?>> copies) {
+        ImmutableDataColumn<T> copy = new ImmutableDataColumn<>(
+                column.getTitle(),
+                column.isSelected(),
+                column.getDefaultValue(),
+                column.getType(),
+                copyOf(column.getChildren(), copies)
+        );
+        copies.put(column, copy);
+        return copy;
+    }
+
+}
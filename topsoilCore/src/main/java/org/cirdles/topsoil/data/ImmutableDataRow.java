@@ -0,0 +1,148 @@
+package org.cirdles.topsoil.data;
+
+import org.cirdles.topsoil.symbols.ArraySymbolMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link DataRow} that cannot be modified, for use in an {@link ImmutableDataTable}. Its values are mapped by
+ * {@link ImmutableDataColumn}s, and since none of its state changes after it is constructed, it can be read from any
+ * thread.
+ */
+public final class ImmutableDataRow implements DataRow {
+
+    //**********************************************//
+    //                  ATTRIBUTES                  //
+    //**********************************************//
+
+    private final String title;
+    private final boolean selected;
+    private final boolean visible;
+    private final Map<ImmutableDataColumn<?>, Object> columnMap;
+    private final List<ImmutableDataRow> children;
+
+    //**********************************************//
+    //                 CONSTRUCTORS                 //
+    //**********************************************//
+
+    /**
+     * Constructs an immutable copy of the provided row, with the provided children. Only the values of columns that have
+     * a copy in {@code columns} are kept, mapped by their copies.
+     * <p>
+     * The children are not copied, so that a row whose children have not changed since an earlier copy can share them.
+     *
+     * @param row       DataRow to copy
+     * @param columns   Map of columns to their immutable copies
+     * @param children  List of immutable children
+     */
+    public ImmutableDataRow(DataRow row, Map<DataColumn<?>, ImmutableDataColumn<?>> columns,
+                            List<ImmutableDataRow> children) {
+        this.title = row.getTitle();
+        this.selected = row.isSelected();
+        this.visible = row.isVisible();
+
+        ArraySymbolMap<ImmutableDataColumn<?>> map = new ArraySymbolMap<>();
+        ImmutableDataColumn<?> column;
+        for (Map.Entry<? extends DataColumn<?>, Object> entry : row.getColumnValueMap().entrySet()) {
+            column = columns.get(entry.getKey());
+            if (column != null) {
+                map.put(column, entry.getValue());
+            }
+        }
+        this.columnMap = Collections.unmodifiableMap(map);
+        this.children = Collections.unmodifiableList(new ArrayList<>(children));
+    }
+
+    //**********************************************//
+    //                PUBLIC METHODS                //
+    //**********************************************//
+
+    /**
+     * Returns immutable copies of the provided rows and their trees. Only the values of columns that have a copy in
+     * {@code columns} are kept.
+     *
+     * @param rows      List of rows
+     * @param columns   Map of columns to their immutable copies
+     * @return          unmodifiable List of copies
+     */
+    public static List<ImmutableDataRow> copyOf(List<? extends DataRow> rows,
+                                                Map<DataColumn<?>, ImmutableDataColumn<?>> columns) {
+        List<ImmutableDataRow> list = new ArrayList<>(rows.size());
+        for (DataRow row : rows) {
+            list.add(new ImmutableDataRow(row, columns, copyOf(row.getChildren(), columns)));
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    @Override
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Throws an {@code UnsupportedOperationException}; the title of an immutable row cannot be changed.
+     */
+    @Override
+    public void setTitle(String s) {
+        throw new UnsupportedOperationException("ImmutableDataRow cannot be modified.");
+    }
+
+    @Override
+    public boolean isSelected() {
+        return selected;
+    }
+
+    /**
+     * Throws an {@code UnsupportedOperationException}; the selection of an immutable row cannot be changed.
+     */
+    @Override
+    public void setSelected(boolean b) {
+        throw new UnsupportedOperationException("ImmutableDataRow cannot be modified.");
+    }
+
+    @Override
+    public boolean isVisible() {
+        return visible;
+    }
+
+    /**
+     * Throws an {@code UnsupportedOperationException}; the visibility of an immutable row cannot be changed.
+     */
+    @Override
+    public void setVisible(boolean value) {
+        throw new UnsupportedOperationException("ImmutableDataRow cannot be modified.");
+    }
+
+    @Override
+    public List<ImmutableDataRow> getChildren() {
+        return children;
+    }
+
+    @Override
+    public Map<ImmutableDataColumn<?>, Object> getColumnValueMap() {
+        return columnMap;
+    }
+
+    @Override
+    public <T> T getValueForColumn(DataColumn<T> column) {
+        Object value = columnMap.get(column);
+        return (value != null) ? column.getType().cast(value) : null;
+    }
+
+    /**
+     * Throws an {@code UnsupportedOperationException}; the values of an immutable row cannot be changed.
+     */
+    @Override
+    public <T> void setValueForColumn(DataColumn<T> column, T value) {
+        throw new UnsupportedOperationException("ImmutableDataRow cannot be modified.");
+    }
+
+    @Override
+    public String toString() {
+        return title;
+    }
+
+}
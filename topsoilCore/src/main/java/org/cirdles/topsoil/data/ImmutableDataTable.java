@@ -0,0 +1,154 @@
+package org.cirdles.topsoil.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link DataTable} that cannot be modified, made up of {@link ImmutableDataColumn}s and {@link ImmutableDataRow}s.
+ * <p>
+ * An immutable table is a snapshot of another table at a point in time. Since none of its state changes after it is
+ * constructed, it can be safely read from any thread, such as by a background task that computes plot data or saves a
+ * project while the table it was taken from continues to be edited. Snapshots of the same table may share the
+ * components of trees that did not change between them.
+ */
+public final class ImmutableDataTable implements DataTable {
+
+    //**********************************************//
+    //                  ATTRIBUTES                  //
+    //**********************************************//
+
+    private final DataTemplate template;
+    private final String title;
+    private final Uncertainty uncertainty;
+    private final List<ImmutableDataColumn<?>> columns;
+    private final List<ImmutableDataRow> rows;
+
+    private final LeafIndex<DataColumn<?>> leafColumns;
+    private final LeafIndex<DataRow> leafRows;
+    private final Map<String, DataColumn<?>> columnIndex;
+    private final Map<String, DataRow> rowIndex;
+
+    //**********************************************//
+    //                 CONSTRUCTORS                 //
+    //**********************************************//
+
+    /**
+     * Constructs a new table with the provided immutable columns and rows. The values of the rows should be mapped by
+     * the provided columns, or copies of them in the same trees.
+     *
+     * @param template      DataTemplate
+     * @param title         String title
+     * @param uncertainty   Uncertainty
+     * @param columns       List of immutable columns
+     * @param rows          List of immutable rows
+     */
+    public ImmutableDataTable(DataTemplate template, String title, Uncertainty uncertainty,
+                              List<ImmutableDataColumn<?>> columns, List<ImmutableDataRow> rows) {
+        this.template = template;
+        this.title = title;
+        this.uncertainty = uncertainty;
+        this.columns = Collections.unmodifiableList(new ArrayList<>(columns));
+        this.rows = Collections.unmodifiableList(new ArrayList<>(rows));
+
+        // Indices are built up front, so that no state is initialized lazily by whichever thread reads the table first
+        this.leafColumns = new LeafIndex<>(this.columns);
+        this.leafRows = new LeafIndex<>(this.rows);
+        this.columnIndex = Collections.unmodifiableMap(TableUtils.<DataColumn<?>>indexByTitle(this.columns));
+        this.rowIndex = Collections.unmodifiableMap(TableUtils.<DataRow>indexByTitle(this.rows));
+    }
+
+    //**********************************************//
+    //                PUBLIC METHODS                //
+    //**********************************************//
+
+    /**
+     * Returns an immutable copy of the provided table. If the table is already immutable, it is returned as is.
+     *
+     * @param table DataTable to copy
+     * @return      ImmutableDataTable
+     */
+    public static ImmutableDataTable copyOf(DataTable table) {
+        if (table instanceof ImmutableDataTable) {
+            return (ImmutableDataTable) table;
+        }
+        Map<DataColumn<?>, ImmutableDataColumn<?>> copies = new HashMap<>();
+        List<ImmutableDataColumn<?>> columns = ImmutableDataColumn.copyOf(table.getColumns(), copies);
+        List<ImmutableDataRow> rows = ImmutableDataRow.copyOf(table.getRows(), copies);
+        return new ImmutableDataTable(table.getTemplate(), table.getTitle(), table.getUncertainty(), columns, rows);
+    }
+
+    @Override
+    public DataTemplate getTemplate() {
+        return template;
+    }
+
+    @Override
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Throws an {@code UnsupportedOperationException}; the title of an immutable table cannot be changed.
+     */
+    @Override
+    public void setTitle(String s) {
+        throw new UnsupportedOperationException("ImmutableDataTable cannot be modified.");
+    }
+
+    @Override
+    public List<ImmutableDataColumn<?>> getColumns() {
+        return columns;
+    }
+
+    @Override
+    public List<DataColumn<?>> getLeafColumns() {
+        return leafColumns.getLeaves();
+    }
+
+    @Override
+    public List<ImmutableDataRow> getRows() {
+        return rows;
+    }
+
+    @Override
+    public List<DataRow> getLeafRows() {
+        return leafRows.getLeaves();
+    }
+
+    @Override
+    public int indexOfLeafColumn(DataColumn<?> column) {
+        return leafColumns.indexOf(column);
+    }
+
+    @Override
+    public int indexOfLeafRow(DataRow row) {
+        return leafRows.indexOf(row);
+    }
+
+    @Override
+    public DataColumn<?> findColumn(String title) {
+        return (title != null) ? columnIndex.get(title) : null;
+    }
+
+    @Override
+    public DataRow findRow(String title) {
+        return (title != null) ? rowIndex.get(title) : null;
+    }
+
+    @Override
+    public Uncertainty getUncertainty() {
+        return uncertainty;
+    }
+
+    /**
+     * Throws an {@code UnsupportedOperationException}; the uncertainty of an immutable table cannot be changed.
+     */
+    @Override
+    public void setUncertainty(Uncertainty u) {
+        throw new UnsupportedOperationException("ImmutableDataTable cannot be modified.");
+    }
+
+}
@@ -0,0 +1,295 @@
+package org.cirdles.topsoil.data;
+
+import org.cirdles.topsoil.utils.NumberLexer;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A row of a {@link LazyDataTable}, whose values are decoded from the table's text buffer the first time they are
+ * read.
+ * <p>
+ * Decoded {@code Number} values are kept in a {@code double[]}, and other values in an {@code Object[]}, each
+ * allocated when the first value of its kind is read. A {@code Number} cell that is empty or cannot be decoded as a
+ * number has no value.
+ */
+public class LazyDataRow extends AbstractDataComponent<DataRow> implements DataRow {
+
+    //**********************************************//
+    //                  ATTRIBUTES                  //
+    //**********************************************//
+
+    private final LazyDataTable table;
+    private final int[] bounds;
+    private List<LazyDataRow> children;
+    private List<LazyDataRow> childrenView = Collections.emptyList();
+    private boolean visible = true;
+
+    // One bit per leaf column
+    private long[] decoded;
+    private long[] missing;
+    private double[] numbers;
+    private Object[] objects;
+
+    // Values for columns that are not leaf columns of the table
+    private Map<DataColumn<?>, Object> otherValues;
+
+    //**********************************************//
+    //                 CONSTRUCTORS                 //
+    //**********************************************//
+
+    LazyDataRow(String title, LazyDataTable table, int[] bounds) {
+        super(title, true);
+        this.table = table;
+        this.bounds = bounds;
+    }
+
+    //**********************************************//
+    //                PUBLIC METHODS                //
+    //**********************************************//
+
+    @Override
+    public List<LazyDataRow> getChildren() {
+        return childrenView;
+    }
+
+    @Override
+    public int countChildren() {
+        return (children != null) ? children.size() : 0;
+    }
+
+    /**
+     * Adds a child row to the end of this row's children.
+     *
+     * @param child LazyDataRow
+     */
+    public void addChild(LazyDataRow child) {
+        if (children == null) {
+            children = new ArrayList<>();
+            childrenView = Collections.unmodifiableList(children);
+        }
+        children.add(child);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Values are decoded as they are read from the map.
+     */
+    @Override
+    public Map<? extends DataColumn<?>, Object> getColumnValueMap() {
+        return new ValueMap();
+    }
+
+    @Override
+    public <T> T getValueForColumn(DataColumn<T> column) {
+        int index = (bounds != null) ? table.indexOfLeafColumn(column) : -1;
+        if (index < 0) {
+            return (otherValues != null) ? column.getType().cast(otherValues.get(column)) : null;
+        }
+        return column.getType().cast(getValue(index, column));
+    }
+
+    @Override
+    public <T> void setValueForColumn(DataColumn<T> column, T value) {
+        int index = (bounds != null) ? table.indexOfLeafColumn(column) : -1;
+        if (index < 0) {
+            if (otherValues == null) {
+                otherValues = new HashMap<>();
+            }
+            otherValues.put(column, value);
+            return;
+        }
+
+        markDecoded(index, value == null);
+        if (column.getType() == Number.class) {
+            if (value != null) {
+                numbers()[index] = ((Number) value).doubleValue();
+            }
+        } else {
+            objects()[index] = value;
+        }
+    }
+
+    @Override
+    public boolean isVisible() {
+        return visible;
+    }
+
+    @Override
+    public void setVisible(boolean visible) {
+        this.visible = visible;
+    }
+
+    //**********************************************//
+    //                PRIVATE METHODS               //
+    //**********************************************//
+
+    private Object getValue(int index, DataColumn<?> column) {
+        if (! isDecoded(index)) {
+            decode(index, column);
+        }
+        if ((missing[index >> 6] & (1L << index)) != 0) {
+            return null;
+        }
+        return (column.getType() == Number.class) ? numbers[index] : objects[index];
+    }
+
+    private void decode(int index, DataColumn<?> column) {
+        StringBuilder text = table.getText();
+        int start = bounds[index];
+        int end = bounds[index + 1];
+        if (column.getType() == Number.class) {
+            if (start == end) {
+                markDecoded(index, true);
+            } else {
+                NumberLexer lexer = table.getLexer();
+                boolean valid;
+                double value = 0;
+                synchronized (lexer) {
+                    valid = lexer.lex(text, start, end);
+                    if (valid) {
+                        value = lexer.doubleValue();
+                    }
+                }
+                if (valid) {
+                    numbers()[index] = value;
+                }
+                markDecoded(index, ! valid);
+            }
+        } else {
+            objects()[index] = text.substring(start, end);
+            markDecoded(index, false);
+        }
+    }
+
+    private boolean isDecoded(int index) {
+        return decoded != null && (decoded[index >> 6] & (1L << index)) != 0;
+    }
+
+    private void markDecoded(int index, boolean isMissing) {
+        if (decoded == null) {
+            int words = ((bounds.length - 1) + 63) >> 6;
+            decoded = new long[words];
+            missing = new long[words];
+        }
+        decoded[index >> 6] |= 1L << index;
+        if (isMissing) {
+            missing[index >> 6] |= 1L << index;
+        } else {
+            missing[index >> 6] &= ~(1L << index);
+        }
+    }
+
+    private double[] numbers() {
+        if (numbers == null) {
+            numbers = new double[bounds.length - 1];
+        }
+        return numbers;
+    }
+
+    private Object[] objects() {
+        if (objects == null) {
+            objects = new Object[bounds.length - 1];
+        }
+        return objects;
+    }
+
+    //**********************************************//
+    //                INNER CLASSES                 //
+    //**********************************************//
+
+    /**
+     * A read-only view of the row's values, mapped by column. The values of leaf columns come first, followed by the
+     * values of any other columns.
+     */
+    private class ValueMap extends AbstractMap<DataColumn<?>, Object> {
+
+        @Override
+        public boolean containsKey(Object key) {
+            int index = indexOf(key);
+            if (index < 0) {
+                return otherValues != null && otherValues.containsKey(key);
+            }
+            return getValue(index, table.getLeafColumns().get(index)) != null;
+        }
+
+        @Override
+        public Object get(Object key) {
+            int index = indexOf(key);
+            if (index < 0) {
+                return (otherValues != null) ? otherValues.get(key) : null;
+            }
+            return getValue(index, table.getLeafColumns().get(index));
+        }
+
+        @Override
+        public Set<Entry<DataColumn<?>, Object>> entrySet() {
+            return new AbstractSet<Entry<DataColumn<?>, Object>>() {
+                @Override
+                public Iterator<Entry<DataColumn<?>, Object>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    int size = (otherValues != null) ? otherValues.size() : 0;
+                    if (bounds != null) {
+                        List<DataColumn<?>> columns = table.getLeafColumns();
+                        for (int i = 0; i < columns.size(); i++) {
+                            if (getValue(i, columns.get(i)) != null) {
+                                size++;
+                            }
+                        }
+                    }
+                    return size;
+                }
+            };
+        }
+
+        private int indexOf(Object key) {
+            return (bounds != null && key instanceof DataColumn) ?
+                    table.indexOfLeafColumn((DataColumn<?>) key) :
+                    -1;
+        }
+
+        private class EntryIterator implements Iterator<Entry<DataColumn<?>, Object>> {
+
+            private final List<DataColumn<?>> columns =
+                    (bounds != null) ? table.getLeafColumns() : Collections.emptyList();
+            private final Iterator<Entry<DataColumn<?>, Object>> others =
+                    (otherValues != null) ? otherValues.entrySet().iterator() : Collections.emptyIterator();
+            private int next = advance(0);
+
+            @Override
+            public boolean hasNext() {
+                return next < columns.size() || others.hasNext();
+            }
+
+            @Override
+            public Entry<DataColumn<?>, Object> next() {
+                if (next < columns.size()) {
+                    int index = next;
+                    next = advance(next + 1);
+                    return new SimpleImmutableEntry<>(columns.get(index), getValue(index, columns.get(index)));
+                }
+                return new SimpleImmutableEntry<>(others.next());
+            }
+
+            private int advance(int from) {
+                while (from < columns.size() && getValue(from, columns.get(from)) == null) {
+                    from++;
+                }
+                return from;
+            }
+        }
+    }
+
+}
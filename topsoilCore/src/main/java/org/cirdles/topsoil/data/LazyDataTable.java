@@ -0,0 +1,166 @@
+package org.cirdles.topsoil.data;
+
+import org.apache.commons.lang3.Validate;
+import org.cirdles.topsoil.utils.NumberLexer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link DataTable} whose values are kept as the raw text they were parsed from, and only decoded when read.
+ * <p>
+ * The text of every cell is appended to a single buffer shared by the table's rows, and each {@link LazyDataRow} holds
+ * the bounds of its cells within it. A value is decoded the first time it is read, and the result is kept in a
+ * primitive array, so columns that are never read after import are never parsed.
+ */
+public class LazyDataTable implements DataTable {
+
+    //**********************************************//
+    //                  ATTRIBUTES                  //
+    //**********************************************//
+
+    private final DataTemplate template;
+    private String title;
+    private Uncertainty uncertainty = Uncertainty.ONE_SIGMA_ABSOLUTE;
+    private final List<DataColumn<?>> columns = new ArrayList<>();
+    private final List<DataRow> rows = new ArrayList<>();
+
+    private final List<DataColumn<?>> leafColumns;
+    private final Map<DataColumn<?>, Integer> leafIndices = new HashMap<>();
+    private final StringBuilder text = new StringBuilder();
+    // Shared by the table's rows to decode numbers; used while holding its lock
+    private final NumberLexer lexer = new NumberLexer();
+
+    //**********************************************//
+    //                 CONSTRUCTORS                 //
+    //**********************************************//
+
+    /**
+     * Constructs a new table with the specified columns and no rows.
+     *
+     * @param template  DataTemplate
+     * @param title     String title
+     * @param columns   List of columns
+     */
+    public LazyDataTable(DataTemplate template, String title, List<DataColumn<?>> columns) {
+        this.template = template;
+        this.title = title;
+        if (columns != null) {
+            this.columns.addAll(columns);
+        }
+        this.leafColumns = Collections.unmodifiableList(TableUtils.getLeafColumns(this.columns));
+        for (int i = 0; i < leafColumns.size(); i++) {
+            leafIndices.put(leafColumns.get(i), i);
+        }
+    }
+
+    //**********************************************//
+    //                PUBLIC METHODS                //
+    //**********************************************//
+
+    @Override
+    public DataTemplate getTemplate() {
+        return template;
+    }
+
+    @Override
+    public String getTitle() {
+        return title;
+    }
+
+    @Override
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    @Override
+    public List<DataColumn<?>> getColumns() {
+        return columns;
+    }
+
+    @Override
+    public List<DataColumn<?>> getLeafColumns() {
+        return leafColumns;
+    }
+
+    @Override
+    public List<DataRow> getRows() {
+        return rows;
+    }
+
+    @Override
+    public Uncertainty getUncertainty() {
+        return uncertainty;
+    }
+
+    @Override
+    public void setUncertainty(Uncertainty uncertainty) {
+        this.uncertainty = uncertainty;
+    }
+
+    @Override
+    public int indexOfLeafColumn(DataColumn<?> column) {
+        Integer index = leafIndices.get(column);
+        return (index != null) ? index : -1;
+    }
+
+    /**
+     * Returns the buffer holding the raw text of the table's cells. The text of a new row's cells should be appended
+     * to the end of the buffer, one leaf column after another, before the row is created with
+     * {@link #createRow(String, int[])}. Text already in the buffer must not be modified.
+     *
+     * @return  StringBuilder
+     */
+    public StringBuilder getText() {
+        return text;
+    }
+
+    /**
+     * Creates a row whose cells have been appended to the text buffer. The row is not added to the table.
+     *
+     * @param title     String row title
+     * @param bounds    int[] of length one greater than the number of leaf columns, where the text of the cell for
+     *                  leaf column {@code i} is found between {@code bounds[i]} and {@code bounds[i + 1]}
+     *
+     * @return          LazyDataRow
+     */
+    public LazyDataRow createRow(String title, int[] bounds) {
+        Validate.isTrue(bounds.length == leafColumns.size() + 1, "Bounds must be given for each leaf column.");
+        return new LazyDataRow(title, this, bounds);
+    }
+
+    /**
+     * Creates a row that holds no values of its own, such as the parent row of a group of rows. The row is not added
+     * to the table.
+     *
+     * @param title     String row title
+     * @return          LazyDataRow
+     */
+    public LazyDataRow createParentRow(String title) {
+        return new LazyDataRow(title, this, null);
+    }
+
+    /**
+     * Trims the capacity of the text buffer to its length, once all rows have been created.
+     */
+    public void trimToSize() {
+        text.trimToSize();
+    }
+
+    //**********************************************//
+    //               PACKAGE METHODS                //
+    //**********************************************//
+
+    /**
+     * Returns the lexer the table's rows decode numbers with. Callers must hold the lexer's lock while using it.
+     *
+     * @return  NumberLexer
+     */
+    NumberLexer getLexer() {
+        return lexer;
+    }
+
+}
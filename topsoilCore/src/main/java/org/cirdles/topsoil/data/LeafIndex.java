@@ -0,0 +1,76 @@
+package org.cirdles.topsoil.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A snapshot of the leaves of a list of {@link DataComponent} trees, in order, for tables that cache their leaf
+ * columns or rows. The positions of the leaves are only mapped the first time one is looked up.
+ * <p>
+ * An index does not follow changes to the trees it was built from; the table that owns it should discard it when its
+ * components change.
+ *
+ * @param <T>   the type of component
+ */
+public final class LeafIndex<T extends DataComponent<T>> {
+
+    //**********************************************//
+    //                  ATTRIBUTES                  //
+    //**********************************************//
+
+    private final List<T> leaves;
+    private volatile Map<Object, Integer> positions;
+
+    //**********************************************//
+    //                 CONSTRUCTORS                 //
+    //**********************************************//
+
+    /**
+     * Constructs a new index of the leaves of the provided components.
+     *
+     * @param components    List of components
+     */
+    public LeafIndex(List<? extends T> components) {
+        ArrayList<T> list = new ArrayList<>();
+        for (T component : components) {
+            TableUtils.addLeafComponents(component, list);
+        }
+        list.trimToSize();
+        this.leaves = Collections.unmodifiableList(list);
+    }
+
+    //**********************************************//
+    //                PUBLIC METHODS                //
+    //**********************************************//
+
+    /**
+     * Returns an unmodifiable list of the leaves, in order.
+     *
+     * @return  List of leaves
+     */
+    public List<T> getLeaves() {
+        return leaves;
+    }
+
+    /**
+     * Returns the position of the provided leaf, or -1 if it is not one of the leaves.
+     *
+     * @param leaf  leaf component
+     * @return      int position, or -1
+     */
+    public int indexOf(Object leaf) {
+        if (positions == null) {
+            Map<Object, Integer> map = new HashMap<>(leaves.size() * 4 / 3 + 1);
+            for (int i = 0; i < leaves.size(); i++) {
+                map.putIfAbsent(leaves.get(i), i);
+            }
+            positions = map;
+        }
+        Integer position = positions.get(leaf);
+        return (position != null) ? position : -1;
+    }
+
+}
@@ -1,15 +1,21 @@
 package org.cirdles.topsoil.data;
 
+import org.cirdles.topsoil.symbols.SymbolKeyRegistry;
+
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 public class SimpleDataColumn<T> extends AbstractDataComponent<DataColumn<?>> implements DataColumn<T> {
 
-    private final List<SimpleDataColumn<?>> children = new ArrayList<>();
+    // Only categories have children, so the list and its view are created for the first child
+    private List<SimpleDataColumn<?>> children;
+    private List<SimpleDataColumn<?>> childrenView = Collections.emptyList();
 
     private final T defaultValue;
     private final Class<T> valueType;
+    private final int ordinal = SymbolKeyRegistry.nextOrdinal();
 
     //**********************************************//
     //                 CONSTRUCTORS                 //
@@ -39,8 +45,9 @@ public class SimpleDataColumn<T> extends AbstractDataComponent<DataColumn<?>> im
         this.defaultValue = defaultValue;
         this.valueType = valueType;
 
-        if (children != null) {
-            this.children.addAll(Arrays.asList(children));
+        if (children != null && children.length > 0) {
+            this.children = new ArrayList<>(Arrays.asList(children));
+            this.childrenView = Collections.unmodifiableList(this.children);
         }
     }
 
@@ -50,7 +57,12 @@ public class SimpleDataColumn<T> extends AbstractDataComponent<DataColumn<?>> im
 
     @Override
     public List<SimpleDataColumn<?>> getChildren() {
-        return new ArrayList<>(children);
+        return childrenView;
+    }
+
+    @Override
+    public int countChildren() {
+        return (children != null) ? children.size() : 0;
     }
 
     @Override
@@ -63,4 +75,9 @@ public class SimpleDataColumn<T> extends AbstractDataComponent<DataColumn<?>> im
         return valueType;
     }
 
+    @Override
+    public int getOrdinal() {
+        return ordinal;
+    }
+
 }
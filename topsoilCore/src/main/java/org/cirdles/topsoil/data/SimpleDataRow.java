@@ -1,18 +1,20 @@
 package org.cirdles.topsoil.data;
 
-import org.cirdles.topsoil.symbols.SimpleSymbolMap;
+import org.cirdles.topsoil.symbols.ArraySymbolMap;
 import org.cirdles.topsoil.symbols.SymbolMap;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 public class SimpleDataRow extends AbstractDataComponent<DataRow> implements DataRow {
 
-    private final List<SimpleDataRow> children = new ArrayList<>();
-    private SymbolMap<DataColumn<?>> columnMap = new SimpleSymbolMap<>();
+    // The list of children and the views are created when first needed, since most rows are leaves
+    private List<SimpleDataRow> children;
+    private List<SimpleDataRow> childrenView = Collections.emptyList();
+    private final SymbolMap<DataColumn<?>> columnMap = new ArraySymbolMap<>();
+    private Map<DataColumn<?>, Object> columnMapView;
     private boolean visible = true;
 
     //**********************************************//
@@ -37,7 +39,9 @@ public class SimpleDataRow extends AbstractDataComponent<DataRow> implements Dat
             columnMap.putAll(map);
         }
         if (children != null) {
-            this.children.addAll(Arrays.asList(children));
+            for (SimpleDataRow child : children) {
+                addChild(child);
+            }
         }
     }
 
@@ -47,12 +51,33 @@ public class SimpleDataRow extends AbstractDataComponent<DataRow> implements Dat
 
     @Override
     public List<SimpleDataRow> getChildren() {
-        return new ArrayList<>(children);
+        return childrenView;
+    }
+
+    @Override
+    public int countChildren() {
+        return (children != null) ? children.size() : 0;
+    }
+
+    /**
+     * Adds a child row to the end of this row's children.
+     *
+     * @param child SimpleDataRow
+     */
+    public void addChild(SimpleDataRow child) {
+        if (children == null) {
+            children = new ArrayList<>();
+            childrenView = Collections.unmodifiableList(children);
+        }
+        children.add(child);
     }
 
     @Override
     public Map<? extends DataColumn<?>, Object> getColumnValueMap() {
-        return new HashMap<>(columnMap);
+        if (columnMapView == null) {
+            columnMapView = Collections.unmodifiableMap(columnMap);
+        }
+        return columnMapView;
     }
 
     @Override
@@ -1,15 +1,29 @@
 package org.cirdles.topsoil.data;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
+/**
+ * A simple {@link DataTable}, whose leaf columns and rows are cached until its lists of columns or rows are modified.
+ * Changes within the trees of its components, such as a child added to a row already in the table, are not seen by
+ * the caches.
+ */
 public class SimpleDataTable implements DataTable {
 
     private final DataTemplate template;
     private String title;
     private Uncertainty uncertainty = Uncertainty.ONE_SIGMA_ABSOLUTE;
-    private List<DataColumn<?>> columns = new ArrayList<>();
-    private List<DataRow> rows = new ArrayList<>();
+    private TrackedList<DataColumn<?>> columns = new TrackedList<>();
+    private TrackedList<DataRow> rows = new TrackedList<>();
+
+    private LeafIndex<DataColumn<?>> leafColumns;
+    private int leafColumnsVersion;
+    private LeafIndex<DataRow> leafRows;
+    private int leafRowsVersion;
 
     public SimpleDataTable(DataTemplate template, String title) {
         this(template, title, null, null);
@@ -51,6 +65,36 @@ public class SimpleDataTable implements DataTable {
         return rows;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned list is cached, and cannot be modified.
+     */
+    @Override
+    public List<DataColumn<?>> getLeafColumns() {
+        return getLeafColumnIndex().getLeaves();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned list is cached, and cannot be modified.
+     */
+    @Override
+    public List<DataRow> getLeafRows() {
+        return getLeafRowIndex().getLeaves();
+    }
+
+    @Override
+    public int indexOfLeafColumn(DataColumn<?> column) {
+        return getLeafColumnIndex().indexOf(column);
+    }
+
+    @Override
+    public int indexOfLeafRow(DataRow row) {
+        return getLeafRowIndex().indexOf(row);
+    }
+
     @Override
     public Uncertainty getUncertainty() {
         return uncertainty;
@@ -60,4 +104,128 @@ public class SimpleDataTable implements DataTable {
     public void setUncertainty(Uncertainty uncertainty) {
         this.uncertainty = uncertainty;
     }
+
+    //**********************************************//
+    //                PRIVATE METHODS               //
+    //**********************************************//
+
+    private LeafIndex<DataColumn<?>> getLeafColumnIndex() {
+        if (leafColumns == null || leafColumnsVersion != columns.getVersion()) {
+            leafColumns = new LeafIndex<>(columns);
+            leafColumnsVersion = columns.getVersion();
+        }
+        return leafColumns;
+    }
+
+    private LeafIndex<DataRow> getLeafRowIndex() {
+        if (leafRows == null || leafRowsVersion != rows.getVersion()) {
+            leafRows = new LeafIndex<>(rows);
+            leafRowsVersion = rows.getVersion();
+        }
+        return leafRows;
+    }
+
+    //**********************************************//
+    //                INNER CLASSES                 //
+    //**********************************************//
+
+    /**
+     * An {@code ArrayList} with a version that changes whenever the list is modified, including when an element is
+     * replaced. Replacing an element is not a structural modification, so the version is kept apart from
+     * {@code modCount}, which iterators use to detect concurrent modification.
+     */
+    private static final class TrackedList<E> extends ArrayList<E> {
+
+        private static final long serialVersionUID = 1L;
+
+        private int version;
+
+        @Override
+        public E set(int index, E element) {
+            version++;
+            return super.set(index, element);
+        }
+
+        @Override
+        public boolean add(E element) {
+            version++;
+            return super.add(element);
+        }
+
+        @Override
+        public void add(int index, E element) {
+            version++;
+            super.add(index, element);
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends E> elements) {
+            version++;
+            return super.addAll(elements);
+        }
+
+        @Override
+        public boolean addAll(int index, Collection<? extends E> elements) {
+            version++;
+            return super.addAll(index, elements);
+        }
+
+        @Override
+        public E remove(int index) {
+            version++;
+            return super.remove(index);
+        }
+
+        @Override
+        public boolean remove(Object element) {
+            version++;
+            return super.remove(element);
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> elements) {
+            version++;
+            return super.removeAll(elements);
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> elements) {
+            version++;
+            return super.retainAll(elements);
+        }
+
+        @Override
+        public boolean removeIf(Predicate<? super E> filter) {
+            version++;
+            return super.removeIf(filter);
+        }
+
+        @Override
+        protected void removeRange(int fromIndex, int toIndex) {
+            version++;
+            super.removeRange(fromIndex, toIndex);
+        }
+
+        @Override
+        public void replaceAll(UnaryOperator<E> operator) {
+            version++;
+            super.replaceAll(operator);
+        }
+
+        @Override
+        public void sort(Comparator<? super E> comparator) {
+            version++;
+            super.sort(comparator);
+        }
+
+        @Override
+        public void clear() {
+            version++;
+            super.clear();
+        }
+
+        int getVersion() {
+            return version;
+        }
+    }
 }
@@ -9,6 +9,7 @@ import org.cirdles.topsoil.plot.Plot;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -27,7 +28,7 @@ public final class TableUtils {
 
         List<T> leafColumns = new ArrayList<>();
         for (T column : columns) {
-            leafColumns.addAll((List<T>) column.getLeafChildren());
+            addLeafComponents(column, leafColumns);
         }
         return leafColumns;
     }
@@ -43,7 +44,7 @@ public final class TableUtils {
 
         List<T> leafRows = new ArrayList<>();
         for (T row : rows) {
-            leafRows.addAll((List<T>) row.getLeafChildren());
+            addLeafComponents(row, leafRows);
         }
         return leafRows;
     }
@@ -54,9 +55,35 @@ public final class TableUtils {
     }
 
     public static List<DataEntry> getPlotData(DataTable table, Map<Variable<?>, DataColumn<?>> variableMap) {
+        if (table instanceof ColumnarDataTable) {
+            return convertToPlotData((ColumnarDataTable) table, variableMap);
+        }
         return convertToPlotData(table.getRows(), variableMap, table.getUncertainty());
     }
 
+    public static List<DataEntry> getPlotData(List<? extends DataRow> rows, Map<Variable<?>, DataColumn<?>> variableMap,
+                                              Uncertainty uncertainty) {
+        return convertToPlotData(rows, variableMap, uncertainty);
+    }
+
+    /**
+     * Maps each title in the trees of the provided components to the component that {@link #findIn(String, List)}
+     * would return for it, in a single pass over the trees.
+     *
+     * @param list  List of components
+     * @return      Map of titles to components
+     */
+    public static <T extends DataComponent<T>> Map<String, T> indexByTitle(List<? extends T> list) {
+        Validate.notNull(list, "List cannot be null.");
+
+        Map<String, T> index = new HashMap<>();
+        for (T component : list) {
+            index.putIfAbsent(component.getTitle(), component);
+            indexBelow(component, index);
+        }
+        return index;
+    }
+
     public static <T extends DataComponent<T>> T findIn(String title, List<? extends T> list) {
         T target;
         for (T component : list) {
@@ -90,10 +117,14 @@ public final class TableUtils {
             if (row.countChildren() > 0) {
                 maxFractionDigits = Math.max(maxFractionDigits, maxFractionDigitsForColumn(row.getChildren(), column, scientificNotation));
             } else {
+                Number value = row.getValueForColumn(column);
+                if (value == null) {
+                    continue;
+                }
                 if (scientificNotation) {
-                    maxFractionDigits = Math.max(maxFractionDigits, countSignificantDigits(row.getValueForColumn(column)) - 1);
+                    maxFractionDigits = Math.max(maxFractionDigits, countSignificantDigits(value) - 1);
                 } else {
-                    maxFractionDigits = Math.max(maxFractionDigits, countFractionDigits(row.getValueForColumn(column)));
+                    maxFractionDigits = Math.max(maxFractionDigits, countFractionDigits(value));
                 }
             }
         }
@@ -130,10 +161,67 @@ public final class TableUtils {
         return count;
     }
 
+    //**********************************************//
+    //               PACKAGE METHODS                //
+    //**********************************************//
+
+    /**
+     * Returns the first component with the specified title below the provided component, in the order of
+     * {@link DataComponent#find(String)}: its children, then the trees below each of its children in order.
+     *
+     * @param title     String title
+     * @param component DataComponent
+     *
+     * @return          component, or null if there is none
+     */
+    static DataComponent<?> findBelow(String title, DataComponent<?> component) {
+        List<?> children = component.getChildren();
+        for (Object child : children) {
+            if (title.equals(((DataComponent<?>) child).getTitle())) {
+                return (DataComponent<?>) child;
+            }
+        }
+        DataComponent<?> target;
+        for (Object child : children) {
+            target = findBelow(title, (DataComponent<?>) child);
+            if (target != null) {
+                return target;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Appends the leaves of a component's tree to the provided list, or the component itself if it has no children,
+     * without creating a list for any intermediate component.
+     *
+     * @param component DataComponent
+     * @param leaves    List of leaf components
+     */
+    static <T> void addLeafComponents(DataComponent<?> component, List<T> leaves) {
+        if (component.countChildren() == 0) {
+            leaves.add((T) component);
+            return;
+        }
+        for (Object child : component.getChildren()) {
+            addLeafComponents((DataComponent<?>) child, leaves);
+        }
+    }
+
     //**********************************************//
     //                PRIVATE METHODS               //
     //**********************************************//
 
+    private static <T extends DataComponent<T>> void indexBelow(T component, Map<String, T> index) {
+        List<? extends T> children = component.getChildren();
+        for (T child : children) {
+            index.putIfAbsent(child.getTitle(), child);
+        }
+        for (T child : children) {
+            indexBelow(child, index);
+        }
+    }
+
     private static <T extends DataComponent<T>> int countLeafComponents(List<? extends T> components) {
         int count = 0;
         for (T component : components) {
@@ -155,6 +243,10 @@ public final class TableUtils {
      * entry's values are set based on a data row, using the provided map. For each variable/column pair in the map, the
      * data entry's value for the variable is set to the data row's value for the column, if such a value exists. Data
      * entries are only created for data rows with no child rows.
+     * <p>
+     * A variable whose column has no value for a row is missing from the row's entry, as is a percent uncertainty whose
+     * dependency is missing, so that the plot can tell a missing value from a real zero. Only the classic variables
+     * that are not mapped to a column are given their default values.
      *
      * @param dataRows      List of DataRows in a table
      * @param variableMap   Map associating plotting variables to table columns
@@ -162,16 +254,25 @@ public final class TableUtils {
      */
     private static <T extends DataRow> List<DataEntry> convertToPlotData(List<T> dataRows, Map<Variable<?>, DataColumn<?>> variableMap, Uncertainty uncertainty) {
         List<DataEntry> dataEntries = new ArrayList<>();
+        addPlotData(dataRows, variableMap, uncertainty, dataEntries);
+        return dataEntries;
+    }
+
+    /**
+     * Appends the data entries for a list of rows to the provided list, recursing into rows with children without
+     * creating an intermediate list for each.
+     */
+    private static void addPlotData(List<? extends DataRow> dataRows, Map<Variable<?>, DataColumn<?>> variableMap,
+                                    Uncertainty uncertainty, List<DataEntry> dataEntries) {
         DataEntry newEntry;
         Object value;
-        for (T row : dataRows) {
-            newEntry = new DataEntry();
-
-            if (row.getChildren().size() > 0) {
+        for (DataRow row : dataRows) {
+            if (row.countChildren() > 0) {
                 // DataRow has child rows, recursively create entries for list of child rows
-                dataEntries.addAll(convertToPlotData(row.getChildren(), variableMap, uncertainty));
+                addPlotData(row.getChildren(), variableMap, uncertainty, dataEntries);
                 continue;
             }
+            newEntry = new DataEntry();
 
             // Extract values for each variable from the row
             newEntry.put(Variable.LABEL, row.getTitle());
@@ -189,23 +290,116 @@ public final class TableUtils {
                     double doubleValue = (double) value;
                     Variable<Number> dependency = ((DependentVariable) variable).getDependency();
                     DataColumn<Number> dependentColumn = (DataColumn<Number>) variableMap.get(dependency);
+                    Number dependentValue = row.getValueForColumn(dependentColumn);
+                    if (dependentValue == null) {
+                        continue;
+                    }
                     doubleValue /= 100;
-                    doubleValue *= row.getValueForColumn(dependentColumn).doubleValue();
+                    doubleValue *= dependentValue.doubleValue();
                     value = doubleValue;
                 }
                 newEntry.put(variable, value);
             }
 
-            // Make sure there are values for each variable
+            // Give a value to each classic variable that is not mapped to a column
             for (Variable<?> variable : Variable.CLASSIC) {
-                if (! newEntry.containsKey(variable)) {
+                if (! variableMap.containsKey(variable)) {
                     newEntry.put(variable, variable.getDefaultValue());
                 }
             }
 
             dataEntries.add(newEntry);
         }
+    }
+
+    /**
+     * Converts the rows of a {@code ColumnarDataTable} into {@code DataEntry} objects in the same way as
+     * {@link #convertToPlotData(List, Map, Uncertainty)}, except that the column index of each variable is resolved
+     * once, and values are read directly from the table's arrays.
+     *
+     * @param table         ColumnarDataTable
+     * @param variableMap   Map associating plotting variables to table columns
+     * @return              List of DataEntry
+     */
+    private static List<DataEntry> convertToPlotData(ColumnarDataTable table,
+                                                     Map<Variable<?>, DataColumn<?>> variableMap) {
+        boolean percent = Uncertainty.PERCENT_FORMATS.contains(table.getUncertainty());
+        Variable<?>[] variables = new Variable<?>[variableMap.size()];
+        int[] columnIndices = new int[variables.length];
+        int[] dependencyIndices = new int[variables.length];
+        int i = 0;
+        for (Map.Entry<Variable<?>, DataColumn<?>> e : variableMap.entrySet()) {
+            variables[i] = e.getKey();
+            columnIndices[i] = table.indexOfLeafColumn(e.getValue());
+            dependencyIndices[i] = -1;
+            if (percent && variables[i] instanceof DependentVariable) {
+                dependencyIndices[i] =
+                        table.indexOfLeafColumn(variableMap.get(((DependentVariable) variables[i]).getDependency()));
+                // A percent uncertainty whose dependency is not mapped has no value, so the variable is skipped
+                if (dependencyIndices[i] < 0) {
+                    columnIndices[i] = -1;
+                }
+            }
+            i++;
+        }
+
+        List<Variable<?>> unmappedVariables = new ArrayList<>();
+        for (Variable<?> variable : Variable.CLASSIC) {
+            if (! variableMap.containsKey(variable)) {
+                unmappedVariables.add(variable);
+            }
+        }
+
+        List<DataEntry> dataEntries = new ArrayList<>();
+        addPlotData(table, table.getRows(), variables, columnIndices, dependencyIndices, unmappedVariables, dataEntries);
         return dataEntries;
     }
 
+    private static void addPlotData(ColumnarDataTable table, List<? extends DataRow> dataRows, Variable<?>[] variables,
+                                    int[] columnIndices, int[] dependencyIndices, List<Variable<?>> unmappedVariables,
+                                    List<DataEntry> dataEntries) {
+        DataEntry newEntry;
+        ColumnarDataRow columnarRow;
+        int rowIndex;
+        Object value;
+        for (DataRow row : dataRows) {
+            if (row.countChildren() > 0) {
+                addPlotData(
+                        table, row.getChildren(), variables, columnIndices, dependencyIndices, unmappedVariables,
+                        dataEntries
+                );
+                continue;
+            }
+            columnarRow = (ColumnarDataRow) row;
+            rowIndex = columnarRow.getIndex();
+
+            newEntry = new DataEntry();
+            newEntry.put(Variable.LABEL, columnarRow.getTitle());
+            newEntry.put(Variable.SELECTED, columnarRow.isSelected());
+            newEntry.put(Variable.VISIBLE, columnarRow.isVisible());
+            for (int i = 0; i < variables.length; i++) {
+                if (columnIndices[i] < 0 || ! table.hasValue(rowIndex, columnIndices[i])) {
+                    continue;
+                }
+                if (dependencyIndices[i] >= 0) {
+                    if (! table.hasValue(rowIndex, dependencyIndices[i])) {
+                        continue;
+                    }
+                    value = table.getDouble(rowIndex, columnIndices[i]) / 100 *
+                            table.getDouble(rowIndex, dependencyIndices[i]);
+                } else {
+                    value = table.getValue(rowIndex, columnIndices[i]);
+                }
+                newEntry.put(variables[i], value);
+            }
+
+            // Give a value to each classic variable that is not mapped to a column
+            for (Variable<?> variable : unmappedVariables) {
+                newEntry.put(variable, variable.getDefaultValue());
+            }
+
+            dataEntries.add(newEntry);
+        }
+    }
+
 }
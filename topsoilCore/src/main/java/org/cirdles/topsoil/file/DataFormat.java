@@ -0,0 +1,121 @@
+package org.cirdles.topsoil.file;
+
+import org.cirdles.topsoil.data.DataTemplate;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Describes the layout of value-separated data, as identified by a {@link FormatSniffer}.
+ */
+public final class DataFormat {
+
+    //**********************************************//
+    //                  ATTRIBUTES                  //
+    //**********************************************//
+
+    private final Charset charset;
+    private final boolean byteOrderMark;
+    private final Delimiter delimiter;
+    private final DataTemplate template;
+    private final int headerRowCount;
+    private final List<Class<?>> columnTypes;
+    private final List<String> columnTitles;
+    private final boolean empty;
+
+    //**********************************************//
+    //                 CONSTRUCTORS                 //
+    //**********************************************//
+
+    DataFormat(Charset charset, boolean byteOrderMark, Delimiter delimiter, DataTemplate template, int headerRowCount,
+               List<Class<?>> columnTypes, List<String> columnTitles, boolean empty) {
+        this.charset = charset;
+        this.byteOrderMark = byteOrderMark;
+        this.delimiter = delimiter;
+        this.template = template;
+        this.headerRowCount = headerRowCount;
+        this.columnTypes = Collections.unmodifiableList(new ArrayList<>(columnTypes));
+        this.columnTitles = Collections.unmodifiableList(new ArrayList<>(columnTitles));
+        this.empty = empty;
+    }
+
+    //**********************************************//
+    //                PUBLIC METHODS                //
+    //**********************************************//
+
+    /**
+     * Returns the character encoding of the data.
+     *
+     * @return  Charset
+     */
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * Returns true if the data begins with a Unicode Byte Order Mark.
+     *
+     * @return  true if a BOM is present
+     */
+    public boolean hasByteOrderMark() {
+        return byteOrderMark;
+    }
+
+    /**
+     * Returns the delimiter of the data, or null if it could not be identified.
+     *
+     * @return  Delimiter, or null
+     */
+    public Delimiter getDelimiter() {
+        return delimiter;
+    }
+
+    /**
+     * Returns the template that the layout of the data most closely resembles.
+     *
+     * @return  DataTemplate
+     */
+    public DataTemplate getTemplate() {
+        return template;
+    }
+
+    /**
+     * Returns the number of header rows preceding the data rows.
+     *
+     * @return  int header row count
+     */
+    public int getHeaderRowCount() {
+        return headerRowCount;
+    }
+
+    /**
+     * Returns the data type of each cell index, either {@code Number} or {@code String}.
+     *
+     * @return  unmodifiable List of column types
+     */
+    public List<Class<?>> getColumnTypes() {
+        return columnTypes;
+    }
+
+    /**
+     * Returns a title for each cell index, made from the non-empty header cells above it, for presenting the columns
+     * of the data before it is parsed. For the {@code SQUID_3} template, the category header row is not included.
+     *
+     * @return  unmodifiable List of column titles
+     */
+    public List<String> getColumnTitles() {
+        return columnTitles;
+    }
+
+    /**
+     * Returns true if the data contains no non-blank lines.
+     *
+     * @return  true if empty
+     */
+    public boolean isEmpty() {
+        return empty;
+    }
+
+}
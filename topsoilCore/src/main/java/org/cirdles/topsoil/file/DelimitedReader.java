@@ -0,0 +1,192 @@
+package org.cirdles.topsoil.file;
+
+import org.apache.commons.lang3.Validate;
+import org.cirdles.topsoil.utils.NumberLexer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Reads value-separated records one at a time from a character stream.
+ * <p>
+ * Unlike {@link TopsoilFileUtils#readCells(String[], String)}, a {@code DelimitedReader} never holds more than the
+ * current record (plus any records explicitly buffered with {@link #lookAhead(int)}) in memory, so that data of any
+ * size can be parsed with a footprint proportional to a single row. Records are split by a
+ * {@link DelimitedTokenizer}, so quoted cells may contain delimiters, line terminators, and escaped quotes. Blank
+ * records are skipped, and each unquoted cell is trimmed of leading and trailing whitespace.
+ */
+public class DelimitedReader implements RecordReader {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private final DelimitedTokenizer tokenizer;
+    private final long length;
+    private long position;
+
+    // Characters read from the stream; those from bufferStart to bufferLimit have not yet been tokenized
+    private char[] chars = new char[BUFFER_SIZE];
+    private CharBuffer charView = CharBuffer.wrap(chars);
+    private int bufferStart;
+    private int bufferLimit;
+    private boolean endOfInput;
+
+    private final LinkedList<String[]> buffer = new LinkedList<>();
+    private final NumberLexer lexer = new NumberLexer();
+    private String[] current;
+
+    //**********************************************//
+    //                 CONSTRUCTORS                 //
+    //**********************************************//
+
+    public DelimitedReader(Reader reader, String delimiter) {
+        this(reader, delimiter, -1);
+    }
+
+    /**
+     * Constructs a new reader over a stream of a known number of characters, so that progress can be reported.
+     *
+     * @param reader        Reader of value-separated data
+     * @param delimiter     String delimiter
+     * @param length        number of characters in the stream, or -1 if unknown
+     */
+    public DelimitedReader(Reader reader, String delimiter, long length) {
+        Validate.notNull(reader, "Reader cannot be null.");
+        Validate.notEmpty(delimiter, "Delimiter cannot be empty.");
+
+        this.reader = reader;
+        this.tokenizer = new DelimitedTokenizer(delimiter);
+        this.length = length;
+    }
+
+    //**********************************************//
+    //                PUBLIC METHODS                //
+    //**********************************************//
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean next() throws IOException {
+        current = (! buffer.isEmpty()) ? buffer.poll() : readNextRecord();
+        return current != null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getCellCount() {
+        return current.length;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getString(int index) {
+        return current[index];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isEmpty(int index) {
+        return current[index].isEmpty();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getDouble(int index) {
+        if (! lexer.lex(current[index])) {
+            throw new NumberFormatException("For input string: \"" + current[index] + "\"");
+        }
+        return lexer.doubleValue();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String[] getCells() {
+        return current;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public List<String[]> lookAhead(int count) throws IOException {
+        String[] record;
+        while (buffer.size() < count && (record = readNextRecord()) != null) {
+            buffer.add(record);
+        }
+        if (buffer.size() > count) {
+            return Collections.unmodifiableList(new ArrayList<>(buffer.subList(0, count)));
+        }
+        return Collections.unmodifiableList(new ArrayList<>(buffer));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The position is the number of characters of the stream that have been tokenized, including any records
+     * buffered by {@link #lookAhead(int)}.
+     */
+    @Override
+    public long getPosition() {
+        return position;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getLength() {
+        return length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    //**********************************************//
+    //                PRIVATE METHODS               //
+    //**********************************************//
+
+    private String[] readNextRecord() throws IOException {
+        int next;
+        while (bufferStart < bufferLimit || ! endOfInput) {
+            next = (bufferStart < bufferLimit) ? tokenizer.tokenize(charView, bufferStart, bufferLimit, endOfInput) : -1;
+            if (next < 0) {
+                fill();
+                continue;
+            }
+            String[] record = tokenizer.isBlank() ? null : tokenizer.getCells(charView);
+            position += next - bufferStart;
+            bufferStart = next;
+            if (record != null) {
+                return record;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads more characters from the stream, keeping those that have not yet been tokenized. The buffer grows if it is
+     * already full of a single incomplete record.
+     */
+    private void fill() throws IOException {
+        if (bufferStart > 0) {
+            System.arraycopy(chars, bufferStart, chars, 0, bufferLimit - bufferStart);
+            bufferLimit -= bufferStart;
+            bufferStart = 0;
+        }
+        if (bufferLimit == chars.length) {
+            char[] grown = new char[chars.length * 2];
+            System.arraycopy(chars, 0, grown, 0, bufferLimit);
+            chars = grown;
+            charView = CharBuffer.wrap(chars);
+        }
+        int read = reader.read(chars, bufferLimit, chars.length - bufferLimit);
+        if (read < 0) {
+            endOfInput = true;
+        } else {
+            bufferLimit += read;
+        }
+    }
+
+}
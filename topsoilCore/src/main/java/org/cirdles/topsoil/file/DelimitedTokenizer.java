@@ -0,0 +1,323 @@
+package org.cirdles.topsoil.file;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * A finite-state machine that splits value-separated text into records and cells in a single pass, without regular
+ * expressions.
+ * <p>
+ * Quoting follows RFC 4180: a cell may be enclosed in double quotes, in which case it may contain the delimiter, line
+ * terminators, and double quotes escaped by doubling them ({@code ""}). A quote within an unquoted cell is taken
+ * literally, and anything between a closing quote and the next delimiter is ignored. Unquoted cells are trimmed of
+ * leading and trailing whitespace, while the contents of quoted cells are preserved exactly. Records may be terminated
+ * by {@code \n}, {@code \r}, or {@code \r\n}, and the delimiter may be any number of characters long.
+ * <p>
+ * The tokenizer operates on a {@code CharSequence} of code units, so that it can be run over decoded characters or over
+ * raw bytes viewed as characters. Only the bounds of each cell are recorded; no {@code String} is created unless
+ * {@link #getCell(CharSequence, int)} is called.
+ */
+public final class DelimitedTokenizer {
+
+    //**********************************************//
+    //                  CONSTANTS                   //
+    //**********************************************//
+
+    private static final char QUOTE = '"';
+
+    // Before the first non-whitespace character of a cell
+    private static final int CELL_START = 0;
+    private static final int UNQUOTED = 1;
+    private static final int QUOTED = 2;
+    // A quote within a quoted cell, which either escapes the next quote or closes the cell
+    private static final int QUOTE_IN_QUOTED = 3;
+    private static final int AFTER_QUOTED = 4;
+
+    //**********************************************//
+    //                  ATTRIBUTES                  //
+    //**********************************************//
+
+    private final CharSequence delimiter;
+
+    // Bounds of the cells of the last record, relative to the input
+    private int cellCount;
+    private int[] cellStarts = new int[16];
+    private int[] cellEnds = new int[16];
+    private boolean[] cellEscaped = new boolean[16];
+
+    //**********************************************//
+    //                 CONSTRUCTORS                 //
+    //**********************************************//
+
+    /**
+     * Constructs a new tokenizer for the specified delimiter, which must be expressed in the same code units as the
+     * input that will be tokenized.
+     *
+     * @param delimiter     CharSequence delimiter
+     */
+    public DelimitedTokenizer(CharSequence delimiter) {
+        Validate.notNull(delimiter, "Delimiter cannot be null.");
+        Validate.isTrue(delimiter.length() > 0, "Delimiter cannot be empty.");
+        for (int i = 0; i < delimiter.length(); i++) {
+            Validate.isTrue(delimiter.charAt(i) != QUOTE, "Delimiter cannot contain a quote.");
+        }
+        this.delimiter = delimiter;
+    }
+
+    //**********************************************//
+    //                PUBLIC METHODS                //
+    //**********************************************//
+
+    /**
+     * Tokenizes the record beginning at {@code offset}. If the input ends before the record does, and
+     * {@code endOfInput} is false, -1 is returned so that the caller can provide more input and try again from the
+     * same offset; otherwise, the end of the input ends the record.
+     *
+     * @param input         CharSequence input
+     * @param offset        index of the first character of the record
+     * @param limit         index following the last available character
+     * @param endOfInput    true if no input follows {@code limit}
+     *
+     * @return              the index following the record's line terminator, or -1 if more input is needed
+     */
+    public int tokenize(CharSequence input, int offset, int limit, boolean endOfInput) {
+        cellCount = 0;
+        int state = CELL_START;
+        int cellStart = offset;
+        int cellEnd = offset;
+        boolean escaped = false;
+        int i = offset;
+        char c;
+        while (i < limit) {
+            c = input.charAt(i);
+            if (state == QUOTED) {
+                if (c == QUOTE) {
+                    state = QUOTE_IN_QUOTED;
+                }
+                i++;
+                continue;
+            }
+            if (state == QUOTE_IN_QUOTED) {
+                if (c == QUOTE) {
+                    escaped = true;
+                    state = QUOTED;
+                    i++;
+                    continue;
+                }
+                cellEnd = i - 1;
+                state = AFTER_QUOTED;
+            }
+
+            if (c == '\n' || c == '\r') {
+                addCell(cellStart, cellEnd, escaped);
+                if (c == '\r') {
+                    if (i + 1 < limit) {
+                        if (input.charAt(i + 1) == '\n') {
+                            i++;
+                        }
+                    } else if (! endOfInput) {
+                        return -1;
+                    }
+                }
+                return i + 1;
+            }
+            if (c == delimiter.charAt(0)) {
+                int match = matchDelimiter(input, i, limit, endOfInput);
+                if (match < 0) {
+                    return -1;
+                }
+                if (match > 0) {
+                    addCell(cellStart, cellEnd, escaped);
+                    i += match;
+                    state = CELL_START;
+                    cellStart = i;
+                    cellEnd = i;
+                    escaped = false;
+                    continue;
+                }
+            }
+
+            switch (state) {
+                case CELL_START:
+                    if (c == QUOTE) {
+                        state = QUOTED;
+                        cellStart = i + 1;
+                        cellEnd = i + 1;
+                    } else if (c > ' ') {
+                        state = UNQUOTED;
+                        cellStart = i;
+                        cellEnd = i + 1;
+                    }
+                    break;
+                case UNQUOTED:
+                    if (c > ' ') {
+                        cellEnd = i + 1;
+                    }
+                    break;
+                default:
+                    // AFTER_QUOTED: ignored until the next delimiter
+                    break;
+            }
+            i++;
+        }
+
+        if (! endOfInput) {
+            return -1;
+        }
+        if (state == QUOTED) {
+            cellEnd = limit;    // unterminated quote
+        } else if (state == QUOTE_IN_QUOTED) {
+            cellEnd = limit - 1;
+        }
+        addCell(cellStart, cellEnd, escaped);
+        return limit;
+    }
+
+    /**
+     * Returns the number of cells in the last record tokenized.
+     *
+     * @return  int cell count
+     */
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * Returns the index in the input of the first character of the specified cell, excluding any opening quote.
+     *
+     * @param index     cell index
+     * @return          int start index
+     */
+    public int getCellStart(int index) {
+        checkIndex(index);
+        return cellStarts[index];
+    }
+
+    /**
+     * Returns the index in the input following the last character of the specified cell, excluding any closing quote.
+     *
+     * @param index     cell index
+     * @return          int end index
+     */
+    public int getCellEnd(int index) {
+        checkIndex(index);
+        return cellEnds[index];
+    }
+
+    /**
+     * Returns true if the specified cell contains escaped quotes, and so must be unescaped to obtain its value.
+     *
+     * @param index     cell index
+     * @return          true if escaped
+     */
+    public boolean isEscaped(int index) {
+        checkIndex(index);
+        return cellEscaped[index];
+    }
+
+    /**
+     * Returns true if the last record tokenized consists of a single empty cell.
+     *
+     * @return  true if blank
+     */
+    public boolean isBlank() {
+        return cellCount == 1 && cellStarts[0] == cellEnds[0];
+    }
+
+    /**
+     * Returns the value of the specified cell of the last record tokenized from the provided input.
+     *
+     * @param input     the CharSequence that was tokenized
+     * @param index     cell index
+     *
+     * @return          String cell value
+     */
+    public String getCell(CharSequence input, int index) {
+        String cell = input.subSequence(getCellStart(index), getCellEnd(index)).toString();
+        return cellEscaped[index] ? unescape(cell) : cell;
+    }
+
+    /**
+     * Returns the values of the cells of the last record tokenized from the provided input.
+     *
+     * @param input     the CharSequence that was tokenized
+     * @return          String[] cell values
+     */
+    public String[] getCells(CharSequence input) {
+        String[] cells = new String[cellCount];
+        for (int i = 0; i < cellCount; i++) {
+            cells[i] = getCell(input, i);
+        }
+        return cells;
+    }
+
+    /**
+     * Clears the last record tokenized.
+     */
+    public void reset() {
+        cellCount = 0;
+    }
+
+    /**
+     * Replaces each pair of quotes in the contents of a quoted cell with a single quote.
+     *
+     * @param cell  String cell contents
+     * @return      String cell value
+     */
+    static String unescape(String cell) {
+        StringBuilder value = new StringBuilder(cell.length());
+        char c;
+        for (int i = 0; i < cell.length(); i++) {
+            c = cell.charAt(i);
+            value.append(c);
+            if (c == QUOTE && i + 1 < cell.length() && cell.charAt(i + 1) == QUOTE) {
+                i++;
+            }
+        }
+        return value.toString();
+    }
+
+    //**********************************************//
+    //                PRIVATE METHODS               //
+    //**********************************************//
+
+    /**
+     * @return  the delimiter length if the delimiter occurs at the given index, 0 if it does not, or -1 if the input
+     *          ends before a match can be determined
+     */
+    private int matchDelimiter(CharSequence input, int index, int limit, boolean endOfInput) {
+        for (int k = 1; k < delimiter.length(); k++) {
+            if (index + k >= limit) {
+                return endOfInput ? 0 : -1;
+            }
+            if (input.charAt(index + k) != delimiter.charAt(k)) {
+                return 0;
+            }
+        }
+        return delimiter.length();
+    }
+
+    private void addCell(int start, int end, boolean escaped) {
+        if (cellCount == cellStarts.length) {
+            int[] starts = new int[cellCount * 2];
+            int[] ends = new int[cellCount * 2];
+            boolean[] escapes = new boolean[cellCount * 2];
+            System.arraycopy(cellStarts, 0, starts, 0, cellCount);
+            System.arraycopy(cellEnds, 0, ends, 0, cellCount);
+            System.arraycopy(cellEscaped, 0, escapes, 0, cellCount);
+            cellStarts = starts;
+            cellEnds = ends;
+            cellEscaped = escapes;
+        }
+        cellStarts[cellCount] = start;
+        cellEnds[cellCount] = end;
+        cellEscaped[cellCount] = escaped;
+        cellCount++;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= cellCount) {
+            throw new IndexOutOfBoundsException("Cell index " + index + " out of bounds for " + cellCount + " cells.");
+        }
+    }
+
+}
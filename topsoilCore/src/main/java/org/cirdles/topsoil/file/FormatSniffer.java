@@ -0,0 +1,299 @@
+package org.cirdles.topsoil.file;
+
+import org.apache.commons.lang3.Validate;
+import org.cirdles.topsoil.data.DataTemplate;
+import org.cirdles.topsoil.utils.NumberLexer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Identifies the {@link DataFormat} of value-separated data by examining a bounded prefix of it.
+ * <p>
+ * Only the first {@value #PREFIX_SIZE} bytes of a file are read, so sniffing takes the same time regardless of the
+ * size of the file. The encoding, delimiter, header rows, column types, and template are all identified from the
+ * same prefix.
+ */
+public final class FormatSniffer {
+
+    /**
+     * The maximum number of bytes read from the beginning of a file.
+     */
+    public static final int PREFIX_SIZE = 64 * 1024;
+
+    private static final int DELIMITER_SAMPLE_RECORDS = 5;
+    private static final int COLUMN_TYPE_SAMPLE_SIZE = 5;
+    private static final int SQUID_3_HEADER_ROWS = 5;
+
+    private FormatSniffer() {
+        // Prevents instantiation by default constructor
+    }
+
+    //**********************************************//
+    //                PUBLIC METHODS                //
+    //**********************************************//
+
+    /**
+     * Identifies the format of the data file at the specified path. If the file has a {@code .csv} or {@code .tsv}
+     * extension, the delimiter implied by the extension is used.
+     *
+     * @param   path
+     *          the Path to the file to be sniffed
+     *
+     * @return  DataFormat
+     *
+     * @throws IOException
+     *          if an I/O error occurs reading the file
+     */
+    public static DataFormat sniff(Path path) throws IOException {
+        Validate.notNull(path, "Path cannot be null.");
+
+        byte[] prefix = new byte[PREFIX_SIZE];
+        int length = 0;
+        boolean truncated;
+        try (InputStream in = Files.newInputStream(path)) {
+            int read;
+            while (length < prefix.length && (read = in.read(prefix, length, prefix.length - length)) != -1) {
+                length += read;
+            }
+            truncated = (length == prefix.length) && in.read() != -1;
+        } catch (IOException e) {
+            throw new IOException("Unable to read file at path: " + path.toString() + ".", e);
+        }
+
+        Charset charset = StandardCharsets.UTF_8;
+        int bomLength = 0;
+        if (startsWith(prefix, length, 0xEF, 0xBB, 0xBF)) {
+            bomLength = 3;
+        } else if (startsWith(prefix, length, 0xFF, 0xFE, 0x00, 0x00)) {
+            charset = Charset.forName("UTF-32LE");
+            bomLength = 4;
+        } else if (startsWith(prefix, length, 0x00, 0x00, 0xFE, 0xFF)) {
+            charset = Charset.forName("UTF-32BE");
+            bomLength = 4;
+        } else if (startsWith(prefix, length, 0xFF, 0xFE)) {
+            charset = StandardCharsets.UTF_16LE;
+            bomLength = 2;
+        } else if (startsWith(prefix, length, 0xFE, 0xFF)) {
+            charset = StandardCharsets.UTF_16BE;
+            bomLength = 2;
+        }
+
+        String content = new String(prefix, bomLength, length - bomLength, charset);
+        if (truncated) {
+            // Discard the final, incomplete line
+            int lineEnd = Math.max(content.lastIndexOf('\n'), content.lastIndexOf('\r'));
+            if (lineEnd > 0) {
+                content = content.substring(0, lineEnd);
+            }
+        }
+
+        TableFileExtension ext = TopsoilFileUtils.getExtension(path);
+        Delimiter delimiter = (ext == TableFileExtension.CSV || ext == TableFileExtension.TSV) ? ext.getDelimiter() : null;
+        return sniff(content, charset, bomLength > 0, delimiter);
+    }
+
+    /**
+     * Identifies the format of the provided {@code String} data. Only the first {@value #PREFIX_SIZE} characters are
+     * examined. As the content has already been decoded, its charset is reported as UTF-8, without a Byte Order Mark.
+     *
+     * @param content   String data
+     * @return          DataFormat
+     */
+    public static DataFormat sniff(String content) {
+        Validate.notNull(content, "String content cannot be null.");
+
+        if (content.length() > PREFIX_SIZE) {
+            int lineEnd = Math.max(content.lastIndexOf('\n', PREFIX_SIZE), content.lastIndexOf('\r', PREFIX_SIZE));
+            content = content.substring(0, (lineEnd > 0) ? lineEnd : PREFIX_SIZE);
+        }
+        return sniff(content, StandardCharsets.UTF_8, false, null);
+    }
+
+    //**********************************************//
+    //                PRIVATE METHODS               //
+    //**********************************************//
+
+    private static DataFormat sniff(String content, Charset charset, boolean bom, Delimiter delimiter) {
+        try {
+            if (delimiter == null) {
+                delimiter = guessDelimiter(content);
+            }
+            if (delimiter == null) {
+                boolean empty = readLines(content, 1).isEmpty();
+                return new DataFormat(
+                        charset, bom, null, DataTemplate.DEFAULT, 0, Collections.emptyList(), Collections.emptyList(), empty
+                );
+            }
+
+            List<String[]> records = new ArrayList<>();
+            try (RecordReader reader = new DelimitedReader(new StringReader(content), delimiter.asString())) {
+                while (reader.next()) {
+                    records.add(reader.getCells());
+                }
+            }
+            if (records.isEmpty()) {
+                return new DataFormat(
+                        charset, bom, delimiter, DataTemplate.DEFAULT, 0, Collections.emptyList(),
+                        Collections.emptyList(), true
+                );
+            }
+
+            NumberLexer lexer = new NumberLexer();
+            DataTemplate template;
+            int headerRowCount;
+            if (isSquid3Layout(records)) {
+                template = DataTemplate.SQUID_3;
+                headerRowCount = SQUID_3_HEADER_ROWS;
+            } else {
+                template = DataTemplate.DEFAULT;
+                headerRowCount = 0;
+                while (headerRowCount < records.size() && ! lexer.lex(records.get(headerRowCount)[0])) {
+                    headerRowCount++;
+                }
+            }
+
+            List<String[]> sample = records.subList(headerRowCount, records.size());
+            List<String[]> headerRows = records.subList((template == DataTemplate.SQUID_3) ? 1 : 0, headerRowCount);
+            List<Class<?>> columnTypes = new ArrayList<>();
+            List<String> columnTitles = new ArrayList<>();
+            StringJoiner joiner;
+            for (int colIndex = 0; colIndex < records.get(0).length; colIndex++) {
+                columnTypes.add(getColumnType(sample, colIndex, lexer));
+                joiner = new StringJoiner(" ");
+                for (String[] headerRow : headerRows) {
+                    if (colIndex < headerRow.length && ! headerRow[colIndex].isEmpty()) {
+                        joiner.add(headerRow[colIndex]);
+                    }
+                }
+                columnTitles.add(joiner.toString());
+            }
+
+            return new DataFormat(
+                    charset, bom, delimiter, template, headerRowCount, columnTypes, columnTitles, false
+            );
+        } catch (IOException e) {
+            // StringReader only throws if closed
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns up to {@code count} non-blank lines from the beginning of the content.
+     */
+    private static List<String> readLines(String content, int count) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new StringReader(content))) {
+            String line;
+            while (lines.size() < count && (line = reader.readLine()) != null) {
+                if (! line.trim().isEmpty()) {
+                    lines.add(line);
+                }
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Returns the {@code Delimiter} that occurs the same, non-zero number of times in each of the first records of the
+     * content, ignoring any occurrences within quoted cells. If more than one does, the one with the most occurrences
+     * is chosen.
+     */
+    private static Delimiter guessDelimiter(String content) throws IOException {
+        Delimiter best = null;
+        int bestCount = 0;
+        for (Delimiter delim : Delimiter.values()) {
+            int count = -1;
+            try (RecordReader reader = new DelimitedReader(new StringReader(content), delim.asString())) {
+                for (String[] record : reader.lookAhead(DELIMITER_SAMPLE_RECORDS)) {
+                    if (count == -1) {
+                        count = record.length - 1;
+                    } else if (record.length - 1 != count) {
+                        count = 0;
+                        break;
+                    }
+                }
+            }
+            if (count > bestCount) {
+                best = delim;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Tests whether the records follow the layout of a Squid 3 export: four category header rows and a column header
+     * row, followed by a row containing only an aliquot label, followed by a spot whose label begins with that of the
+     * aliquot.
+     */
+    private static boolean isSquid3Layout(List<String[]> records) {
+        if (records.size() < SQUID_3_HEADER_ROWS + 2) {
+            return false;
+        }
+        for (int i = 0; i < SQUID_3_HEADER_ROWS - 1; i++) {
+            if (! records.get(i)[0].isEmpty()) {
+                return false;
+            }
+        }
+        if (records.get(SQUID_3_HEADER_ROWS - 1)[0].isEmpty()) {
+            return false;
+        }
+
+        String[] aliquot = records.get(SQUID_3_HEADER_ROWS);
+        if (aliquot[0].isEmpty()) {
+            return false;
+        }
+        for (int i = 1; i < aliquot.length; i++) {
+            if (! aliquot[i].isEmpty()) {
+                return false;
+            }
+        }
+        String spot = records.get(SQUID_3_HEADER_ROWS + 1)[0];
+        return spot.regionMatches(true, 0, aliquot[0], 0, aliquot[0].length());
+    }
+
+    /**
+     * Identifies the type of a column in the same way as the data parsers, from at most
+     * {@value #COLUMN_TYPE_SAMPLE_SIZE} non-empty values.
+     */
+    private static Class<?> getColumnType(List<String[]> sample, int colIndex, NumberLexer lexer) {
+        int sampled = 0;
+        for (String[] record : sample) {
+            if (sampled >= COLUMN_TYPE_SAMPLE_SIZE) {
+                break;
+            }
+            if (colIndex < record.length && ! record[colIndex].isEmpty()) {
+                if (! lexer.lex(record[colIndex])) {
+                    return String.class;
+                }
+                sampled++;
+            }
+        }
+        return Number.class;
+    }
+
+    private static boolean startsWith(byte[] bytes, int length, int... prefix) {
+        if (length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if ((bytes[i] & 0xFF) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,292 @@
+package org.cirdles.topsoil.file;
+
+import org.apache.commons.lang3.Validate;
+import org.cirdles.topsoil.utils.NumberLexer;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads value-separated records directly from the bytes of a memory-mapped, UTF-8 encoded file.
+ * <p>
+ * Records are split by running a {@link DelimitedTokenizer} over the mapped bytes, so no {@code String} is created for
+ * a line or a cell unless {@link #getString(int)} is called, and quoted cells may contain delimiters, line terminators,
+ * and escaped quotes. Numeric cells read through {@link #getDouble(int)} are
+ * lexed straight from the mapped bytes. A leading UTF-8 Byte Order Mark is skipped.
+ * <p>
+ * Files are mapped in windows of at most 256 MB, so files larger than the 2 GB limit of a single mapping are
+ * supported, provided that no single record is larger than a window.
+ */
+public class MappedRecordReader implements RecordReader {
+
+    private static final long WINDOW_SIZE = 1L << 28;
+    private static final byte[] UTF_8_BOM = new byte[]{ (byte) 0xEF, (byte) 0xBB, (byte) 0xBF };
+
+
+    private final FileChannel channel;
+    private final DelimitedTokenizer tokenizer;
+    // Absolute offset following the last byte read, which is the size of the file unless a range was specified
+    private long limit;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private int windowLimit;
+
+    // Absolute offset of the first byte after the current record
+    private long position;
+
+    private byte[] scratch = new byte[64];
+    private final NumberLexer lexer = new NumberLexer();
+    private final CharSequence cellView = new WindowCharSequence();
+
+    //**********************************************//
+    //                 CONSTRUCTORS                 //
+    //**********************************************//
+
+    public MappedRecordReader(Path path, String delimiter) throws IOException {
+        this(path, delimiter, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * Constructs a new reader over the records in a range of the file, such as those appended since it was last read.
+     * The range should begin at the start of a record; a Byte Order Mark is only skipped if it begins at offset 0.
+     *
+     * @param path          data file Path
+     * @param delimiter     String delimiter
+     * @param start         byte offset of the first record
+     * @param end           byte offset following the last record, which is limited to the size of the file
+     *
+     * @throws IOException  if an I/O error occurs opening the file
+     */
+    public MappedRecordReader(Path path, String delimiter, long start, long end) throws IOException {
+        Validate.notNull(path, "Path cannot be null.");
+        Validate.notEmpty(delimiter, "Delimiter cannot be empty.");
+        Validate.isTrue(start >= 0 && start <= end, "Invalid byte range: " + start + " to " + end + ".");
+
+        // The tokenizer sees each byte as a character, so the delimiter must be expressed the same way
+        this.tokenizer = new DelimitedTokenizer(
+                new String(delimiter.getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1)
+        );
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            limit = Math.min(channel.size(), end);
+            position = start;
+            if (position < limit) {
+                map(position);
+                if (position == 0 && hasUTF8BOM()) {
+                    position = UTF_8_BOM.length;
+                }
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    //**********************************************//
+    //                PUBLIC METHODS                //
+    //**********************************************//
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean next() throws IOException {
+        while (position < limit) {
+            if (scanRecord()) {
+                return true;
+            }
+        }
+        tokenizer.reset();
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getCellCount() {
+        return tokenizer.getCellCount();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getString(int index) {
+        int start = tokenizer.getCellStart(index);
+        int length = tokenizer.getCellEnd(index) - start;
+        if (length == 0) {
+            return "";
+        }
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        window.position(start);
+        window.get(scratch, 0, length);
+        String cell = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        return tokenizer.isEscaped(index) ? DelimitedTokenizer.unescape(cell) : cell;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A cell that is not escaped and contains only ASCII characters is appended directly from the mapped bytes.
+     */
+    @Override
+    public void appendString(int index, StringBuilder out) {
+        int start = tokenizer.getCellStart(index);
+        int end = tokenizer.getCellEnd(index);
+        if (! tokenizer.isEscaped(index)) {
+            int ascii = start;
+            while (ascii < end && window.get(ascii) >= 0) {
+                ascii++;
+            }
+            if (ascii == end) {
+                out.append(cellView, start, end);
+                return;
+            }
+        }
+        out.append(getString(index));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isEmpty(int index) {
+        return tokenizer.getCellStart(index) == tokenizer.getCellEnd(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The value is lexed directly from the mapped bytes with a {@link NumberLexer}.
+     */
+    @Override
+    public double getDouble(int index) {
+        if (! lexer.lex(cellView, tokenizer.getCellStart(index), tokenizer.getCellEnd(index))) {
+            throw new NumberFormatException("For input string: \"" + getString(index) + "\"");
+        }
+        return lexer.doubleValue();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public List<String[]> lookAhead(int count) throws IOException {
+        long mark = position;
+        List<String[]> records = new ArrayList<>();
+        while (records.size() < count && next()) {
+            records.add(getCells());
+        }
+        position = mark;
+        tokenizer.reset();
+        return records;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The position is the byte offset following the current record.
+     */
+    @Override
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The length is the size of the file in bytes, or the end of the range being read.
+     */
+    @Override
+    public long getLength() {
+        return limit;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    //**********************************************//
+    //                PRIVATE METHODS               //
+    //**********************************************//
+
+    private void map(long start) throws IOException {
+        windowStart = start;
+        windowLimit = (int) Math.min(WINDOW_SIZE, limit - start);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, windowLimit);
+    }
+
+    private boolean isLastWindow() {
+        return (windowStart + windowLimit) >= limit;
+    }
+
+    private boolean hasUTF8BOM() {
+        if (windowLimit < UTF_8_BOM.length) {
+            return false;
+        }
+        for (int i = 0; i < UTF_8_BOM.length; i++) {
+            if (window.get(i) != UTF_8_BOM[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Scans the record beginning at {@link #position}, remapping the window if the record crosses its end.
+     *
+     * @return  true if the record is not blank
+     */
+    private boolean scanRecord() throws IOException {
+        if (position < windowStart || position >= windowStart + windowLimit) {
+            map(position);
+        }
+        int next;
+        while ((next = tokenizer.tokenize(cellView, (int) (position - windowStart), windowLimit, isLastWindow())) < 0) {
+            if (position == windowStart) {
+                throw new IOException("Record at byte " + position + " is larger than the maximum record size.");
+            }
+            map(position);
+        }
+        position = windowStart + next;
+        return ! tokenizer.isBlank();
+    }
+
+    //**********************************************//
+    //                INNER CLASSES                 //
+    //**********************************************//
+
+    /**
+     * A view of the mapped window as single-byte characters, indexed relative to the window. Number text is ASCII,
+     * so this is sufficient for lexing numeric cells without decoding them.
+     */
+    private class WindowCharSequence implements CharSequence {
+
+        @Override
+        public int length() {
+            return windowLimit;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (window.get(index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            byte[] bytes = new byte[end - start];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = window.get(start + i);
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String toString() {
+            return subSequence(0, length()).toString();
+        }
+    }
+
+}
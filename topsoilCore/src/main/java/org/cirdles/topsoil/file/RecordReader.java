@@ -0,0 +1,126 @@
+package org.cirdles.topsoil.file;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A forward-only cursor over the records of value-separated data.
+ * <p>
+ * Each call to {@link #next()} advances the cursor to the next non-blank record, whose cells can then be read
+ * individually. Cell values are trimmed of leading and trailing whitespace. Implementations may avoid creating
+ * {@code String}s for cells that are only read through {@link #getDouble(int)}.
+ */
+public interface RecordReader extends Closeable {
+
+    /**
+     * Advances the cursor to the next record.
+     *
+     * @return              true if there is a current record, false if the end of the data has been reached
+     * @throws IOException  if an I/O error occurs
+     */
+    boolean next() throws IOException;
+
+    /**
+     * Returns the number of cells in the current record.
+     *
+     * @return  int cell count
+     */
+    int getCellCount();
+
+    /**
+     * Returns the text of a cell in the current record.
+     *
+     * @param index     cell index
+     * @return          String cell value
+     */
+    String getString(int index);
+
+    /**
+     * Appends the text of a cell in the current record to the provided buffer, as returned by
+     * {@link #getString(int)}. Implementations may avoid creating a {@code String} for the cell.
+     *
+     * @param index     cell index
+     * @param out       StringBuilder to append to
+     */
+    default void appendString(int index, StringBuilder out) {
+        out.append(getString(index));
+    }
+
+    /**
+     * Returns true if a cell in the current record contains no text.
+     *
+     * @param index     cell index
+     * @return          true if empty
+     */
+    boolean isEmpty(int index);
+
+    /**
+     * Parses a cell in the current record as a {@code double}.
+     *
+     * @param index     cell index
+     * @return          double cell value
+     * @throws NumberFormatException    if the cell is not a number
+     */
+    double getDouble(int index);
+
+    /**
+     * Returns up to {@code count} upcoming records as arrays of cells, without consuming them. Fewer than
+     * {@code count} records are returned if the end of the data is reached. The current record must be re-read with
+     * {@link #next()} after calling this method.
+     *
+     * @param count         maximum number of records to look ahead
+     * @return              List of upcoming records
+     * @throws IOException  if an I/O error occurs
+     */
+    List<String[]> lookAhead(int count) throws IOException;
+
+    /**
+     * Returns the approximate amount of input consumed so far, in the same units as {@link #getLength()}.
+     *
+     * @return  long position
+     */
+    long getPosition();
+
+    /**
+     * Returns the total amount of input, or -1 if it is not known.
+     *
+     * @return  long length, or -1
+     */
+    long getLength();
+
+    /**
+     * Returns the cells of the current record as an array of {@code String}s.
+     *
+     * @return  String[] cells
+     */
+    default String[] getCells() {
+        String[] cells = new String[getCellCount()];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = getString(i);
+        }
+        return cells;
+    }
+
+    /**
+     * Returns the next record without consuming it, or null if the end of the data has been reached.
+     *
+     * @return              String[] cells, or null
+     * @throws IOException  if an I/O error occurs
+     */
+    default String[] peek() throws IOException {
+        List<String[]> next = lookAhead(1);
+        return next.isEmpty() ? null : next.get(0);
+    }
+
+    /**
+     * Advances to and returns the cells of the next record, or null if the end of the data has been reached.
+     *
+     * @return              String[] cells, or null
+     * @throws IOException  if an I/O error occurs
+     */
+    default String[] readRecord() throws IOException {
+        return next() ? getCells() : null;
+    }
+
+}
@@ -5,9 +5,13 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -34,12 +38,7 @@ public class TopsoilFileUtils {
      *          if an I/O error occurs opening the file
      */
     public static String[] readLines(Path path) throws IOException {
-        try (UnicodeBOMInputStream uis = new UnicodeBOMInputStream(Files.newInputStream(path));
-             InputStreamReader isr = new InputStreamReader(uis, StandardCharsets.UTF_8);
-             BufferedReader reader = new BufferedReader(isr) ) {
-
-            uis.skipBOM();  // skips UTF Byte Order Mark, if present
-
+        try (BufferedReader reader = newReader(path)) {
             List<String> content = new ArrayList<>();
             reader.lines().forEach(content::add);
 
@@ -49,6 +48,113 @@ public class TopsoilFileUtils {
         }
     }
 
+    /**
+     * Opens a UTF-8 {@code BufferedReader} for a text file, skipping the Unicode Byte Order Mark if one is present.
+     *
+     * @param   path
+     *          the Path to the file to be read
+     *
+     * @return  BufferedReader positioned at the first character of content
+     *
+     * @throws IOException
+     *          if an I/O error occurs opening the file
+     */
+    public static BufferedReader newReader(Path path) throws IOException {
+        UnicodeBOMInputStream uis = new UnicodeBOMInputStream(Files.newInputStream(path));
+        try {
+            uis.skipBOM();  // skips UTF Byte Order Mark, if present
+        } catch (IOException e) {
+            uis.close();
+            throw e;
+        }
+
+        return new BufferedReader(new InputStreamReader(uis, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Opens a {@code RecordReader} over the value-separated records of a text file. UTF-8 files (with or without a Byte
+     * Order Mark) are read from a memory mapping of the file; files marked as UTF-16 or UTF-32 are decoded as a
+     * character stream.
+     *
+     * @param   path
+     *          the Path to the file to be read
+     * @param   delimiter
+     *          String value delimiter
+     *
+     * @return  RecordReader positioned before the first record
+     *
+     * @throws IOException
+     *          if an I/O error occurs opening the file
+     */
+    public static RecordReader openRecordReader(Path path, String delimiter) throws IOException {
+        UnicodeBOMInputStream.BOM bom;
+        try (UnicodeBOMInputStream uis = new UnicodeBOMInputStream(Files.newInputStream(path))) {
+            bom = uis.getBOM();
+        }
+
+        if (bom == UnicodeBOMInputStream.BOM.NONE || bom == UnicodeBOMInputStream.BOM.UTF_8) {
+            return new MappedRecordReader(path, delimiter);
+        }
+
+        Charset charset;
+        if (bom == UnicodeBOMInputStream.BOM.UTF_16_LE) {
+            charset = StandardCharsets.UTF_16LE;
+        } else if (bom == UnicodeBOMInputStream.BOM.UTF_16_BE) {
+            charset = StandardCharsets.UTF_16BE;
+        } else if (bom == UnicodeBOMInputStream.BOM.UTF_32_LE) {
+            charset = Charset.forName("UTF-32LE");
+        } else {
+            charset = Charset.forName("UTF-32BE");
+        }
+        UnicodeBOMInputStream uis = new UnicodeBOMInputStream(Files.newInputStream(path));
+        try {
+            uis.skipBOM();
+        } catch (IOException e) {
+            uis.close();
+            throw e;
+        }
+        return new DelimitedReader(new InputStreamReader(uis, charset), delimiter);
+    }
+
+    /**
+     * Returns the byte offset following the last line terminator within a range of a file, or {@code start} if there is
+     * none. A file that is still being written may end with an incomplete record; reading only up to this offset
+     * leaves that record to be read once it is complete.
+     *
+     * @param path          file Path
+     * @param start         byte offset of the start of the range
+     * @param end           byte offset of the end of the range, which is limited to the size of the file
+     *
+     * @return              long byte offset
+     * @throws IOException  if an I/O error occurs reading the file
+     */
+    public static long findLastRecordEnd(Path path, long start, long end) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(8192);
+            long chunkEnd = Math.min(end, channel.size());
+            long chunkStart;
+            byte b;
+            while (chunkEnd > start) {
+                chunkStart = Math.max(start, chunkEnd - buffer.capacity());
+                buffer.clear();
+                buffer.limit((int) (chunkEnd - chunkStart));
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, chunkStart + buffer.position()) < 0) {
+                        break;
+                    }
+                }
+                for (int i = buffer.position() - 1; i >= 0; i--) {
+                    b = buffer.get(i);
+                    if (b == '\n' || b == '\r') {
+                        return chunkStart + i + 1;
+                    }
+                }
+                chunkEnd = chunkStart;
+            }
+        }
+        return start;
+    }
+
     /**
      * Gets the lines of a {@code String} as an array of {@code String}s.
      *
@@ -62,7 +168,8 @@ public class TopsoilFileUtils {
     }
 
     /**
-     * Splits each string line into a {@code String[]} based on the delimiter provided.
+     * Splits each string line into a {@code String[]} based on the delimiter provided, with a
+     * {@link DelimitedTokenizer}.
      *
      * @param lines         String[]
      * @param delimiter     String delimiter
@@ -70,15 +177,11 @@ public class TopsoilFileUtils {
      * @return              String[][] split lines
      */
     public static String[][] readCells(String[] lines, String delimiter) {
+        DelimitedTokenizer tokenizer = new DelimitedTokenizer(delimiter);
         List<List<String>> splits = new ArrayList<>();
-        List<String> split;
         for (String line : lines) {
-            String[] arr = line.split(delimiter, -1);
-            split = new ArrayList<>();
-            for (String s : arr) {
-                split.add(s.trim());
-            }
-            splits.add(split);
+            tokenizer.tokenize(line, 0, line.length(), true);
+            splits.add(Arrays.asList(tokenizer.getCells(line)));
         }
 
         // Remove empty rows
@@ -107,7 +210,8 @@ public class TopsoilFileUtils {
     }
 
     /**
-     * Identifies the delimiter of the data file at the specified path, or returns null.
+     * Identifies the delimiter of the data file at the specified path, or returns null. Only a prefix of the file is
+     * read; see {@link FormatSniffer}.
      *
      * @param path          data file Path
      *
@@ -116,15 +220,7 @@ public class TopsoilFileUtils {
      * @throws IOException  if file error
      */
     public static Delimiter guessDelimiter(Path path) throws IOException {
-        TableFileExtension ext = getExtension(path);
-        if (ext == TableFileExtension.CSV || ext == TableFileExtension.TSV) {
-            return ext.getDelimiter();
-        }
-
-        final int NUM_LINES = 5;
-        String[] lines = readLines(path);
-
-        return guessDelimiter(Arrays.copyOfRange(lines, 0, Math.min(lines.length, NUM_LINES)));
+        return FormatSniffer.sniff(path).getDelimiter();
     }
 
     /**
@@ -134,10 +230,7 @@ public class TopsoilFileUtils {
      * @return              Delimiter, or null
      */
     public static Delimiter guessDelimiter(String content) {
-        final int NUM_LINES = 5;
-        String[] lines = readLines(content);
-
-        return guessDelimiter(Arrays.copyOfRange(lines, 0, NUM_LINES));
+        return FormatSniffer.sniff(content).getDelimiter();
     }
 
     /**
@@ -0,0 +1,391 @@
+package org.cirdles.topsoil.file.cache;
+
+import org.cirdles.topsoil.data.ColumnarDataRow;
+import org.cirdles.topsoil.data.ColumnarDataTable;
+import org.cirdles.topsoil.data.DataColumn;
+import org.cirdles.topsoil.data.DataRow;
+import org.cirdles.topsoil.data.DataTable;
+import org.cirdles.topsoil.data.DataTemplate;
+import org.cirdles.topsoil.data.SimpleDataColumn;
+import org.cirdles.topsoil.data.SimpleDataRow;
+import org.cirdles.topsoil.data.SimpleDataTable;
+import org.cirdles.topsoil.data.Uncertainty;
+import org.cirdles.topsoil.utils.StringPool;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes {@link DataTable}s in a compact, binary, columnar format.
+ * <p>
+ * A file begins with the {@link TableCache.Fingerprint} of the data file that the table was parsed from, followed by
+ * the table's attributes, its column tree, and its row tree. The values of the leaf rows follow, one leaf column at a
+ * time: a {@code Number} column is stored as an array of doubles, and a {@code String} column as an array of lengths
+ * followed by the UTF-8 bytes of its values. Files are read through a memory mapping.
+ */
+final class ColumnarTableFile {
+
+    //**********************************************//
+    //                  CONSTANTS                   //
+    //**********************************************//
+
+    private static final int MAGIC = 0x54534354;    // "TSCT"
+    // Version 2: empty Number cells are parsed as missing values rather than 0.0
+    private static final int VERSION = 2;
+
+    private static final byte CATEGORY = 0;
+    private static final byte NUMBER = 1;
+    private static final byte STRING = 2;
+
+    private static final byte SELECTED = 1;
+    private static final byte VISIBLE = 2;
+
+    private ColumnarTableFile() {
+        // Prevents instantiation by default constructor
+    }
+
+    //**********************************************//
+    //                PUBLIC METHODS                //
+    //**********************************************//
+
+    /**
+     * Writes a table to the specified file.
+     *
+     * @param file          Path of the file to write
+     * @param fingerprint   Fingerprint of the data file that the table was parsed from
+     * @param table         DataTable
+     *
+     * @throws IOException              if an I/O error occurs writing the file
+     * @throws IllegalArgumentException if a leaf column is of a type other than {@code Number} or {@code String}
+     */
+    static void write(Path file, TableCache.Fingerprint fingerprint, DataTable table) throws IOException {
+        List<? extends DataColumn<?>> leafColumns = table.getLeafColumns();
+        List<? extends DataRow> leafRows = table.getLeafRows();
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            fingerprint.write(out);
+
+            writeString(out, table.getTemplate().name());
+            writeString(out, table.getTitle());
+            writeString(out, table.getUncertainty().name());
+
+            out.writeInt(table.getColumns().size());
+            for (DataColumn<?> column : table.getColumns()) {
+                writeColumn(out, column);
+            }
+            out.writeInt(table.getRows().size());
+            for (DataRow row : table.getRows()) {
+                writeRow(out, row);
+            }
+
+            out.writeInt(leafRows.size());
+            for (DataColumn<?> column : leafColumns) {
+                if (column.getType() == Number.class) {
+                    writeNumbers(out, leafRows, column);
+                } else {
+                    writeStrings(out, leafRows, column);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a table from the specified file, if it was written for a data file with the specified fingerprint.
+     *
+     * @param file          Path of the file to read
+     * @param fingerprint   Fingerprint of the data file being imported
+     * @param columnar      true if the table should be read into a {@link ColumnarDataTable}, rather than a
+     *                      {@link SimpleDataTable}
+     * @param pool          StringPool for {@code String} values, or null
+     *
+     * @return              DataTable, or null if the file was written for a different version of the data file
+     * @throws IOException  if an I/O error occurs, or the file is not in the expected format
+     */
+    static DataTable read(Path file, TableCache.Fingerprint fingerprint, boolean columnar, StringPool pool)
+            throws IOException {
+        ByteBuffer in;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (in.getInt() != MAGIC || in.getInt() != VERSION) {
+            throw new IOException("Unrecognized cache file: " + file);
+        }
+        if (! fingerprint.equals(TableCache.Fingerprint.read(in))) {
+            return null;
+        }
+
+        DataTemplate template = DataTemplate.valueOf(readString(in));
+        String title = readString(in);
+        Uncertainty uncertainty = Uncertainty.valueOf(readString(in));
+
+        List<DataColumn<?>> columns = new ArrayList<>();
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            columns.add(readColumn(in));
+        }
+
+        DataTable table;
+        List<DataRow> leafRows = new ArrayList<>();
+        count = in.getInt();
+        if (columnar) {
+            ColumnarDataTable columnarTable = new ColumnarDataTable(template, title, columns);
+            for (int i = 0; i < count; i++) {
+                columnarTable.getRows().add(readColumnarRow(in, columnarTable, leafRows));
+            }
+            table = columnarTable;
+        } else {
+            List<DataRow> rows = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                rows.add(readRow(in, leafRows));
+            }
+            table = new SimpleDataTable(template, title, columns, rows);
+        }
+        table.setUncertainty(uncertainty);
+
+        if (in.getInt() != leafRows.size()) {
+            throw new IOException("Corrupt cache file: " + file);
+        }
+        List<? extends DataColumn<?>> leafColumns = table.getLeafColumns();
+        for (int i = 0; i < leafColumns.size(); i++) {
+            if (leafColumns.get(i).getType() == Number.class) {
+                readNumbers(in, table, leafRows, i);
+            } else {
+                readStrings(in, table, leafRows, i, pool);
+            }
+        }
+
+        if (columnar) {
+            ((ColumnarDataTable) table).trimToSize();
+        }
+        return table;
+    }
+
+    //**********************************************//
+    //                PRIVATE METHODS               //
+    //**********************************************//
+
+    private static void writeColumn(DataOutputStream out, DataColumn<?> column) throws IOException {
+        List<? extends DataColumn<?>> children = column.getChildren();
+        writeString(out, column.getTitle());
+        out.writeBoolean(column.isSelected());
+        if (! children.isEmpty()) {
+            out.writeByte(CATEGORY);
+        } else if (column.getType() == Number.class) {
+            out.writeByte(NUMBER);
+        } else if (column.getType() == String.class) {
+            out.writeByte(STRING);
+        } else {
+            throw new IllegalArgumentException("Unsupported column type: " + column.getType());
+        }
+        out.writeInt(children.size());
+        for (DataColumn<?> child : children) {
+            writeColumn(out, child);
+        }
+    }
+
+    private static DataColumn<?> readColumn(ByteBuffer in) {
+        String title = readString(in);
+        boolean selected = in.get() != 0;
+        byte kind = in.get();
+        SimpleDataColumn<?>[] children = new SimpleDataColumn<?>[in.getInt()];
+        for (int i = 0; i < children.length; i++) {
+            children[i] = (SimpleDataColumn<?>) readColumn(in);
+        }
+        if (kind == NUMBER) {
+            return new SimpleDataColumn<>(title, selected, 0.0, Number.class);
+        } else if (kind == STRING) {
+            return new SimpleDataColumn<>(title, selected, "", String.class);
+        }
+        return new SimpleDataColumn<>(title, selected, children);
+    }
+
+    private static void writeRow(DataOutputStream out, DataRow row) throws IOException {
+        List<? extends DataRow> children = row.getChildren();
+        writeString(out, row.getTitle());
+        out.writeByte((row.isSelected() ? SELECTED : 0) | (row.isVisible() ? VISIBLE : 0));
+        out.writeInt(children.size());
+        for (DataRow child : children) {
+            writeRow(out, child);
+        }
+    }
+
+    /**
+     * Reads a row and its children, adding any leaf rows to the provided list in order.
+     */
+    private static SimpleDataRow readRow(ByteBuffer in, List<DataRow> leafRows) {
+        String title = readString(in);
+        byte flags = in.get();
+        SimpleDataRow[] children = new SimpleDataRow[in.getInt()];
+        SimpleDataRow row;
+        if (children.length == 0) {
+            row = new SimpleDataRow(title, (flags & SELECTED) != 0);
+            leafRows.add(row);
+        } else {
+            for (int i = 0; i < children.length; i++) {
+                children[i] = readRow(in, leafRows);
+            }
+            row = new SimpleDataRow(title, (flags & SELECTED) != 0, children);
+        }
+        row.setVisible((flags & VISIBLE) != 0);
+        return row;
+    }
+
+    /**
+     * Reads a row and its children into the provided table, adding any leaf rows to the provided list in order.
+     */
+    private static ColumnarDataRow readColumnarRow(ByteBuffer in, ColumnarDataTable table, List<DataRow> leafRows) {
+        ColumnarDataRow row = table.createRow(readString(in));
+        byte flags = in.get();
+        row.setSelected((flags & SELECTED) != 0);
+        row.setVisible((flags & VISIBLE) != 0);
+        int childCount = in.getInt();
+        if (childCount == 0) {
+            leafRows.add(row);
+        }
+        for (int i = 0; i < childCount; i++) {
+            row.addChild(readColumnarRow(in, table, leafRows));
+        }
+        return row;
+    }
+
+    /**
+     * Writes the values of a {@code Number} column as doubles, preceded by a bitmap of the rows that have no value if
+     * there are any.
+     */
+    private static void writeNumbers(DataOutputStream out, List<? extends DataRow> rows, DataColumn<?> column)
+            throws IOException {
+        byte[] missing = new byte[(rows.size() + 7) / 8];
+        boolean anyMissing = false;
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i).getValueForColumn(column) == null) {
+                missing[i >> 3] |= 1 << (i & 7);
+                anyMissing = true;
+            }
+        }
+        out.writeBoolean(anyMissing);
+        if (anyMissing) {
+            out.write(missing);
+        }
+        Object value;
+        for (DataRow row : rows) {
+            value = row.getValueForColumn(column);
+            out.writeDouble((value != null) ? ((Number) value).doubleValue() : Double.NaN);
+        }
+    }
+
+    private static void readNumbers(ByteBuffer in, DataTable table, List<DataRow> rows, int columnIndex) {
+        byte[] missing = null;
+        if (in.get() != 0) {
+            missing = new byte[(rows.size() + 7) / 8];
+            in.get(missing);
+        }
+        double[] values = new double[rows.size()];
+        in.asDoubleBuffer().get(values);
+        in.position(in.position() + values.length * Double.BYTES);
+
+        ColumnarDataTable columnarTable = (table instanceof ColumnarDataTable) ? (ColumnarDataTable) table : null;
+        DataColumn<?> column = table.getLeafColumns().get(columnIndex);
+        for (int i = 0; i < values.length; i++) {
+            if (missing != null && (missing[i >> 3] & (1 << (i & 7))) != 0) {
+                continue;
+            }
+            if (columnarTable != null) {
+                columnarTable.setDouble(((ColumnarDataRow) rows.get(i)).getIndex(), columnIndex, values[i]);
+            } else {
+                setValue(rows.get(i), column, values[i]);
+            }
+        }
+    }
+
+    /**
+     * Writes the values of a {@code String} column as an array of UTF-8 byte lengths, with -1 for rows that have no
+     * value, followed by the bytes of each value.
+     */
+    private static void writeStrings(DataOutputStream out, List<? extends DataRow> rows, DataColumn<?> column)
+            throws IOException {
+        byte[][] values = new byte[rows.size()][];
+        Object value;
+        for (int i = 0; i < values.length; i++) {
+            value = rows.get(i).getValueForColumn(column);
+            values[i] = (value != null) ? value.toString().getBytes(StandardCharsets.UTF_8) : null;
+        }
+        for (byte[] bytes : values) {
+            out.writeInt((bytes != null) ? bytes.length : -1);
+        }
+        for (byte[] bytes : values) {
+            if (bytes != null) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static void readStrings(ByteBuffer in, DataTable table, List<DataRow> rows, int columnIndex,
+                                    StringPool pool) {
+        int[] lengths = new int[rows.size()];
+        in.asIntBuffer().get(lengths);
+        in.position(in.position() + lengths.length * Integer.BYTES);
+
+        ColumnarDataTable columnarTable = (table instanceof ColumnarDataTable) ? (ColumnarDataTable) table : null;
+        DataColumn<?> column = table.getLeafColumns().get(columnIndex);
+        byte[] bytes = new byte[64];
+        String value;
+        for (int i = 0; i < lengths.length; i++) {
+            if (lengths[i] < 0) {
+                continue;
+            }
+            if (bytes.length < lengths[i]) {
+                bytes = new byte[Math.max(lengths[i], bytes.length * 2)];
+            }
+            in.get(bytes, 0, lengths[i]);
+            value = new String(bytes, 0, lengths[i], StandardCharsets.UTF_8);
+            if (pool != null) {
+                value = pool.intern(value);
+            }
+            if (columnarTable != null) {
+                columnarTable.setValue(((ColumnarDataRow) rows.get(i)).getIndex(), columnIndex, value);
+            } else {
+                setValue(rows.get(i), column, value);
+            }
+        }
+    }
+
+    /**
+     * Sets the value of a column for a row, after checking the value against the column's type.
+     */
+    private static <T> void setValue(DataRow row, DataColumn<T> column, Object value) {
+        row.setValueForColumn(column, column.getType().cast(value));
+    }
+
+    private static void writeString(DataOutputStream out, String str) throws IOException {
+        if (str == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,362 @@
+package org.cirdles.topsoil.file.cache;
+
+import org.apache.commons.lang3.Validate;
+import org.cirdles.topsoil.data.ColumnarDataTable;
+import org.cirdles.topsoil.data.DataTable;
+import org.cirdles.topsoil.data.SimpleDataTable;
+import org.cirdles.topsoil.utils.StringPool;
+import org.cirdles.topsoil.utils.TopsoilPersistentState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A cache of tables parsed from data files, so that a file that has not changed since it was last imported can be
+ * loaded without being parsed again.
+ * <p>
+ * Each table is stored in its own file in a compact, binary, columnar format, which is read back through a memory
+ * mapping. Entries are keyed by the path of the data file and by a variant identifying how it was parsed, such as the
+ * parser and delimiter used, and are only used if the data file has the same size, modification time, and content hash
+ * as when the table was stored. Once the total size of the cache exceeds its limit, the least recently used entries
+ * are evicted.
+ * <p>
+ * Failures to read or write the cache are logged and otherwise ignored, so that an import never fails because of it.
+ */
+public class TableCache {
+
+    //**********************************************//
+    //                  CONSTANTS                   //
+    //**********************************************//
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TableCache.class);
+
+    /**
+     * The name of the directory of the default cache, within the Topsoil user data directory.
+     */
+    public static final String DIRECTORY_NAME = "ImportCache";
+
+    /**
+     * The maximum total size in bytes of the default cache.
+     */
+    public static final long DEFAULT_MAX_SIZE = 1L << 30;
+
+    private static final String ENTRY_EXTENSION = ".tct";
+
+    private static TableCache defaultCache;
+
+    //**********************************************//
+    //                  ATTRIBUTES                  //
+    //**********************************************//
+
+    private final Path directory;
+    private final long maxSize;
+
+    //**********************************************//
+    //                 CONSTRUCTORS                 //
+    //**********************************************//
+
+    /**
+     * Constructs a new cache in the specified directory, which is created when the first entry is stored.
+     *
+     * @param directory     Path of the cache directory
+     * @param maxSize       maximum total size of the cache in bytes
+     */
+    public TableCache(Path directory, long maxSize) {
+        Validate.notNull(directory, "Directory cannot be null.");
+        Validate.isTrue(maxSize > 0, "Maximum size must be positive.");
+
+        this.directory = directory;
+        this.maxSize = maxSize;
+    }
+
+    //**********************************************//
+    //                PUBLIC METHODS                //
+    //**********************************************//
+
+    /**
+     * Returns the cache shared by the application, located in the Topsoil user data directory.
+     *
+     * @return  TableCache
+     */
+    public static synchronized TableCache getDefault() {
+        if (defaultCache == null) {
+            defaultCache = new TableCache(
+                    TopsoilPersistentState.getTopsoilUserData().resolve(DIRECTORY_NAME),
+                    DEFAULT_MAX_SIZE
+            );
+        }
+        return defaultCache;
+    }
+
+    /**
+     * Returns the cache entry for a data file, as parsed in the specified way. The data file is fingerprinted when
+     * this method is called, so the entry should be obtained before the file is parsed.
+     *
+     * @param path          data file Path
+     * @param variant       String identifying how the file is parsed
+     *
+     * @return              Entry
+     * @throws IOException  if the data file cannot be read
+     */
+    public Entry getEntry(Path path, String variant) throws IOException {
+        Validate.notNull(path, "Path cannot be null.");
+        Validate.notNull(variant, "Variant cannot be null.");
+
+        Path absolutePath = path.toAbsolutePath().normalize();
+        String name = toHex(sha1((absolutePath.toString() + "\n" + variant).getBytes(StandardCharsets.UTF_8)));
+        return new Entry(directory.resolve(name + ENTRY_EXTENSION), Fingerprint.of(absolutePath));
+    }
+
+    /**
+     * Deletes the least recently used entries until the total size of the cache is within its limit.
+     */
+    public synchronized void evict() {
+        if (! Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> entries = new ArrayList<>();
+        List<BasicFileAttributes> attributes = new ArrayList<>();
+        long totalSize = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + ENTRY_EXTENSION)) {
+            BasicFileAttributes attrs;
+            for (Path entry : stream) {
+                attrs = Files.readAttributes(entry, BasicFileAttributes.class);
+                entries.add(entry);
+                attributes.add(attrs);
+                totalSize += attrs.size();
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Unable to read import cache directory.", e);
+            return;
+        }
+
+        Integer[] order = new Integer[entries.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(i -> attributes.get(i).lastModifiedTime()));
+        for (int i = 0; i < order.length && totalSize > maxSize; i++) {
+            try {
+                Files.deleteIfExists(entries.get(order[i]));
+                totalSize -= attributes.get(order[i]).size();
+            } catch (IOException e) {
+                LOGGER.warn("Unable to evict import cache entry: " + entries.get(order[i]), e);
+            }
+        }
+    }
+
+    //**********************************************//
+    //                PRIVATE METHODS               //
+    //**********************************************//
+
+    private static byte[] sha1(byte[] bytes) {
+        MessageDigest digest = newDigest();
+        return digest.digest(bytes);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-1
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    //**********************************************//
+    //                INNER CLASSES                 //
+    //**********************************************//
+
+    /**
+     * The cached table for a data file, as it was when the entry was obtained.
+     */
+    public class Entry {
+
+        private final Path file;
+        private final Fingerprint fingerprint;
+
+        private Entry(Path file, Fingerprint fingerprint) {
+            this.file = file;
+            this.fingerprint = fingerprint;
+        }
+
+        /**
+         * Loads the cached table, if there is one for the data file as it was when the entry was obtained.
+         *
+         * @return  DataTable, or null if there is none
+         */
+        public DataTable load() {
+            return load(false, null);
+        }
+
+        /**
+         * Loads the cached table, if there is one for the data file as it was when the entry was obtained, into a
+         * {@link ColumnarDataTable} if {@code columnar} is true, or a {@link SimpleDataTable} otherwise.
+         *
+         * @param columnar  true if the table should be stored by column
+         * @param pool      StringPool for loaded values, or null
+         *
+         * @return          DataTable, or null if there is none
+         */
+        public DataTable load(boolean columnar, StringPool pool) {
+            if (! Files.isRegularFile(file)) {
+                return null;
+            }
+            try {
+                DataTable table = ColumnarTableFile.read(file, fingerprint, columnar, pool);
+                if (table == null) {
+                    Files.deleteIfExists(file);     // the data file has changed
+                } else {
+                    Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+                }
+                return table;
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("Unable to load import cache entry: " + file, e);
+                delete();
+                return null;
+            }
+        }
+
+        /**
+         * Stores a table parsed from the data file, then evicts entries if the cache has grown too large.
+         *
+         * @param table DataTable
+         */
+        public void store(DataTable table) {
+            Path temp = null;
+            try {
+                Files.createDirectories(directory);
+                temp = Files.createTempFile(directory, "entry", ".tmp");
+                ColumnarTableFile.write(temp, fingerprint, table);
+                if (Files.size(temp) > Integer.MAX_VALUE) {
+                    return;     // too large to be mapped
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("Unable to store import cache entry: " + file, e);
+            } finally {
+                if (temp != null) {
+                    try {
+                        Files.deleteIfExists(temp);
+                    } catch (IOException e) {
+                        LOGGER.warn("Unable to delete temporary file: " + temp, e);
+                    }
+                }
+            }
+            evict();
+        }
+
+        private void delete() {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                LOGGER.warn("Unable to delete import cache entry: " + file, e);
+            }
+        }
+    }
+
+    /**
+     * Identifies the version of a data file by its size, modification time, and a hash of its content.
+     * <p>
+     * So that fingerprinting takes the same time regardless of the size of the file, only up to three blocks of
+     * {@value #SAMPLE_SIZE} bytes are hashed: from the beginning, middle, and end of the file. Together with the size
+     * and modification time, this identifies any file that has been rewritten or appended to.
+     */
+    static final class Fingerprint {
+
+        static final int SAMPLE_SIZE = 64 * 1024;
+
+        private final long size;
+        private final long modified;
+        private final byte[] hash;
+
+        private Fingerprint(long size, long modified, byte[] hash) {
+            this.size = size;
+            this.modified = modified;
+            this.hash = hash;
+        }
+
+        static Fingerprint of(Path path) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = channel.size();
+                MessageDigest digest = newDigest();
+                ByteBuffer buffer = ByteBuffer.allocate(SAMPLE_SIZE);
+                long[] offsets = (size <= 3L * SAMPLE_SIZE) ?
+                        new long[]{ 0 } :
+                        new long[]{ 0, (size - SAMPLE_SIZE) / 2, size - SAMPLE_SIZE };
+                for (long offset : offsets) {
+                    long position = offset;
+                    long end = Math.min(size, offset + ((offsets.length == 1) ? size : SAMPLE_SIZE));
+                    while (position < end) {
+                        buffer.clear();
+                        buffer.limit((int) Math.min(buffer.capacity(), end - position));
+                        int read = channel.read(buffer, position);
+                        if (read < 0) {
+                            break;
+                        }
+                        buffer.flip();
+                        digest.update(buffer);
+                        position += read;
+                    }
+                }
+                return new Fingerprint(size, Files.getLastModifiedTime(path).toMillis(), digest.digest());
+            }
+        }
+
+        static Fingerprint read(ByteBuffer in) {
+            long size = in.getLong();
+            long modified = in.getLong();
+            byte[] hash = new byte[in.getInt()];
+            in.get(hash);
+            return new Fingerprint(size, modified, hash);
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeLong(size);
+            out.writeLong(modified);
+            out.writeInt(hash.length);
+            out.write(hash);
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (! (object instanceof Fingerprint)) {
+                return false;
+            }
+            Fingerprint other = (Fingerprint) object;
+            return size == other.size && modified == other.modified && Arrays.equals(hash, other.hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(hash);
+        }
+    }
+
+}
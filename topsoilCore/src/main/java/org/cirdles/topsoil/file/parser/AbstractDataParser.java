@@ -1,16 +1,29 @@
 package org.cirdles.topsoil.file.parser;
 
 import org.apache.commons.lang3.Validate;
+import org.cirdles.topsoil.data.ColumnarDataRow;
+import org.cirdles.topsoil.data.ColumnarDataTable;
 import org.cirdles.topsoil.data.DataColumn;
 import org.cirdles.topsoil.data.DataRow;
 import org.cirdles.topsoil.data.DataTable;
+import org.cirdles.topsoil.data.LazyDataRow;
+import org.cirdles.topsoil.data.LazyDataTable;
 import org.cirdles.topsoil.data.SimpleDataRow;
+import org.cirdles.topsoil.file.DelimitedReader;
+import org.cirdles.topsoil.file.RecordReader;
 import org.cirdles.topsoil.file.TopsoilFileUtils;
+import org.cirdles.topsoil.file.cache.TableCache;
+import org.cirdles.topsoil.utils.NumberLexer;
+import org.cirdles.topsoil.utils.StringPool;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
+import java.util.BitSet;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.concurrent.CancellationException;
 
 /**
  * Defines behavior for parsing value-separated data into a {@link DataTable}.
@@ -19,19 +32,98 @@ import java.util.regex.Pattern;
  */
 public abstract class AbstractDataParser implements DataParser {
 
+    /**
+     * The maximum number of data records buffered ahead of the stream in order to identify column data types.
+     */
+    protected static final int TYPE_SAMPLE_SIZE = 64;
+
+    /**
+     * The number of data rows read between progress updates.
+     */
+    protected static final int PROGRESS_INTERVAL = 1024;
+
+    private ParseMonitor monitor;
+    private TableCache cache;
+    private BitSet projection;
+    private boolean lazy;
+    private boolean columnar;
+    private StringPool pool;
+
+    // Used by the parsing thread to check header and sample cells
+    private final NumberLexer lexer = new NumberLexer();
+
+    /** {@inheritDoc} */
+    @Override
+    public void setParseMonitor(ParseMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setTableCache(TableCache cache) {
+        this.cache = cache;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setColumnProjection(BitSet cellIndices) {
+        this.projection = (cellIndices != null) ? (BitSet) cellIndices.clone() : null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setLazyDecoding(boolean lazy) {
+        this.lazy = lazy;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setColumnarStorage(boolean columnar) {
+        this.columnar = columnar;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setStringPool(StringPool pool) {
+        this.pool = pool;
+    }
+
     /** {@inheritDoc} */
     @Override
     public final DataTable parseDataTable(Path path, String delimiter, String label) throws IOException {
         Validate.notNull(path, "Path cannot be null.");
         Validate.notNull(delimiter, "Delimiter cannot be null.");
 
-        String[] lines = TopsoilFileUtils.readLines(path);
-        String[][] cells = TopsoilFileUtils.readCells(lines, delimiter);
         if (label == null) {
             Path fileName = path.getFileName();
             label = (fileName != null) ? fileName.toString() : path.toString();
         }
-        return parseDataTable(cells, label);
+        try {
+            // Entries are distinguished by parser, delimiter, and projection, since each changes the resulting table.
+            // The storage of the table does not, since an entry can be loaded into either kind of table; lazy tables
+            // are not cached, since loading an entry would decode every value.
+            TableCache.Entry entry = (cache != null && ! lazy) ?
+                    cache.getEntry(
+                            path,
+                            getClass().getName() + "\n" + delimiter + ((projection != null) ? "\n" + projection : "")
+                    ) :
+                    null;
+            DataTable table = (entry != null) ? entry.load(isColumnarStorage(), pool) : null;
+            if (table != null) {
+                table.setTitle(label);
+                return table;
+            }
+
+            try (RecordReader records = TopsoilFileUtils.openRecordReader(path, delimiter)) {
+                table = parseDataTable(records, label);
+            }
+            if (entry != null) {
+                entry.store(table);
+            }
+            return table;
+        } catch (IOException e) {
+            throw new IOException("Unable to read file at path: " + path.toString() + ".", e);
+        }
     }
 
     /** {@inheritDoc} */
@@ -44,118 +136,251 @@ public abstract class AbstractDataParser implements DataParser {
             label = "DataFromClipboard";
         }
 
-        String[][] cells = TopsoilFileUtils.readCells(TopsoilFileUtils.readLines(content), delimiter);
-        return parseDataTable(cells, label);
+        try {
+            return parseDataTable(new DelimitedReader(new StringReader(content), delimiter, content.length()), label);
+        } catch (IOException e) {
+            // StringReader only throws if closed
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final DataTable parseDataTable(Reader reader, String delimiter, String label) throws IOException {
+        Validate.notNull(reader, "Reader cannot be null.");
+        Validate.notNull(delimiter, "Delimiter cannot be null.");
+
+        return parseDataTable(new DelimitedReader(reader, delimiter), label);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Implementations should consume records one at a time, so that only the current record and the resulting table
+     * need to be held in memory.
+     */
+    @Override
+    public abstract DataTable parseDataTable(RecordReader records, String label) throws IOException;
+
+    /**
+     * Reports the progress of the current parse to the {@code ParseMonitor}, if there is one. Implementations should
+     * call this at least every {@link #PROGRESS_INTERVAL} rows.
+     *
+     * @param records   RecordReader being parsed
+     * @param rowsRead  number of data rows read so far
+     *
+     * @throws CancellationException    if the monitor has cancelled the parse
+     */
+    protected final void reportProgress(RecordReader records, long rowsRead) {
+        if (monitor != null) {
+            if (monitor.isCancelled()) {
+                throw new CancellationException("Parse cancelled.");
+            }
+            monitor.updateProgress(rowsRead, records.getPosition(), records.getLength());
+        }
+    }
+
+    /**
+     * Returns true if values should be kept as text and decoded when read, in which case implementations should
+     * return a {@link LazyDataTable} with rows created by {@link #getLazyTableRow(String, RecordReader, int[],
+     * LazyDataTable)}.
+     *
+     * @return  true if lazy
+     */
+    protected final boolean isLazyDecoding() {
+        return lazy;
+    }
+
+    /**
+     * Returns true if values should be stored by column, in which case implementations should return a
+     * {@link ColumnarDataTable} with rows created by {@link #getColumnarTableRow(String, RecordReader, int[],
+     * ColumnarDataTable)}. Always false if {@link #isLazyDecoding()} is true.
+     *
+     * @return  true if columnar
+     */
+    protected final boolean isColumnarStorage() {
+        return columnar && ! lazy;
+    }
+
+    /**
+     * Returns the indices of the cells in the range {@code [from, to)} that are included in the current column
+     * projection, in ascending order. If there is no projection, every index in the range is returned.
+     *
+     * @param from  first cell index, inclusive
+     * @param to    last cell index, exclusive
+     *
+     * @return      int[] cell indices
+     */
+    protected final int[] getProjectedCells(int from, int to) {
+        if (projection == null) {
+            int[] cells = new int[Math.max(0, to - from)];
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = from + i;
+            }
+            return cells;
+        }
+        return projection.get(from, Math.max(from, to)).stream().map(i -> from + i).toArray();
+    }
+
+    /**
+     * Returns the indices of the first {@code count} cells included in the current column projection, in ascending
+     * order, such as the cells holding the values of the {@code count} leaf columns of a table parsed with the same
+     * projection. If there is no projection, the first {@code count} indices are returned.
+     *
+     * @param count     number of cell indices
+     * @return          int[] cell indices
+     *
+     * @throws IllegalArgumentException if the projection includes fewer than {@code count} cells
+     */
+    protected final int[] getProjectedCells(int count) {
+        if (projection == null) {
+            return getProjectedCells(0, count);
+        }
+        int[] cells = projection.stream().limit(count).toArray();
+        Validate.isTrue(cells.length == count, "Column projection does not include " + count + " cells.");
+        return cells;
+    }
+
+    /**
+     * Returns the pooled instance of the provided {@code String} value, if there is a {@code StringPool}.
+     *
+     * @param value String value
+     * @return      pooled String, or {@code value} if there is no pool
+     */
+    protected final String pooled(String value) {
+        return (pool != null) ? pool.intern(value) : value;
     }
 
-    protected abstract DataTable parseDataTable(String[][] cells, String label);
+    /**
+     * Returns true if the provided text is a number. This method reuses a single {@code NumberLexer}, so it should only
+     * be called by the thread parsing the records, not by any workers it forks.
+     *
+     * @param text  String text
+     * @return      true if text is a number
+     */
+    protected final boolean isNumber(String text) {
+        return lexer.lex(text);
+    }
 
     /**
-     * Identifies the data type of a column of values in the provided data. Currently, only {@code Number} and
-     * {@code String} columns are supported; this method defaults to {@code String}.
+     * Identifies the data type of a column of values in the provided sample of data records. Currently, only
+     * {@code Number} and {@code String} columns are supported; this method defaults to {@code String}.
      *
-     * @param rows          String[][] data
+     * @param sample        List of String[] data records
      * @param colIndex      column index
-     * @param numHeaderRows number of header rows in the data
      *
      * @return              Class of column type
      */
-    protected final Class getColumnDataType(String[][] rows, int colIndex, int numHeaderRows) {
-        final int SAMPLE_SIZE = Math.min(5, rows.length - numHeaderRows);
+    protected final Class getColumnDataType(List<String[]> sample, int colIndex) {
+        final int SAMPLE_SIZE = Math.min(5, sample.size());
         boolean isDouble = true;
-        int i = numHeaderRows;
         int sampled = 0;
-        while (i < rows.length && sampled < SAMPLE_SIZE) {
-            if (colIndex < rows[i].length && !rows[i][colIndex].trim().isEmpty()) {
-                if (! isDouble(rows[i][colIndex])) {
+        for (String[] record : sample) {
+            if (sampled >= SAMPLE_SIZE) {
+                break;
+            }
+            if (colIndex < record.length && !record[colIndex].trim().isEmpty()) {
+                if (! lexer.lex(record[colIndex])) {
                     isDouble = false;
                     break;
                 } else {
                     sampled++;
                 }
             }
-            i++;
         }
         return isDouble ? Number.class : String.class;
     }
 
     /**
-     * Parses a {@code DataRow} from the provided {@code String[]} row, given the provided columns.
+     * Parses a {@code DataRow} from the current record of the provided {@code RecordReader}, given the provided
+     * columns and the index of the cell holding the value for each. Number cells are read with
+     * {@link RecordReader#getDouble(int)}, so that no {@code String} is created for them; cells that are not read are
+     * never decoded. A row has no value for a {@code Number} column whose cell is empty.
      *
      * @param label     String row label
-     * @param row       String[] row values
+     * @param record    RecordReader positioned at the row's record
+     * @param cells     index of the cell holding the value for each column
      * @param columns   List of table columns
      *
      * @return          DataRow with assigned values
      */
-    protected DataRow getTableRow(String label, String[] row, List<DataColumn<?>> columns) {
+    protected DataRow getTableRow(String label, RecordReader record, int[] cells, List<DataColumn<?>> columns) {
         DataRow newRow = new SimpleDataRow(label);
+        final int cellCount = record.getCellCount();
         DataColumn<?> col;
-        String str;
+        int cellIndex;
         for (int colIndex = 0; colIndex < columns.size(); colIndex++) {
-            str = (colIndex < row.length) ? row[colIndex] : "";
+            cellIndex = cells[colIndex];
             col = columns.get(colIndex);
 
             if (col.getType() == Number.class) {
-                DataColumn<Number> doubleCol = (DataColumn<Number>) col;
-                newRow.setValueForColumn(doubleCol, (! str.isEmpty()) ? Double.parseDouble(str) : 0.0);
+                // Empty cells are left without a value, rather than given a value that could be mistaken for data
+                if (cellIndex < cellCount && ! record.isEmpty(cellIndex)) {
+                    newRow.setValueForColumn((DataColumn<Number>) col, record.getDouble(cellIndex));
+                }
             } else {
                 DataColumn<String> stringCol = (DataColumn<String>) col;
-                newRow.setValueForColumn(stringCol, str);
+                newRow.setValueForColumn(stringCol, (cellIndex < cellCount) ? pooled(record.getString(cellIndex)) : "");
             }
         }
         return newRow;
     }
 
     /**
-     * Code taken from the documentation for {@code Double.valueOf(String s)}. Checks that a given {@code Stirng} can be
-     * parsed into a {@code Double}.
+     * Creates a {@code LazyDataRow} from the current record of the provided {@code RecordReader}, by appending the text
+     * of the cell for each leaf column of the table to the table's text buffer. No cell is decoded. The row is not
+     * added to the table.
      *
-     * @param   string
-     *          the String to check
+     * @param label     String row label
+     * @param record    RecordReader positioned at the row's record
+     * @param cells     index of the cell holding the value for each leaf column
+     * @param table     LazyDataTable the row belongs to
      *
-     * @return  true if the String can be parsed into a Double
+     * @return          LazyDataRow
      */
-    protected final boolean isDouble(String string) {
-        final String Digits     = "(\\p{Digit}+)";
-        final String HexDigits  = "(\\p{XDigit}+)";
-        // an exponent is 'e' or 'E' followed by an optionally
-        // signed decimal integer.
-        final String Exp        = "[eE][+-]?"+Digits;
-        final String fpRegex    =
-                ("[\\x00-\\x20]*"+  // Optional leading "whitespace"
-                        "[+-]?(" + // Optional sign character
-                        "NaN|" +           // "NaN" string
-                        "Infinity|" +      // "Infinity" string
-
-                        // A decimal floating-point string representing a finite positive
-                        // number without a leading sign has at most five basic pieces:
-                        // Digits . Digits ExponentPart FloatTypeSuffix
-                        //
-                        // Since this method allows integer-only strings as input
-                        // in addition to strings of floating-point literals, the
-                        // two sub-patterns below are simplifications of the grammar
-                        // productions from section 3.10.2 of
-                        // The Java Language Specification.
-
-                        // Digits ._opt Digits_opt ExponentPart_opt FloatTypeSuffix_opt
-                        "(((" + Digits + "(\\.)?(" + Digits + "?)(" + Exp + ")?)|"+
-
-                        // . Digits ExponentPart_opt FloatTypeSuffix_opt
-                        "(\\." + Digits + "(" + Exp + ")?)|" +
-
-                        // Hexadecimal strings
-                        "((" +
-                        // 0[xX] HexDigits ._opt BinaryExponent FloatTypeSuffix_opt
-                        "(0[xX]" + HexDigits + "(\\.)?)|" +
-
-                        // 0[xX] HexDigits_opt . HexDigits BinaryExponent FloatTypeSuffix_opt
-                        "(0[xX]" + HexDigits + "?(\\.)" + HexDigits + ")" +
-
-                        ")[pP][+-]?" + Digits + "))" +
-                        "[fFdD]?))" +
-                        "[\\x00-\\x20]*");// Optional trailing "whitespace"
-
-        return Pattern.matches(fpRegex, string);
+    protected LazyDataRow getLazyTableRow(String label, RecordReader record, int[] cells, LazyDataTable table) {
+        StringBuilder text = table.getText();
+        final int cellCount = record.getCellCount();
+        int[] bounds = new int[cells.length + 1];
+        bounds[0] = text.length();
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] < cellCount) {
+                record.appendString(cells[i], text);
+            }
+            bounds[i + 1] = text.length();
+        }
+        return table.createRow(label, bounds);
+    }
+
+    /**
+     * Creates a {@code ColumnarDataRow} from the current record of the provided {@code RecordReader}, by writing the
+     * value of the cell for each leaf column of the table directly into the table's arrays. Values are read in the same
+     * way as by {@link #getTableRow(String, RecordReader, int[], List)}. The row is not added to the table.
+     *
+     * @param label     String row label
+     * @param record    RecordReader positioned at the row's record
+     * @param cells     index of the cell holding the value for each leaf column
+     * @param table     ColumnarDataTable the row belongs to
+     *
+     * @return          ColumnarDataRow
+     */
+    protected ColumnarDataRow getColumnarTableRow(String label, RecordReader record, int[] cells,
+                                                  ColumnarDataTable table) {
+        ColumnarDataRow newRow = table.createRow(label);
+        List<DataColumn<?>> columns = table.getLeafColumns();
+        final int rowIndex = newRow.getIndex();
+        final int cellCount = record.getCellCount();
+        int cellIndex;
+        for (int colIndex = 0; colIndex < columns.size(); colIndex++) {
+            cellIndex = cells[colIndex];
+            if (columns.get(colIndex).getType() == Number.class) {
+                if (cellIndex < cellCount && ! record.isEmpty(cellIndex)) {
+                    table.setDouble(rowIndex, colIndex, record.getDouble(cellIndex));
+                }
+            } else {
+                table.setValue(rowIndex, colIndex, (cellIndex < cellCount) ? pooled(record.getString(cellIndex)) : "");
+            }
+        }
+        return newRow;
     }
 }
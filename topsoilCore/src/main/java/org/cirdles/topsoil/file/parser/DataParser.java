@@ -1,9 +1,14 @@
 package org.cirdles.topsoil.file.parser;
 
 import org.cirdles.topsoil.data.DataTable;
+import org.cirdles.topsoil.file.RecordReader;
+import org.cirdles.topsoil.file.cache.TableCache;
+import org.cirdles.topsoil.utils.StringPool;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.nio.file.Path;
+import java.util.BitSet;
 
 /**
  * Provides methods for parsing value-separated data into a {@link DataTable}.
@@ -16,6 +21,79 @@ public interface DataParser {
 
     DataTable parseDataTable(String content, String delimiter, String label);
 
+    /**
+     * Parses a {@code DataTable} from a character stream, one record at a time. The reader is not closed.
+     *
+     * @param reader        Reader of value-separated data
+     * @param delimiter     String delimiter
+     * @param label         String table label
+     *
+     * @return              DataTable
+     * @throws IOException  if an I/O error occurs while reading
+     */
+    DataTable parseDataTable(Reader reader, String delimiter, String label) throws IOException;
+
+    /**
+     * Parses a {@code DataTable} from a stream of records. The reader is not closed.
+     *
+     * @param records       RecordReader of value-separated records
+     * @param label         String table label
+     *
+     * @return              DataTable
+     * @throws IOException  if an I/O error occurs while reading
+     */
+    DataTable parseDataTable(RecordReader records, String label) throws IOException;
+
+    /**
+     * Sets the {@code ParseMonitor} notified of the progress of subsequent parses, or null for none.
+     *
+     * @param monitor   ParseMonitor
+     */
+    void setParseMonitor(ParseMonitor monitor);
+
+    /**
+     * Sets the {@code TableCache} consulted when parsing files, or null for none. A file that has not changed since its
+     * table was stored in the cache is loaded from the cache instead of being parsed.
+     *
+     * @param cache     TableCache
+     */
+    void setTableCache(TableCache cache);
+
+    /**
+     * Sets the indices of the cells that subsequent parses should read into columns, or null to read every cell.
+     * Cells outside of the projection are skipped without being decoded or typed, although the titles of the
+     * remaining columns are the same as if every cell had been read. A template's row label cells are always read.
+     *
+     * @param cellIndices   BitSet of cell indices
+     */
+    void setColumnProjection(BitSet cellIndices);
+
+    /**
+     * Sets whether subsequent parses should keep the text of each cell and only decode it when it is read, in which
+     * case tables are returned as {@link org.cirdles.topsoil.data.LazyDataTable}s. Such tables are not stored in the
+     * {@code TableCache}, since storing them would decode every value.
+     *
+     * @param lazy  true if values should be decoded lazily
+     */
+    void setLazyDecoding(boolean lazy);
+
+    /**
+     * Sets whether subsequent parses should store the values of tables by column in primitive arrays, in which case
+     * tables are returned as {@link org.cirdles.topsoil.data.ColumnarDataTable}s. Lazy decoding, if set, takes
+     * precedence.
+     *
+     * @param columnar  true if values should be stored by column
+     */
+    void setColumnarStorage(boolean columnar);
+
+    /**
+     * Sets the {@code StringPool} that the {@code String} values of subsequent parses are pooled in, or null for none.
+     * Values repeated within and across tables, such as flags and comments, are then held only once.
+     *
+     * @param pool  StringPool
+     */
+    void setStringPool(StringPool pool);
+
     default boolean isParseableString(String content, String delimiter) {
         // TODO something more sophisticated
         return content.contains(delimiter);
@@ -1,17 +1,27 @@
 package org.cirdles.topsoil.file.parser;
 
+import org.apache.commons.lang3.Validate;
+import org.cirdles.topsoil.data.ColumnarDataTable;
 import org.cirdles.topsoil.data.DataColumn;
 import org.cirdles.topsoil.data.DataRow;
 import org.cirdles.topsoil.data.DataTemplate;
+import org.cirdles.topsoil.data.LazyDataTable;
 import org.cirdles.topsoil.data.SimpleDataColumn;
 import org.cirdles.topsoil.data.DataTable;
+import org.cirdles.topsoil.data.SimpleDataRow;
 import org.cirdles.topsoil.data.SimpleDataTable;
+import org.cirdles.topsoil.file.RecordReader;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.StringJoiner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Parses value-separated data into a {@link DataTable}.
@@ -23,47 +33,236 @@ import java.util.StringJoiner;
  */
 public class DefaultDataParser extends AbstractDataParser {
 
+    /**
+     * The number of records tokenized into each batch of rows when materializing rows in parallel.
+     */
+    private static final int BATCH_SIZE = 8192;
+
+    /**
+     * The number of rows below which a batch is materialized by a single thread.
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 1024;
+
+    //**********************************************//
+    //                  ATTRIBUTES                  //
+    //**********************************************//
+
+    private final boolean parallel;
+
+    //**********************************************//
+    //                 CONSTRUCTORS                 //
+    //**********************************************//
+
+    public DefaultDataParser() {
+        this(true);
+    }
+
+    /**
+     * Constructs a new parser.
+     * <p>
+     * In parallel mode, records are tokenized in batches, and the rows of each batch are materialized on the common
+     * {@link ForkJoinPool} while the next batch is read. Row order and labels are the same in either mode. Tables
+     * that are decoded lazily are always read sequentially, since there are no values to materialize.
+     *
+     * @param parallel  true if rows should be materialized in parallel
+     */
+    public DefaultDataParser(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    //**********************************************//
+    //                PUBLIC METHODS                //
+    //**********************************************//
+
     /** {@inheritDoc} */
     @Override
-    protected DataTable parseDataTable(String[][] rows, String label) {
-        int startIndex = countHeaderRows(rows);
-        List<DataColumn<?>> columns = parseColumns(rows, startIndex);
-        List<DataRow> dataRows = new ArrayList<>();
-        DataRow row;
-        for (int rowIndex = startIndex; rowIndex < rows.length; rowIndex++) {
-            row = getTableRow(
-                    "row" + (rowIndex - startIndex + 1),
-                    rows[rowIndex],
-                    columns
-            );
-            row.setSelected(true);
-            dataRows.add(row);
+    public DataTable parseDataTable(RecordReader records, String label) throws IOException {
+        List<String[]> headerRows = readHeaderRows(records);
+        List<String[]> sample = records.lookAhead(TYPE_SAMPLE_SIZE);
+        if (headerRows.isEmpty() && sample.isEmpty()) {
+            return new SimpleDataTable(DataTemplate.DEFAULT, label);
         }
 
+        int numColumns = (! headerRows.isEmpty()) ? headerRows.get(0).length : sample.get(0).length;
+        int[] cells = getProjectedCells(0, numColumns);
+        List<DataColumn<?>> columns = parseColumns(headerRows, sample, numColumns, cells);
+        if (isLazyDecoding()) {
+            LazyDataTable table = new LazyDataTable(DataTemplate.DEFAULT, label, columns);
+            table.getRows().addAll(readRows(records, columns, cells, 0, table));
+            table.trimToSize();
+            reportProgress(records, table.getRows().size());
+            return table;
+        }
+        if (isColumnarStorage()) {
+            ColumnarDataTable table = new ColumnarDataTable(DataTemplate.DEFAULT, label, columns);
+            table.getRows().addAll(readRows(records, columns, cells, 0, table));
+            table.trimToSize();
+            reportProgress(records, table.getRows().size());
+            return table;
+        }
+        List<DataRow> dataRows = parallel ?
+                readRowsInParallel(records, columns, cells) :
+                readRows(records, columns, cells, 0, null);
+        reportProgress(records, dataRows.size());
+
         return new SimpleDataTable(DataTemplate.DEFAULT, label, columns, dataRows);
     }
 
+    /**
+     * Parses the remaining records of the stream as rows of a table that has already been parsed, such as records that
+     * have been appended to its data file since. No header rows are expected; each record is read into the provided
+     * columns, and the rows are labeled in sequence following the table's existing rows. The parser's column
+     * projection, if any, must be the one that the table was parsed with.
+     *
+     * @param records       RecordReader of value-separated records
+     * @param columns       List of the table's leaf columns
+     * @param rowCount      the number of rows already in the table
+     *
+     * @return              List of DataRows
+     * @throws IOException  if an I/O error occurs while reading
+     */
+    public List<DataRow> parseRows(RecordReader records, List<? extends DataColumn<?>> columns, int rowCount)
+            throws IOException {
+        Validate.notNull(records, "RecordReader cannot be null.");
+        Validate.notNull(columns, "Columns cannot be null.");
+
+        List<DataRow> dataRows = readRows(records, new ArrayList<>(columns), getProjectedCells(columns.size()), rowCount, null);
+        reportProgress(records, dataRows.size());
+        return dataRows;
+    }
+
     //**********************************************//
     //                PRIVATE METHODS               //
     //**********************************************//
 
-    private List<DataColumn<?>> parseColumns(String[][] rows, int numHeaderRows) {
+    /**
+     * Reads the remaining records one at a time. If a lazy or columnar table is provided, the rows are created as its
+     * own rows.
+     */
+    private List<DataRow> readRows(RecordReader records, List<DataColumn<?>> columns, int[] cells, int firstRowIndex,
+                                   DataTable table) throws IOException {
+        List<DataRow> dataRows = new ArrayList<>();
+        DataRow row;
+        String rowLabel;
+        while (records.next()) {
+            rowLabel = "row" + (firstRowIndex + dataRows.size() + 1);
+            if (table instanceof LazyDataTable) {
+                row = getLazyTableRow(rowLabel, records, cells, (LazyDataTable) table);
+            } else if (table instanceof ColumnarDataTable) {
+                row = getColumnarTableRow(rowLabel, records, cells, (ColumnarDataTable) table);
+            } else {
+                row = getTableRow(rowLabel, records, cells, columns);
+            }
+            row.setSelected(true);
+            dataRows.add(row);
+            if (dataRows.size() % PROGRESS_INTERVAL == 0) {
+                reportProgress(records, dataRows.size());
+            }
+        }
+        return dataRows;
+    }
+
+    /**
+     * Reads the remaining records in batches, materializing the rows of each batch on the common fork/join pool while
+     * the following batch is read. A table that fits in a single small batch is materialized by the calling thread.
+     * Only the projected cells of each record are decoded into the batch. At most two batches are in use at once, so
+     * the arrays of each completed batch are reused for the batch after next.
+     */
+    private List<DataRow> readRowsInParallel(RecordReader records, List<DataColumn<?>> columns, int[] cells)
+            throws IOException {
+        List<DataRow> dataRows = new ArrayList<>();
+        RowBatch pending = null;
+        RowBatch batch;
+        RecordBatch batchRecords;
+        RecordBatch spare = null;
+        int rowCount = 0;
+        while (true) {
+            batchRecords = (spare != null) ? spare : new RecordBatch(columns);
+            spare = null;
+            if (readBatch(records, columns, cells, rowCount, batchRecords) == 0) {
+                break;
+            }
+            batch = new RowBatch(batchRecords, columns, rowCount, 0, batchRecords.size, new DataRow[batchRecords.size]);
+            rowCount += batchRecords.size;
+            if (pending == null && batchRecords.size < BATCH_SIZE) {
+                batch.invoke();
+            } else {
+                batch.fork();
+            }
+            if (pending != null) {
+                pending.join();
+                Collections.addAll(dataRows, pending.rows);
+                spare = pending.records;
+            }
+            pending = batch;
+        }
+        if (pending != null) {
+            pending.join();
+            Collections.addAll(dataRows, pending.rows);
+        }
+        return dataRows;
+    }
+
+    /**
+     * Reads up to {@link #BATCH_SIZE} records into a batch, replacing its contents. Number cells are read with
+     * {@link RecordReader#getDouble(int)} on the calling thread, so that no {@code String} is created for them, and
+     * only text cells are read as Strings. Progress is reported every {@link #PROGRESS_INTERVAL} rows, counting the
+     * rows read before the batch.
+     *
+     * @return  the number of records read
+     */
+    private int readBatch(RecordReader records, List<DataColumn<?>> columns, int[] cells, int rowsRead,
+                          RecordBatch batch) throws IOException {
+        batch.size = 0;
+        batch.present.clear();
+        int cellCount;
+        int numberOffset;
+        int textOffset;
+        while (batch.size < BATCH_SIZE && records.next()) {
+            cellCount = records.getCellCount();
+            numberOffset = batch.size * batch.numberCount;
+            textOffset = batch.size * batch.textCount;
+            for (int i = 0; i < cells.length; i++) {
+                if (columns.get(i).getType() == Number.class) {
+                    if (cells[i] < cellCount && ! records.isEmpty(cells[i])) {
+                        batch.numbers[numberOffset + batch.slots[i]] = records.getDouble(cells[i]);
+                        batch.present.set(numberOffset + batch.slots[i]);
+                    }
+                } else {
+                    batch.texts[textOffset + batch.slots[i]] =
+                            (cells[i] < cellCount) ? records.getString(cells[i]) : "";
+                }
+            }
+            batch.size++;
+            if ((rowsRead + batch.size) % PROGRESS_INTERVAL == 0) {
+                reportProgress(records, rowsRead + batch.size);
+            }
+        }
+        return batch.size;
+    }
+
+    /**
+     * Parses a column for each of the specified cells. Every cell is titled, so that the titles of duplicate headers
+     * are numbered in the same way regardless of the projection, but only the specified cells are typed.
+     */
+    private List<DataColumn<?>> parseColumns(List<String[]> headerRows, List<String[]> sample, int numColumns,
+                                             int[] cells) {
         List<DataColumn<?>> columns = new ArrayList<>();
         Map<String, Integer> usedColumnLabels = new HashMap<>();
         String label;
         int labelFreq;
         StringJoiner joiner;
         Class clazz;
+        int next = 0;
 
-        for (int colIndex = 0; colIndex < rows[0].length; colIndex++) {
+        for (int colIndex = 0; colIndex < numColumns; colIndex++) {
             joiner = new StringJoiner("\n");
-            for (int hRowIndex = 0; hRowIndex < numHeaderRows; hRowIndex++) {
-                if (! rows[hRowIndex][colIndex].isEmpty()) {
-                    joiner.add(rows[hRowIndex][colIndex]);
+            for (String[] headerRow : headerRows) {
+                if (colIndex < headerRow.length && ! headerRow[colIndex].isEmpty()) {
+                    joiner.add(headerRow[colIndex]);
                 }
             }
 
-            clazz = getColumnDataType(rows, colIndex, numHeaderRows);
             label = joiner.toString();
 
             if (label.equals("")) {
@@ -78,6 +277,12 @@ public class DefaultDataParser extends AbstractDataParser {
                 usedColumnLabels.put(label, 1);
             }
 
+            if (next == cells.length || cells[next] != colIndex) {
+                continue;   // not projected
+            }
+            next++;
+
+            clazz = getColumnDataType(sample, colIndex);
             if (clazz == Number.class) {
                 columns.add(new SimpleDataColumn<>(label, true, 0.0, Number.class));
             } else {
@@ -88,16 +293,125 @@ public class DefaultDataParser extends AbstractDataParser {
         return columns;
     }
 
-    private int countHeaderRows(String[][] rows) {
-        int count = 0;
-        for (String[] row : rows) {
-            if (isDouble(row[0])) {
-                break;
+    /**
+     * Consumes the leading records of the stream up to the first record that begins with a numeric value.
+     */
+    private List<String[]> readHeaderRows(RecordReader records) throws IOException {
+        List<String[]> headerRows = new ArrayList<>();
+        String[] next;
+        while ((next = records.peek()) != null && ! isNumber(next[0])) {
+            records.next();
+            headerRows.add(next);
+        }
+        return headerRows;
+    }
+
+    //**********************************************//
+    //                INNER CLASSES                 //
+    //**********************************************//
+
+    /**
+     * The projected cells of a batch of records, with the values of {@code Number} cells in {@code numbers} and the
+     * values of text cells in {@code texts}. Each column has a slot among the columns of its type, so the value of the
+     * cell for column {@code i} of record {@code r} is at index {@code r * numberCount + slots[i]} of {@code numbers},
+     * or {@code r * textCount + slots[i]} of {@code texts}. An empty {@code Number} cell has no bit set in
+     * {@code present}.
+     */
+    private static final class RecordBatch {
+
+        private final int[] slots;
+        private final int numberCount;
+        private final int textCount;
+        private final double[] numbers;
+        private final String[] texts;
+        private final BitSet present;
+        private int size;
+
+        RecordBatch(List<DataColumn<?>> columns) {
+            slots = new int[columns.size()];
+            int numbers = 0;
+            int texts = 0;
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = (columns.get(i).getType() == Number.class) ? numbers++ : texts++;
             }
-            count++;
+            this.numberCount = numbers;
+            this.textCount = texts;
+            this.numbers = new double[BATCH_SIZE * numberCount];
+            this.texts = new String[BATCH_SIZE * textCount];
+            this.present = new BitSet(BATCH_SIZE * numberCount);
         }
-        return count;
     }
 
-}
+    /**
+     * Materializes a range of a batch of records into {@code DataRow}s, splitting the range in half until it is no
+     * larger than {@link #SEQUENTIAL_THRESHOLD}. Each row is stored at its own index, so the order of the batch is
+     * preserved regardless of the order in which the subranges complete. Text values repeated within a subrange are
+     * pooled once, so that the workers seldom contend for the shared {@code StringPool}.
+     */
+    private class RowBatch extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final RecordBatch records;
+        private final List<DataColumn<?>> columns;
+        private final int firstRowIndex;
+        private final int from;
+        private final int to;
+        private final DataRow[] rows;
 
+        RowBatch(RecordBatch records, List<DataColumn<?>> columns, int firstRowIndex, int from, int to,
+                 DataRow[] rows) {
+            this.records = records;
+            this.columns = columns;
+            this.firstRowIndex = firstRowIndex;
+            this.from = from;
+            this.to = to;
+            this.rows = rows;
+        }
+
+        // The casts of columns are checked against each column's type
+        @SuppressWarnings("unchecked")
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                final int columnCount = columns.size();
+                final int[] slots = records.slots;
+                Map<String, String> pooledTexts = new HashMap<>();
+                DataRow row;
+                DataColumn<?> col;
+                String text;
+                String pooledText;
+                int cell;
+                for (int i = from; i < to; i++) {
+                    row = new SimpleDataRow("row" + (firstRowIndex + i + 1));
+                    for (int colIndex = 0; colIndex < columnCount; colIndex++) {
+                        col = columns.get(colIndex);
+                        if (col.getType() == Number.class) {
+                            cell = i * records.numberCount + slots[colIndex];
+                            if (records.present.get(cell)) {
+                                row.setValueForColumn((DataColumn<Number>) col, records.numbers[cell]);
+                            }
+                        } else {
+                            text = records.texts[i * records.textCount + slots[colIndex]];
+                            pooledText = pooledTexts.get(text);
+                            if (pooledText == null) {
+                                pooledText = pooled(text);
+                                pooledTexts.put(text, pooledText);
+                            }
+                            row.setValueForColumn((DataColumn<String>) col, pooledText);
+                        }
+                    }
+                    row.setSelected(true);
+                    rows[i] = row;
+                }
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(
+                        new RowBatch(records, columns, firstRowIndex, from, mid, rows),
+                        new RowBatch(records, columns, firstRowIndex, mid, to, rows)
+                );
+            }
+        }
+    }
+
+}
@@ -0,0 +1,27 @@
+package org.cirdles.topsoil.file.parser;
+
+/**
+ * Receives progress updates from a {@link DataParser}, and allows a parse to be cancelled.
+ * <p>
+ * Methods are called from the thread performing the parse.
+ */
+public interface ParseMonitor {
+
+    /**
+     * Called periodically as data rows are read.
+     *
+     * @param rowsRead      number of data rows read so far
+     * @param workDone      amount of input consumed so far, or -1 if unknown
+     * @param totalWork     total amount of input, or -1 if unknown
+     */
+    void updateProgress(long rowsRead, long workDone, long totalWork);
+
+    /**
+     * Returns true if the parse should be abandoned. When this returns true, the parser throws a
+     * {@link java.util.concurrent.CancellationException}.
+     *
+     * @return  true if cancelled
+     */
+    boolean isCancelled();
+
+}
@@ -1,16 +1,22 @@
 package org.cirdles.topsoil.file.parser;
 
+import org.apache.commons.lang3.Validate;
+import org.cirdles.topsoil.data.ColumnarDataRow;
+import org.cirdles.topsoil.data.ColumnarDataTable;
 import org.cirdles.topsoil.data.DataColumn;
 import org.cirdles.topsoil.data.DataRow;
 import org.cirdles.topsoil.data.DataTemplate;
+import org.cirdles.topsoil.data.LazyDataRow;
+import org.cirdles.topsoil.data.LazyDataTable;
 import org.cirdles.topsoil.data.SimpleDataColumn;
 import org.cirdles.topsoil.data.SimpleDataRow;
 import org.cirdles.topsoil.data.DataTable;
 import org.cirdles.topsoil.data.SimpleDataTable;
 import org.cirdles.topsoil.data.TableUtils;
+import org.cirdles.topsoil.file.RecordReader;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,23 +31,70 @@ import java.util.StringJoiner;
  */
 public class Squid3DataParser extends AbstractDataParser {
 
+    private static final int NUM_HEADER_ROWS = 5;
+
     /** {@inheritDoc} */
     @Override
-    protected DataTable parseDataTable(String[][] rows, String label) {
-        List<DataColumn<?>> columns = parseHeaders(rows);
+    public DataTable parseDataTable(RecordReader records, String label) throws IOException {
+        String[][] headerRows = readHeaderRows(records);
+        List<String[]> sample = records.lookAhead(TYPE_SAMPLE_SIZE);
+        List<DataColumn<?>> columns = parseHeaders(headerRows, sample);
         List<DataColumn<?>> leafColumns = TableUtils.getLeafColumns(columns);
-
-        int[] segIndices = readAliquots(rows);
+        // Categories are contiguous, so the leaf columns read the projected cells from the first category on
+        int[] categoryIndices = readCategories(headerRows[0]);
+        int[] cells = (categoryIndices.length > 0) ?
+                getProjectedCells(categoryIndices[0], headerRows[0].length) :
+                new int[0];
+
+        LazyDataTable lazyTable = isLazyDecoding() ? new LazyDataTable(DataTemplate.SQUID_3, label, columns) : null;
+        ColumnarDataTable columnarTable = isColumnarStorage() ?
+                new ColumnarDataTable(DataTemplate.SQUID_3, label, columns) :
+                null;
         List<DataRow> dataRows = new ArrayList<>();
-        for (int i = 0; i < segIndices.length; i++) {
-            dataRows.add(parseAliquot(
-                    rows,
-                    segIndices[i],
-                    (i < (segIndices.length - 1) ? segIndices[i + 1] : -1),
-                    leafColumns
-            ));
+        if (records.next() && ! records.isEmpty(0)) {
+            // Each aliquot begins with a row containing only its label, followed by rows for each of its spots, whose
+            // labels begin with the aliquot label
+            String aliquotLabel = records.getString(0);
+            DataRow aliquotRow = createAliquotRow(aliquotLabel, lazyTable, columnarTable);
+            dataRows.add(aliquotRow);
+            String rowLabel;
+            int spotCount = 0;
+            while (records.next()) {
+                rowLabel = records.getString(0);
+                if (! rowLabel.regionMatches(true, 0, aliquotLabel, 0, aliquotLabel.length())) {
+                    aliquotLabel = rowLabel;
+                    aliquotRow = createAliquotRow(aliquotLabel, lazyTable, columnarTable);
+                    dataRows.add(aliquotRow);
+                } else {
+                    if (lazyTable != null) {
+                        ((LazyDataRow) aliquotRow).addChild(getLazyTableRow(rowLabel, records, cells, lazyTable));
+                    } else if (columnarTable != null) {
+                        ((ColumnarDataRow) aliquotRow).addChild(
+                                getColumnarTableRow(rowLabel, records, cells, columnarTable)
+                        );
+                    } else {
+                        ((SimpleDataRow) aliquotRow).addChild(
+                                (SimpleDataRow) getTableRow(rowLabel, records, cells, leafColumns)
+                        );
+                    }
+                    if (++spotCount % PROGRESS_INTERVAL == 0) {
+                        reportProgress(records, spotCount);
+                    }
+                }
+            }
+            reportProgress(records, spotCount);
         }
 
+        if (lazyTable != null) {
+            lazyTable.getRows().addAll(dataRows);
+            lazyTable.trimToSize();
+            return lazyTable;
+        }
+        if (columnarTable != null) {
+            columnarTable.getRows().addAll(dataRows);
+            columnarTable.trimToSize();
+            return columnarTable;
+        }
         DataTable table = new SimpleDataTable(DataTemplate.SQUID_3, label, columns, dataRows);
 //        prepareTable(table);
         return table;
@@ -51,24 +104,50 @@ public class Squid3DataParser extends AbstractDataParser {
     //                PRIVATE METHODS               //
     //**********************************************//
 
-    private List<DataColumn<?>> parseHeaders(String[][] rows) {
+    private static DataRow createAliquotRow(String label, LazyDataTable lazyTable, ColumnarDataTable columnarTable) {
+        if (lazyTable != null) {
+            return lazyTable.createParentRow(label);
+        }
+        return (columnarTable != null) ? columnarTable.createRow(label) : new SimpleDataRow(label);
+    }
+
+    private String[][] readHeaderRows(RecordReader records) throws IOException {
+        String[][] headerRows = new String[NUM_HEADER_ROWS][];
+        for (int i = 0; i < NUM_HEADER_ROWS; i++) {
+            headerRows[i] = records.readRecord();
+            Validate.isTrue(headerRows[i] != null, "Squid 3 data must begin with " + NUM_HEADER_ROWS + " header rows.");
+        }
+        return headerRows;
+    }
+
+    private List<DataColumn<?>> parseHeaders(String[][] headerRows, List<String[]> sample) {
         List<DataColumn<?>> headers = new ArrayList<>();
-        int[] categoryIndices = readCategories(rows[0]);
+        int[] categoryIndices = readCategories(headerRows[0]);
         Map<String, Integer> usedColumnLabels = new HashMap<>();
+        DataColumn<?> category;
         for (int i = 0; i < categoryIndices.length; i++) {
-            headers.add(parseCategory(
-                    rows,
+            category = parseCategory(
+                    headerRows,
+                    sample,
                     categoryIndices[i],
                     (i == (categoryIndices.length - 1) ? -1 : categoryIndices[i + 1]),
                     usedColumnLabels
-            ));
+            );
+            if (category != null) {
+                headers.add(category);
+            }
         }
         return headers;
     }
 
-    private DataColumn parseCategory(String[][] rows, int catIndex, int nextCatIndex, Map<String, Integer> usedColumnLabels) {
+    /**
+     * Parses a category and its projected columns, or returns null if none of its columns are projected. Every column
+     * is titled, so that the titles of duplicate headers are numbered in the same way regardless of the projection.
+     */
+    private DataColumn parseCategory(String[][] headerRows, List<String[]> sample, int catIndex, int nextCatIndex,
+                                     Map<String, Integer> usedColumnLabels) {
         int labelFreq;
-        String[] catRow = rows[0];
+        String[] catRow = headerRows[0];
         String catLabel = catRow[catIndex];
         if (usedColumnLabels.containsKey(catLabel)) {
             labelFreq = usedColumnLabels.get(catLabel);
@@ -84,10 +163,12 @@ public class Squid3DataParser extends AbstractDataParser {
         if (nextCatIndex == -1 || nextCatIndex > catRow.length) {
             nextCatIndex = catRow.length;
         }
+        int[] cells = getProjectedCells(catIndex, nextCatIndex);
+        int next = 0;
         for (int colIndex = catIndex; colIndex < nextCatIndex; colIndex++) {
             joiner = new StringJoiner(" ");
-            for (int rowIndex = 1; rowIndex < 5; rowIndex++) {
-                colLabel = rows[rowIndex][colIndex];
+            for (int rowIndex = 1; rowIndex < NUM_HEADER_ROWS; rowIndex++) {
+                colLabel = (colIndex < headerRows[rowIndex].length) ? headerRows[rowIndex][colIndex] : "";
                 if (! colLabel.equals("")) {
                     joiner.add(colLabel);
                 }
@@ -105,32 +186,22 @@ public class Squid3DataParser extends AbstractDataParser {
                 usedColumnLabels.put(colLabel, 1);
             }
 
-            Class<?> clazz = getColumnDataType(rows, colIndex, 5);
+            if (next == cells.length || cells[next] != colIndex) {
+                continue;   // not projected
+            }
+            next++;
+
+            Class<?> clazz = getColumnDataType(sample, colIndex);
             if (clazz == Number.class) {
                 columns.add(new SimpleDataColumn<>(colLabel, true, 0.0, Number.class));
             } else {
                 columns.add(new SimpleDataColumn<>(colLabel, true, "", String.class));
             }
         }
-        return new SimpleDataColumn(catLabel, true, columns.toArray(new SimpleDataColumn[]{}));
-    }
-
-    private DataRow parseAliquot(String[][] rows, int segIndex, int nextSegIndex, List<DataColumn<?>> columns) {
-        String segmentLabel = rows[segIndex][0];
-        List<DataRow> dataRows = new ArrayList<>();
-        String rowLabel;
-        if (nextSegIndex == -1 || nextSegIndex > rows.length) {
-            nextSegIndex = rows.length;
-        }
-        for (int rowIndex = segIndex + 1; rowIndex < nextSegIndex; rowIndex++) {
-            rowLabel = rows[rowIndex][0];
-            dataRows.add(getTableRow(
-                    rowLabel,
-                    Arrays.copyOfRange(rows[rowIndex], 1, rows[rowIndex].length),
-                    columns
-            ));
+        if (columns.isEmpty()) {
+            return null;
         }
-        return new SimpleDataRow(segmentLabel, true, dataRows.toArray(new SimpleDataRow[]{}));
+        return new SimpleDataColumn(catLabel, true, columns.toArray(new SimpleDataColumn[]{}));
     }
 
     /**
@@ -149,30 +220,6 @@ public class Squid3DataParser extends AbstractDataParser {
         return convertIntArray(idxs);
     }
 
-    /**
-     * Returns an array of ints representing the row indices of each data segment.
-     *
-     * @param cells     String[][] of data values
-     * @return          segment indices
-     */
-    private static int[] readAliquots(String[][] cells) {
-        List<Integer> idxs = new ArrayList<>();
-
-        String last = cells[5][0];
-        String current;
-        if (! "".equals(last)) {
-            idxs.add(5);
-            for (int index = 6; index < cells.length; index++) {
-                current = cells[index][0];
-                if (!current.toUpperCase().startsWith(last.toUpperCase())) {
-                    idxs.add(index);
-                    last = current;
-                }
-            }
-        }
-        return convertIntArray(idxs);
-    }
-
     private static int[] convertIntArray(List<Integer> integers) {
         int[] rtnval = new int[integers.size()];
         for (int index = 0; index < rtnval.length; index++) {
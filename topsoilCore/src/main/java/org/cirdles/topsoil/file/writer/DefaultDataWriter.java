@@ -38,10 +38,13 @@ public class DefaultDataWriter extends AbstractDataWriter {
         // Write rows
         int r = 1;
         int c;
+        Object value;
         for (DataRow row : dataRows) {
             c = 0;
             for (DataColumn<?> col : columns) {
-                rows[r][c] = row.getValueForColumn(col).toString();
+                // Missing values are written as empty cells, which are read back as missing
+                value = row.getValueForColumn(col);
+                rows[r][c] = (value != null) ? value.toString() : "";
                 c++;
             }
             r++;
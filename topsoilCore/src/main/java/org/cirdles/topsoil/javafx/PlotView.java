@@ -1,6 +1,5 @@
 package org.cirdles.topsoil.javafx;
 
-import javafx.application.Platform;
 import javafx.beans.property.ReadOnlyListProperty;
 import javafx.beans.property.ReadOnlyListWrapper;
 import javafx.beans.property.ReadOnlyMapProperty;
@@ -22,6 +21,7 @@ import org.cirdles.topsoil.data.DataColumn;
 import org.cirdles.topsoil.data.DataTable;
 import org.cirdles.topsoil.data.TableUtils;
 import org.cirdles.topsoil.javafx.bridges.Regression;
+import org.cirdles.topsoil.plot.DataColumns;
 import org.cirdles.topsoil.plot.DataEntry;
 import org.cirdles.topsoil.plot.HTMLTemplate;
 import org.cirdles.topsoil.plot.Plot;
@@ -40,7 +40,6 @@ import org.w3c.dom.Element;
 
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -67,7 +66,12 @@ public class PlotView extends SingleChildRegion<WebView> implements Plot {
     private PlotType plotType;
     private String htmlString;
     private DataTable table;
-    private final Map<String, Thread> updateThreads = new HashMap<>();
+    private final UpdateScheduler updateScheduler = new UpdateScheduler();
+
+    // Changes to the data that have not yet been sent to the plot, as splices of the entry list, or null if the plot
+    // needs all of the data again
+    private JSONArray dataChanges = new JSONArray();
+    private int changedEntryCount;
 
     private JSObject topsoil;
     private PlotBridge javaBridge;
@@ -136,15 +140,18 @@ public class PlotView extends SingleChildRegion<WebView> implements Plot {
         this.plotType = type;
         this.htmlString = HTMLTemplate.withRootDiv();
 
-        plotData.addListener((ListChangeListener<DataEntry>) c -> updateJSDelayed("setDataFromJSON", this::updateJSData));
-        plotOptions.addListener((MapChangeListener<PlotOption<?>, Object>) c -> updateJSDelayed("setOptionsFromJSON", this::updateJSOptions));
+        plotData.addListener((ListChangeListener<DataEntry>) c -> {
+            recordDataChanges(c);
+            updateScheduler.request("data", this::updateJSData);
+        });
+        plotOptions.addListener((MapChangeListener<PlotOption<?>, Object>) c -> updateScheduler.request("options", this::updateJSOptions));
 
         loadFuture = new CompletableFuture<>();
 
         this.webView = getChild();
         webView.setContextMenuEnabled(true);
-        webView.widthProperty().addListener(c -> update());
-        webView.heightProperty().addListener(c -> update());
+        webView.widthProperty().addListener(c -> updateScheduler.request("update", this::update));
+        webView.heightProperty().addListener(c -> updateScheduler.request("update", this::update));
 
         this.webEngine = webView.getEngine();
         webEngine.setJavaScriptEnabled(false);
@@ -184,7 +191,7 @@ public class PlotView extends SingleChildRegion<WebView> implements Plot {
 
                         topsoil = (JSObject) webEngine.executeScript("new topsoil.ScatterPlot(" +
                                 "document.getElementById(\"root\")," +
-                                getJSONData() + "," +
+                                getScriptData() + "," +
                                 getJSONOptions() + "," +
                                 "[\"points\", [\"ellipses\", \"unctbars\"], [\"mclean_regression\", \"concordia\", \"evolution\"]]" +
                                 ")"
@@ -193,6 +200,10 @@ public class PlotView extends SingleChildRegion<WebView> implements Plot {
                         topsoil.setMember("javaBridge", javaBridge);
                         topsoil.setMember("regressionBridge", regressionBridge);
 
+                        // The new plot was given all of the current data
+                        dataChanges = new JSONArray();
+                        changedEntryCount = 0;
+
                         if (isCustomViewport) {
                             call(PlotFunction.Scatter.SET_AXIS_EXTENTS,
                                     initXMin,
@@ -345,6 +356,16 @@ public class PlotView extends SingleChildRegion<WebView> implements Plot {
         return loadFuture;
     }
 
+    /**
+     * Returns the scheduler that coalesces updates to the plot, whose counts of requested and flushed updates show how
+     * many updates have been coalesced.
+     *
+     * @return  UpdateScheduler
+     */
+    public UpdateScheduler getUpdateScheduler() {
+        return updateScheduler;
+    }
+
     //**********************************************//
     //               PROTECTED METHODS              //
     //**********************************************//
@@ -354,38 +375,93 @@ public class PlotView extends SingleChildRegion<WebView> implements Plot {
         plotData.setAll(entries);
     }
 
+    /**
+     * Replaces the entries from {@code from}, inclusive, to {@code to}, exclusive, with the provided entries. Only the
+     * entries that differ are changed, so that only they are sent to the plot.
+     *
+     * @param from      int index of the first entry to replace
+     * @param to        int index after the last entry to replace
+     * @param entries   List of new DataEntry
+     */
+    protected void replaceDataEntries(int from, int to, List<DataEntry> entries) {
+        if (to - from == entries.size()) {
+            for (int i = 0; i < entries.size(); i++) {
+                if (! plotData.get(from + i).equals(entries.get(i))) {
+                    plotData.set(from + i, entries.get(i));
+                }
+            }
+        } else {
+            if (to > from) {
+                plotData.remove(from, to);
+            }
+            plotData.addAll(from, entries);
+        }
+    }
+
     //**********************************************//
     //                PRIVATE METHODS               //
     //**********************************************//
 
-    private void updateJSData() {
-        if (topsoil != null) {
-            Platform.runLater(() -> topsoil.call("setDataFromJSON", getJSONData()));
+    /**
+     * Records a change to the data as splices of the entry list, to be sent to the plot with the next update. If the
+     * entries are reordered, or more than half of them change before the next update, the plot is sent all of the data
+     * instead.
+     */
+    private void recordDataChanges(ListChangeListener.Change<? extends DataEntry> c) {
+        while (dataChanges != null && c.next()) {
+            int removed = c.wasUpdated() ? c.getTo() - c.getFrom() : c.getRemovedSize();
+            int added = c.wasUpdated() ? c.getTo() - c.getFrom() : c.getAddedSize();
+            changedEntryCount += Math.max(removed, added);
+            if (c.wasPermutated() || changedEntryCount > c.getList().size() / 2) {
+                dataChanges = null;
+                return;
+            }
+            JSONObject splice = new JSONObject();
+            splice.put("from", c.getFrom());
+            splice.put("removed", removed);
+            splice.put("added", new JSONArray(c.getList().subList(c.getFrom(), c.getFrom() + added)));
+            dataChanges.put(splice);
         }
     }
 
-    private void updateJSOptions() {
+    private void updateJSData() {
         if (topsoil != null) {
-            Platform.runLater(() -> topsoil.call("setOptionsFromJSON", getJSONOptions()));
+            if (dataChanges == null) {
+                String columns = getColumnData();
+                if (columns != null) {
+                    topsoil.call("setDataFromColumns", columns);
+                } else {
+                    topsoil.call("setDataFromJSON", getJSONData());
+                }
+            } else if (dataChanges.length() > 0) {
+                topsoil.call("updateDataFromJSON", dataChanges.toString());
+            }
+            dataChanges = new JSONArray();
+            changedEntryCount = 0;
         }
     }
 
-    private void updateJSDelayed(String name, Runnable runnable) {
-        if (updateThreads.containsKey(name)) {
-            return; // an update has already been called
+    /**
+     * Returns the data encoded as columns, or null if either the data cannot be encoded as columns or the loaded plot
+     * cannot decode them, in which case the data should be sent as JSON.
+     */
+    private String getColumnData() {
+        Object supported = webEngine.executeScript("typeof topsoil.dataFromColumns === \"function\"");
+        return Boolean.TRUE.equals(supported) ? DataColumns.encode(getData()) : null;
+    }
+
+    /**
+     * Returns a JavaScript expression for the data, to construct a new plot with.
+     */
+    private String getScriptData() {
+        String columns = getColumnData();
+        return (columns != null) ? "topsoil.dataFromColumns(" + JSONObject.quote(columns) + ")" : getJSONData();
+    }
+
+    private void updateJSOptions() {
+        if (topsoil != null) {
+            topsoil.call("setOptionsFromJSON", getJSONOptions());
         }
-        Thread updateThread = new Thread(() -> {
-            try {
-                Thread.sleep(10);
-                runnable.run();
-            } catch (InterruptedException e) {
-                // Do nothing
-            } finally {
-                updateThreads.remove(name);
-            }
-        });
-        updateThreads.put(name, updateThread);
-        updateThread.start();
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+package org.cirdles.topsoil.javafx;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import org.apache.commons.lang3.Validate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coalesces updates so that each runs at most once per JavaFX pulse, however many times it is requested.
+ * <p>
+ * Updates are requested by name; requesting an update that is already pending replaces it, so only the last request
+ * for each name runs. Pending updates run on the JavaFX application thread at the next pulse, in the order they were
+ * first requested. Updates may be requested from any thread.
+ */
+public class UpdateScheduler {
+
+    //**********************************************//
+    //                  ATTRIBUTES                  //
+    //**********************************************//
+
+    private final Map<String, Runnable> pending = new LinkedHashMap<>();
+    private boolean scheduled;
+
+    private long requestedCount;
+    private long flushedCount;
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            flush();
+        }
+    };
+
+    //**********************************************//
+    //                PUBLIC METHODS                //
+    //**********************************************//
+
+    /**
+     * Requests that the provided update be run at the next pulse, in place of any pending update with the same name.
+     *
+     * @param name      String name of the update
+     * @param update    Runnable update
+     */
+    public void request(String name, Runnable update) {
+        Validate.notNull(name, "Name cannot be null.");
+        Validate.notNull(update, "Update cannot be null.");
+
+        boolean start;
+        synchronized (this) {
+            requestedCount++;
+            pending.put(name, update);
+            start = ! scheduled;
+            scheduled = true;
+        }
+        if (start) {
+            if (Platform.isFxApplicationThread()) {
+                timer.start();
+            } else {
+                Platform.runLater(timer::start);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of updates that have been requested.
+     *
+     * @return  long count
+     */
+    public synchronized long getRequestedCount() {
+        return requestedCount;
+    }
+
+    /**
+     * Returns the number of updates that have been run. Each update that was requested but not run was replaced by a
+     * later request with the same name.
+     *
+     * @return  long count
+     */
+    public synchronized long getFlushedCount() {
+        return flushedCount;
+    }
+
+    //**********************************************//
+    //                PRIVATE METHODS               //
+    //**********************************************//
+
+    private void flush() {
+        timer.stop();
+        List<Runnable> updates;
+        synchronized (this) {
+            updates = new ArrayList<>(pending.values());
+            pending.clear();
+            scheduled = false;
+            flushedCount += updates.size();
+        }
+        for (Runnable update : updates) {
+            update.run();
+        }
+    }
+
+}
@@ -0,0 +1,121 @@
+package org.cirdles.topsoil.plot;
+
+import org.apache.commons.lang3.Validate;
+import org.cirdles.topsoil.Variable;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Encodes plot data as columns of values rather than as a list of entries, so that large data sets can be passed to the
+ * JavaScript plot without building and parsing a JSON object for each entry.
+ * <p>
+ * The values of each numeric variable are packed into a little-endian array of doubles, in which a missing value is
+ * {@code NaN}, and each boolean variable into a bitset, with the bit for entry {@code i} at bit {@code i % 8} of byte
+ * {@code i / 8}. Both are base64 encoded, to be decoded into typed arrays by the plot. Text variables are sent as arrays
+ * of strings, with null for a missing value.
+ */
+public final class DataColumns {
+
+    //**********************************************//
+    //                  CONSTANTS                   //
+    //**********************************************//
+
+    private static final List<Variable<?>> NUMBER_VARIABLES = Variable.CLASSIC;
+    private static final List<Variable<?>> TEXT_VARIABLES = Arrays.asList(Variable.LABEL, Variable.ALIQUOT);
+    private static final List<Variable<?>> FLAG_VARIABLES = Arrays.asList(Variable.SELECTED, Variable.VISIBLE);
+
+    //**********************************************//
+    //                 CONSTRUCTORS                 //
+    //**********************************************//
+
+    private DataColumns() {}
+
+    //**********************************************//
+    //                PUBLIC METHODS                //
+    //**********************************************//
+
+    /**
+     * Returns the provided entries encoded as columns, or null if an entry has a value for a variable other than those
+     * of {@link Variable#ALL}, in which case the entries should be sent as JSON instead.
+     * <p>
+     * A boolean variable with no value in an entry is given its default value.
+     *
+     * @param data  List of DataEntry
+     * @return      String JSON of encoded columns, or null
+     */
+    public static String encode(List<DataEntry> data) {
+        Validate.notNull(data, "Data cannot be null.");
+
+        int size = data.size();
+        ByteBuffer[] numbers = new ByteBuffer[NUMBER_VARIABLES.size()];
+        for (int v = 0; v < numbers.length; v++) {
+            numbers[v] = ByteBuffer.allocate(size * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        JSONArray[] texts = new JSONArray[TEXT_VARIABLES.size()];
+        for (int v = 0; v < texts.length; v++) {
+            texts[v] = new JSONArray();
+        }
+        byte[][] flags = new byte[FLAG_VARIABLES.size()][(size + 7) / 8];
+
+        DataEntry entry;
+        Object value;
+        int encoded;
+        for (int i = 0; i < size; i++) {
+            entry = data.get(i);
+            encoded = 0;
+            for (int v = 0; v < numbers.length; v++) {
+                value = entry.get(NUMBER_VARIABLES.get(v));
+                if (value == null) {
+                    numbers[v].putDouble(Double.NaN);
+                    continue;
+                }
+                numbers[v].putDouble(((Number) value).doubleValue());
+                encoded++;
+            }
+            for (int v = 0; v < texts.length; v++) {
+                value = entry.get(TEXT_VARIABLES.get(v));
+                if (value == null) {
+                    texts[v].put(JSONObject.NULL);
+                    continue;
+                }
+                texts[v].put(value);
+                encoded++;
+            }
+            for (int v = 0; v < flags.length; v++) {
+                value = entry.get(FLAG_VARIABLES.get(v));
+                if (value == null) {
+                    value = FLAG_VARIABLES.get(v).getDefaultValue();
+                } else {
+                    encoded++;
+                }
+                if ((Boolean) value) {
+                    flags[v][i >> 3] |= 1 << (i & 7);
+                }
+            }
+            if (encoded != entry.size()) {
+                return null;
+            }
+        }
+
+        Base64.Encoder base64 = Base64.getEncoder();
+        JSONObject json = new JSONObject();
+        json.put("length", size);
+        for (int v = 0; v < numbers.length; v++) {
+            json.put(NUMBER_VARIABLES.get(v).toJSONString(), base64.encodeToString(numbers[v].array()));
+        }
+        for (int v = 0; v < texts.length; v++) {
+            json.put(TEXT_VARIABLES.get(v).toJSONString(), texts[v]);
+        }
+        for (int v = 0; v < flags.length; v++) {
+            json.put(FLAG_VARIABLES.get(v).toJSONString(), base64.encodeToString(flags[v]));
+        }
+        return json.toString();
+    }
+
+}
@@ -1,11 +1,16 @@
 package org.cirdles.topsoil.plot;
 
 import org.cirdles.topsoil.Variable;
-import org.cirdles.topsoil.symbols.SimpleSymbolMap;
+import org.cirdles.topsoil.symbols.ArraySymbolMap;
 
 import java.util.Map;
 
-public class DataEntry extends SimpleSymbolMap<Variable<?>> {
+/**
+ * The values of one data point of a {@link Plot}, mapped by {@link Variable}. A variable with no value for the point is
+ * left out of its entry, rather than given a default value; the plot does not draw points that are missing an x or y
+ * value, and treats missing uncertainties and correlations as zero.
+ */
+public class DataEntry extends ArraySymbolMap<Variable<?>> {
 
     public DataEntry() {
         super();
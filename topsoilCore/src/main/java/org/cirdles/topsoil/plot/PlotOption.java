@@ -49,6 +49,8 @@ public final class PlotOption<T> extends SimpleSymbolKey<T> implements Serializa
     public static final PlotOption<Number> R238_235S = numberValue("R238_235S", 137.88);
 
     public static final PlotOption<Boolean> SHOW_UNINCLUDED = booleanValue("show_unincluded", true);
+    // The most points the plot draws at once; beyond it, the points in view are thinned to about this many
+    public static final PlotOption<Number> POINT_BUDGET = numberValue("point_budget", 20000);
 
     public static final PlotOption<Boolean> POINTS = booleanValue("points", true);
     public static final PlotOption<String> POINTS_FILL = stringValue("points_fill", "steelblue");
@@ -91,6 +93,7 @@ public final class PlotOption<T> extends SimpleSymbolKey<T> implements Serializa
                 R238_235S,
 
                 SHOW_UNINCLUDED,
+                POINT_BUDGET,
 
                 POINTS, POINTS_FILL, POINTS_OPACITY,
 
@@ -1,13 +1,13 @@
 package org.cirdles.topsoil.plot;
 
-import org.cirdles.topsoil.symbols.SimpleSymbolMap;
+import org.cirdles.topsoil.symbols.ArraySymbolMap;
 
 import java.io.Serializable;
 import java.util.Map;
 
-public class PlotOptions extends SimpleSymbolMap<PlotOption<?>> implements Serializable {
+public class PlotOptions extends ArraySymbolMap<PlotOption<?>> implements Serializable {
 
-    private static final long serialVersionUID = 9L;
+    private static final long serialVersionUID = 10L;
 
     public PlotOptions() {
         super();
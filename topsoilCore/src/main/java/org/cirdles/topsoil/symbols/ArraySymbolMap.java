@@ -0,0 +1,362 @@
+package org.cirdles.topsoil.symbols;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A {@link SymbolMap} that stores each value in an array slot indexed by its key's ordinal.
+ * <p>
+ * The arrays cover the range of ordinals between the lowest and highest keys in the map, so a map whose keys were
+ * created together, such as the columns of a table, is about as compact as a list of its entries, while
+ * {@link #get(Object)} and {@link #put(SymbolKey, Object)} take constant time. Entries are iterated in the order in
+ * which their keys were first put, and values are checked against the types of their keys in the same way as by
+ * {@link SimpleSymbolMap}.
+ *
+ * @see SymbolKey#getOrdinal()
+ */
+public class ArraySymbolMap<K extends SymbolKey<?>> extends AbstractMap<K, Object>
+        implements SymbolMap<K>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int INITIAL_CAPACITY = 4;
+    private static final Object[] EMPTY = new Object[0];
+
+    //**********************************************//
+    //                  ATTRIBUTES                  //
+    //**********************************************//
+
+    // Slots for the ordinals from base to base + keys.length
+    private transient int base;
+    private transient Object[] keys;
+    private transient Object[] values;
+
+    // Ordinals of the entries, in insertion order
+    private transient int[] order;
+    private transient int size;
+    private transient int modCount;
+
+    //**********************************************//
+    //                 CONSTRUCTORS                 //
+    //**********************************************//
+
+    public ArraySymbolMap() {
+        this(null);
+    }
+
+    public ArraySymbolMap(Map<K, Object> map) {
+        init();
+        if (map != null) {
+            putAll(map);
+        }
+    }
+
+    //**********************************************//
+    //                PUBLIC METHODS                //
+    //**********************************************//
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return slotOf(key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int slot = slotOf(key);
+        return (slot >= 0) ? values[slot] : null;
+    }
+
+    @Override
+    public final Object put(K key, Object value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key must not be null.");
+        }
+
+        if (! key.match(value)) {
+            throw new IllegalArgumentException(
+                    "Value \"" + value + "\" must be of the same type as the " +
+                            key.getClass().getSimpleName() + " \"" + key.getTitle() + "\"" +
+                            " (" + key.getType().getSimpleName() + ")."
+            );
+        }
+
+        int ordinal = key.getOrdinal();
+        int slot = slotOf(key);
+        if (slot >= 0) {
+            Object oldValue = values[slot];
+            values[slot] = value;
+            return oldValue;
+        }
+
+        slot = ensureSlot(ordinal);
+        keys[slot] = key;
+        values[slot] = value;
+        if (size == order.length) {
+            order = Arrays.copyOf(order, Math.max(INITIAL_CAPACITY, size * 2));
+        }
+        order[size++] = ordinal;
+        modCount++;
+        return null;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        int slot = slotOf(key);
+        if (slot < 0) {
+            return null;
+        }
+        Object oldValue = values[slot];
+        keys[slot] = null;
+        values[slot] = null;
+
+        int ordinal = base + slot;
+        for (int i = 0; i < size; i++) {
+            if (order[i] == ordinal) {
+                System.arraycopy(order, i + 1, order, i, size - i - 1);
+                break;
+            }
+        }
+        size--;
+        modCount++;
+        return oldValue;
+    }
+
+    @Override
+    public void clear() {
+        init();
+        modCount++;
+    }
+
+    @Override
+    public Set<Entry<K, Object>> entrySet() {
+        return new AbstractSet<Entry<K, Object>>() {
+            @Override
+            public Iterator<Entry<K, Object>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                if (! (o instanceof Entry)) {
+                    return false;
+                }
+                Entry<?, ?> e = (Entry<?, ?>) o;
+                int slot = slotOf(e.getKey());
+                return slot >= 0 && Objects.equals(values[slot], e.getValue());
+            }
+
+            @Override
+            public boolean remove(Object o) {
+                if (contains(o)) {
+                    ArraySymbolMap.this.remove(((Entry<?, ?>) o).getKey());
+                    return true;
+                }
+                return false;
+            }
+
+            @Override
+            public void clear() {
+                ArraySymbolMap.this.clear();
+            }
+        };
+    }
+
+    //**********************************************//
+    //                PRIVATE METHODS               //
+    //**********************************************//
+
+    private void init() {
+        base = 0;
+        keys = EMPTY;
+        values = EMPTY;
+        order = new int[0];
+        size = 0;
+    }
+
+    /**
+     * Returns the slot holding the provided key, or -1 if the key is not in the map.
+     */
+    private int slotOf(Object key) {
+        if (! (key instanceof SymbolKey)) {
+            return -1;
+        }
+        int slot = ((SymbolKey<?>) key).getOrdinal() - base;
+        if (slot < 0 || slot >= keys.length || keys[slot] == null) {
+            return -1;
+        }
+        return key.equals(keys[slot]) ? slot : -1;
+    }
+
+    /**
+     * Grows the slot arrays, if necessary, to cover the provided ordinal, and returns its slot. The arrays at least
+     * double in size, extending in the direction of the new ordinal.
+     */
+    private int ensureSlot(int ordinal) {
+        if (keys.length == 0) {
+            base = ordinal;
+            keys = new Object[INITIAL_CAPACITY];
+            values = new Object[INITIAL_CAPACITY];
+        } else if (ordinal < base || ordinal >= base + keys.length) {
+            int low = Math.min(base, ordinal);
+            int high = Math.max(base + keys.length, ordinal + 1);
+            int length = Math.max(high - low, keys.length * 2);
+            int newBase = (ordinal < base) ? Math.max(0, high - length) : low;
+            length = Math.max(length, high - newBase);
+
+            Object[] newKeys = new Object[length];
+            Object[] newValues = new Object[length];
+            System.arraycopy(keys, 0, newKeys, base - newBase, keys.length);
+            System.arraycopy(values, 0, newValues, base - newBase, values.length);
+            base = newBase;
+            keys = newKeys;
+            values = newValues;
+        }
+        return ordinal - base;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(size);
+        int slot;
+        for (int i = 0; i < size; i++) {
+            slot = order[i] - base;
+            out.writeObject(keys[slot]);
+            out.writeObject(values[slot]);
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        init();
+        int count = in.readInt();
+        Object key;
+        for (int i = 0; i < count; i++) {
+            key = in.readObject();
+            if (! (key instanceof SymbolKey)) {
+                throw new InvalidObjectException("Map key is not a SymbolKey: " + key);
+            }
+            put(castKey(key), in.readObject());
+        }
+    }
+
+    /**
+     * Returns the provided object as a key of this map. The type of {@code K} is erased, so this is only safe for
+     * objects that are known to be keys of this map: keys stored in its arrays, which were all put as {@code K}, and
+     * keys read back from its serialized form, which were written from those arrays.
+     */
+    @SuppressWarnings("unchecked")
+    private K castKey(Object key) {
+        return (K) key;
+    }
+
+    //**********************************************//
+    //                INNER CLASSES                 //
+    //**********************************************//
+
+    private final class EntryIterator implements Iterator<Entry<K, Object>> {
+
+        private int next;
+        private int expectedModCount = modCount;
+        private Node last;
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public Entry<K, Object> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            last = new Node(castKey(keys[order[next++] - base]));
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            ArraySymbolMap.this.remove(last.key);
+            expectedModCount = modCount;
+            next--;
+            last = null;
+        }
+    }
+
+    /**
+     * An entry that reads and writes its value in the map's arrays.
+     */
+    private final class Node implements Entry<K, Object> {
+
+        private final K key;
+
+        Node(K key) {
+            this.key = key;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return ArraySymbolMap.this.get(key);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            return ArraySymbolMap.this.put(key, value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (! (o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            return key.equals(e.getKey()) && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+
+}
@@ -1,5 +1,7 @@
 package org.cirdles.topsoil.symbols;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.function.Function;
 
@@ -10,6 +12,7 @@ public class SimpleSymbolKey<T> implements SymbolKey<T>, Serializable {
     private T defaultValue;
     private Class<T> valueType;
     private Function<T, Object> valueConverter;
+    private transient int ordinal = SymbolKeyRegistry.nextOrdinal();
 
     public SimpleSymbolKey(String prettyTitle, String fieldName, T defaultValue, Class<T> valueType) {
         this(prettyTitle, fieldName, defaultValue, valueType, null);
@@ -51,8 +54,19 @@ public class SimpleSymbolKey<T> implements SymbolKey<T>, Serializable {
         return valueType;
     }
 
+    @Override
+    public int getOrdinal() {
+        return ordinal;
+    }
+
     @Override
     public String toJSONString() {
         return fieldName;
     }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        // A deserialized key is a new key, so it must not share the ordinal of the key it was written from
+        ordinal = SymbolKeyRegistry.nextOrdinal();
+    }
 }
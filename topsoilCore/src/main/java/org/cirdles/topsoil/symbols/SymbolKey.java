@@ -13,6 +13,17 @@ public interface SymbolKey<T> extends JSONString {
 
     Class<T> getType();
 
+    /**
+     * Returns the dense ordinal identifying this key, which is used to index values in an {@link ArraySymbolMap}.
+     * Keys that are equal must have the same ordinal. By default, the ordinal is looked up in the
+     * {@link SymbolKeyRegistry}; implementations should instead reserve one when they are constructed.
+     *
+     * @return  int ordinal
+     */
+    default int getOrdinal() {
+        return SymbolKeyRegistry.getOrdinal(this);
+    }
+
     /**
      * Accepts a value and determines whether or not it is an appropriate value for this {@code SymbolKey}. Can be
      * overridden to support more restrictive matching.
@@ -0,0 +1,43 @@
+package org.cirdles.topsoil.symbols;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assigns each {@link SymbolKey} a dense ordinal, used by {@link ArraySymbolMap} to find a key's value by index.
+ * <p>
+ * Ordinals are assigned in sequence and never reused, so keys created together, such as the columns of a table or the
+ * constants of a class, have neighboring ordinals. Implementations of {@code SymbolKey} should reserve their ordinal
+ * with {@link #nextOrdinal()} when they are constructed; keys that do not are assigned one the first time it is
+ * requested, and held weakly until then.
+ */
+public final class SymbolKeyRegistry {
+
+    private static final AtomicInteger NEXT_ORDINAL = new AtomicInteger();
+    private static final Map<SymbolKey<?>, Integer> ORDINALS = new WeakHashMap<>();
+
+    private SymbolKeyRegistry() {}
+
+    /**
+     * Reserves the next ordinal.
+     *
+     * @return  int ordinal
+     */
+    public static int nextOrdinal() {
+        return NEXT_ORDINAL.getAndIncrement();
+    }
+
+    /**
+     * Returns the ordinal assigned to the provided key, assigning it the next ordinal if it has none.
+     *
+     * @param key   SymbolKey
+     * @return      int ordinal
+     */
+    public static int getOrdinal(SymbolKey<?> key) {
+        synchronized (ORDINALS) {
+            return ORDINALS.computeIfAbsent(key, k -> nextOrdinal());
+        }
+    }
+
+}
@@ -55,6 +55,11 @@ public class IntuitiveStringComparator<T extends CharSequence>
     private int pos1, pos2, len1, len2;
 
     public int compare(T s1, T s2) {
+        // Pooled strings that are equal are the same instance, so repeated values are matched without being scanned
+        if (s1 == s2) {
+            return 0;
+        }
+
         str1 = s1;
         str2 = s2;
         len1 = str1.length();
@@ -0,0 +1,294 @@
+package org.cirdles.topsoil.utils;
+
+/**
+ * Recognizes and converts floating-point numbers in a single pass over their text.
+ * <p>
+ * The accepted syntax is that of {@link Double#valueOf(String)}: optional surrounding whitespace, an optional sign,
+ * and then {@code NaN}, {@code Infinity}, a decimal or scientific value, or a hexadecimal value with a binary
+ * exponent, optionally followed by a float type suffix. Unlike a regular expression check followed by
+ * {@link Double#parseDouble(String)}, the text is only scanned once, and no objects are created unless the value has
+ * more significant digits or a larger exponent than can be converted exactly with {@code double} arithmetic.
+ * <p>
+ * A {@code NumberLexer} holds the result of the last call to {@link #lex(CharSequence)}, so it should be reused by a
+ * single thread rather than shared.
+ */
+public final class NumberLexer {
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final int MAX_MANTISSA_DIGITS = 18;
+    private static final int MAX_EXPONENT = 100000;
+
+    private boolean valid;
+    private double value;
+
+    // Value of the exponent read by the last call to lexExponent(), clamped to +/- MAX_EXPONENT
+    private int exponentValue;
+
+    //**********************************************//
+    //                PUBLIC METHODS                //
+    //**********************************************//
+
+    /**
+     * Lexes the provided text as a number.
+     *
+     * @param text  CharSequence to lex
+     * @return      true if text is a number, in which case its value is available from {@link #doubleValue()}
+     */
+    public boolean lex(CharSequence text) {
+        return lex(text, 0, text.length());
+    }
+
+    /**
+     * Lexes the characters of the provided text between {@code start} (inclusive) and {@code end} (exclusive) as a
+     * number.
+     *
+     * @param text  CharSequence to lex
+     * @param start index of the first character
+     * @param end   index following the last character
+     * @return      true if the range is a number, in which case its value is available from {@link #doubleValue()}
+     */
+    public boolean lex(CharSequence text, int start, int end) {
+        valid = false;
+        value = Double.NaN;
+
+        // Optional leading and trailing whitespace
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return false;
+        }
+
+        int i = start;
+        boolean negative = false;
+        char c = text.charAt(i);
+        if (c == '-' || c == '+') {
+            negative = (c == '-');
+            i++;
+        }
+        if (i == end) {
+            return false;
+        }
+
+        c = text.charAt(i);
+        if (c == 'N') {
+            if (matches(text, i, end, "NaN")) {
+                return accept(Double.NaN);
+            }
+            return false;
+        }
+        if (c == 'I') {
+            if (matches(text, i, end, "Infinity")) {
+                return accept(negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY);
+            }
+            return false;
+        }
+        if (c == '0' && i + 1 < end && (text.charAt(i + 1) == 'x' || text.charAt(i + 1) == 'X')) {
+            return lexHex(text, i + 2, end, negative, start);
+        }
+        return lexDecimal(text, i, end, negative, start);
+    }
+
+    /**
+     * Returns the value of the text passed to the last call to {@link #lex(CharSequence)}.
+     *
+     * @return  double value
+     * @throws IllegalStateException    if the last lexed text was not a number
+     */
+    public double doubleValue() {
+        if (! valid) {
+            throw new IllegalStateException("Last lexed text was not a number.");
+        }
+        return value;
+    }
+
+    //**********************************************//
+    //                PRIVATE METHODS               //
+    //**********************************************//
+
+    private boolean lexDecimal(CharSequence text, int i, int end, boolean negative, int start) {
+        long mantissa = 0;
+        int mantissaDigits = 0;
+        int pendingZeros = 0;   // trailing zeros not yet multiplied into the mantissa
+        int exponent = 0;
+        boolean exact = true;
+        int digits = 0;
+        char c;
+
+        boolean fraction = false;
+        for (; i < end; i++) {
+            c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (fraction) {
+                    exponent--;
+                }
+                if (c == '0') {
+                    if (mantissa != 0) {
+                        pendingZeros++;
+                    }
+                } else if (exact) {
+                    mantissaDigits += pendingZeros + 1;
+                    if (mantissaDigits > MAX_MANTISSA_DIGITS) {
+                        exact = false;
+                    } else {
+                        for (; pendingZeros > 0; pendingZeros--) {
+                            mantissa *= 10;
+                        }
+                        mantissa = mantissa * 10 + (c - '0');
+                    }
+                }
+            } else if (c == '.' && ! fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        exponent += pendingZeros;
+
+        if (i < end && ((c = text.charAt(i)) == 'e' || c == 'E')) {
+            i = lexExponent(text, i + 1, end);
+            if (i < 0) {
+                return false;
+            }
+            exponent += exponentValue;
+        }
+        if (! lexSuffix(text, i, end)) {
+            return false;
+        }
+
+        double result;
+        if (mantissa == 0 && exact) {
+            result = 0.0;
+        } else if (exact && mantissa <= MAX_EXACT_MANTISSA && exponent >= -22 && exponent <= 22) {
+            result = (exponent < 0)
+                    ? mantissa / POWERS_OF_TEN[-exponent]
+                    : mantissa * POWERS_OF_TEN[exponent];
+        } else if (exact && exponent > 22 && exponent <= 22 + 15 && fitsExactly(mantissa, exponent - 22)) {
+            result = (mantissa * (long) POWERS_OF_TEN[exponent - 22]) * POWERS_OF_TEN[22];
+        } else {
+            // Correct rounding requires arbitrary-precision arithmetic
+            return accept(Double.parseDouble(text.subSequence(start, end).toString()));
+        }
+        return accept(negative ? -result : result);
+    }
+
+    private boolean lexHex(CharSequence text, int i, int end, boolean negative, int start) {
+        long mantissa = 0;
+        int exponent = 0;
+        int digits = 0;
+        boolean exact = true;
+        boolean fraction = false;
+        char c;
+        int d;
+        for (; i < end; i++) {
+            c = text.charAt(i);
+            d = Character.digit(c, 16);
+            if (d >= 0 && c < 128) {
+                digits++;
+                if (mantissa == 0 && d == 0) {
+                    if (fraction) {
+                        exponent -= 4;
+                    }
+                    continue;
+                }
+                if (exact && mantissa < (1L << 49)) {
+                    mantissa = (mantissa << 4) | d;
+                    if (fraction) {
+                        exponent -= 4;
+                    }
+                } else {
+                    exact = false;
+                }
+            } else if (c == '.' && ! fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+        // A binary exponent is required for hexadecimal values
+        if (digits == 0 || i == end || ((c = text.charAt(i)) != 'p' && c != 'P')) {
+            return false;
+        }
+        i = lexExponent(text, i + 1, end);
+        if (i < 0 || ! lexSuffix(text, i, end)) {
+            return false;
+        }
+
+        if (! exact) {
+            return accept(Double.parseDouble(text.subSequence(start, end).toString()));
+        }
+        double result = Math.scalb((double) mantissa, exponent + exponentValue);
+        return accept(negative ? -result : result);
+    }
+
+    /**
+     * Reads an optionally signed exponent, returning the index following it, or -1 if there are no digits.
+     */
+    private int lexExponent(CharSequence text, int i, int end) {
+        boolean negative = false;
+        char c;
+        if (i < end && ((c = text.charAt(i)) == '-' || c == '+')) {
+            negative = (c == '-');
+            i++;
+        }
+        int expStart = i;
+        int exp = 0;
+        while (i < end && (c = text.charAt(i)) >= '0' && c <= '9') {
+            if (exp < MAX_EXPONENT) {
+                exp = exp * 10 + (c - '0');
+            }
+            i++;
+        }
+        if (i == expStart) {
+            return -1;
+        }
+        exponentValue = negative ? -exp : exp;
+        return i;
+    }
+
+    private static boolean lexSuffix(CharSequence text, int i, int end) {
+        if (i == end) {
+            return true;
+        }
+        char c = text.charAt(i);
+        return i + 1 == end && (c == 'f' || c == 'F' || c == 'd' || c == 'D');
+    }
+
+    private static boolean fitsExactly(long mantissa, int powerOfTen) {
+        long limit = MAX_EXACT_MANTISSA;
+        for (int p = 0; p < powerOfTen; p++) {
+            limit /= 10;
+        }
+        return mantissa <= limit;
+    }
+
+    private static boolean matches(CharSequence text, int i, int end, String word) {
+        if (end - i != word.length()) {
+            return false;
+        }
+        for (int k = 0; k < word.length(); k++) {
+            if (text.charAt(i + k) != word.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean accept(double result) {
+        value = result;
+        valid = true;
+        return true;
+    }
+
+}
@@ -0,0 +1,104 @@
+package org.cirdles.topsoil.utils;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+
+/**
+ * A pool of canonical {@code String}s, so that text repeated across rows and tables, such as the labels of aliquots and
+ * samples or the values of flag and comment columns, is held in memory only once. Strings that are equal and pooled
+ * are the same instance, so they can be compared by reference.
+ * <p>
+ * Strings are only weakly held, so a pool does not keep the text of a closed table in memory. Pools are safe for use
+ * by multiple threads, such as concurrent imports and the workers of a parallel parse. The strings are divided among
+ * segments by hash, each with its own lock, so that threads interning different strings rarely wait for each other.
+ */
+public class StringPool {
+
+    //**********************************************//
+    //                  CONSTANTS                   //
+    //**********************************************//
+
+    private static final int SEGMENT_COUNT = 16;
+
+    //**********************************************//
+    //                  ATTRIBUTES                  //
+    //**********************************************//
+
+    private static StringPool defaultPool;
+
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+
+    //**********************************************//
+    //                 CONSTRUCTORS                 //
+    //**********************************************//
+
+    public StringPool() {
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    //**********************************************//
+    //                PUBLIC METHODS                //
+    //**********************************************//
+
+    /**
+     * Returns the pool shared by the application, which is used for parsed and deserialized data.
+     *
+     * @return  StringPool
+     */
+    public static synchronized StringPool getDefault() {
+        if (defaultPool == null) {
+            defaultPool = new StringPool();
+        }
+        return defaultPool;
+    }
+
+    /**
+     * Returns the canonical instance of the provided string, adding it to the pool if there is none.
+     *
+     * @param s     String
+     * @return      pooled String equal to {@code s}, or null if {@code s} is null
+     */
+    public String intern(String s) {
+        if (s == null) {
+            return null;
+        }
+        int hash = s.hashCode();
+        Segment segment = segments[(hash ^ (hash >>> 16)) & (SEGMENT_COUNT - 1)];
+        synchronized (segment) {
+            WeakReference<String> ref = segment.strings.get(s);
+            String pooled = (ref != null) ? ref.get() : null;
+            if (pooled == null) {
+                segment.strings.put(s, new WeakReference<>(s));
+                pooled = s;
+            }
+            return pooled;
+        }
+    }
+
+    /**
+     * Returns the number of distinct strings in the pool, which may include strings that are no longer referenced but
+     * have not yet been collected.
+     *
+     * @return  int size
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.strings.size();
+            }
+        }
+        return size;
+    }
+
+    //**********************************************//
+    //                INNER CLASSES                 //
+    //**********************************************//
+
+    private static final class Segment {
+        private final WeakHashMap<String, WeakReference<String>> strings = new WeakHashMap<>();
+    }
+
+}
@@ -1,3 +1,20 @@
+/*
+ * This file is a webpack bundle generated from the TypeScript sources of the Topsoil plotting library, which are not
+ * part of this repository. It has been edited by hand, and the following changes must be made in those sources before
+ * the bundle is regenerated, or they will be lost:
+ *
+ * - src/plots/plot-abstract.ts: plottableData and isValue, which drop entries without an x or y value and default
+ *   missing uncertainties and correlations to 0, applied in the AbstractPlot constructor and data setter.
+ * - src/plots/plot-abstract.ts: the unfiltered _entries, updateDataFromJSON and spliceEntries, which apply the
+ *   changed entries sent by PlotView.recordDataChanges.
+ * - src/plots/plot-abstract.ts: dataFromColumns, decodeBase64 and setDataFromColumns, which decode the packed
+ *   columns of DataColumns.encode; dataFromColumns is re-exported from src/plots/index.ts and src/index.ts.
+ * - src/plots/const.ts: the POINT_BUDGET option.
+ * - src/plots/plot-abstract.ts and src/plots/scatter.ts: the drawnData getters; in scatter.ts, levelOfDetail and zoom
+ *   coalesced with requestAnimationFrame.
+ * - src/features/points.ts, ellipses.ts and error-bars.ts: points, ellipses and error bars draw plot.drawnData rather
+ *   than plot.data.
+ */
 (function webpackUniversalModuleDefinition(root, factory) {
 	if(typeof exports === 'object' && typeof module === 'object')
 		module.exports = factory();
@@ -14152,7 +14169,7 @@ exports.Ellipses = {
         const { ellipses_fill: fill, ellipses_opacity: opacity, uncertainty } = plot.options;
         console.log("uncertaintyE: " + uncertainty + " typeOf: " + typeof uncertainty);
         const layerToDrawOn = plots_1.findLayer(plot, plots_1.Feature.ELLIPSES);
-        const ellipses = layerToDrawOn.selectAll("." + ELLIPSE_CLASS).data(calcEllipses(plot.data, uncertainty));
+        const ellipses = layerToDrawOn.selectAll("." + ELLIPSE_CLASS).data(calcEllipses(plot.drawnData, uncertainty));
         ellipses.exit().remove();
         ellipses
             .enter()
@@ -14246,7 +14263,7 @@ const plots_1 = __webpack_require__(/*! ../plots */ "./src/plots/index.ts");
 const G_CLASS = "error-bars-g", H_LINE_CLASS = "error-bars-h-line", V_LINE_CLASS = "error-bars-v-line", T_CAP_CLASS = "error-bars-t-cap", R_CAP_CLASS = "error-bars-r-cap", B_CAP_CLASS = "error-bars-b-cap", L_CAP_CLASS = "error-bars-l-cap";
 exports.ErrorBars = {
     draw(plot) {
-        const { x: { scale: xScale }, y: { scale: yScale }, data, options: { uncertainty, error_bars_fill: fill, error_bars_opacity: opacity } } = plot;
+        const { x: { scale: xScale }, y: { scale: yScale }, drawnData: data, options: { uncertainty, error_bars_fill: fill, error_bars_opacity: opacity } } = plot;
         console.log("uncertainty: " + uncertainty + " typeOf: " + typeof uncertainty);
         const layerToDrawOn = plots_1.findLayer(plot, plots_1.Feature.ERROR_BARS);
         const validEntries = data.filter(d => {
@@ -14500,7 +14517,7 @@ exports.Points = {
     draw(plot) {
         const { points_fill: fill, points_opacity: opacity } = plot.options;
         const layerToDrawOn = plots_1.findLayer(plot, plots_1.Feature.POINTS);
-        const points = layerToDrawOn.selectAll("." + POINT_CLASS).data(plot.data);
+        const points = layerToDrawOn.selectAll("." + POINT_CLASS).data(plot.drawnData);
         points.exit().remove();
         points
             .enter()
@@ -15389,6 +15406,7 @@ exports.ScatterPlot = plots_1.ScatterPlot;
 exports.Variable = plots_1.Variable;
 exports.Option = plots_1.Option;
 exports.Feature = plots_1.Feature;
+exports.dataFromColumns = plots_1.dataFromColumns;
 
 
 /***/ }),
@@ -15431,6 +15449,7 @@ var Option;
     Option["LAMBDA_238"] = "lambda_238";
     Option["R238_235S"] = "R238_235S";
     Option["SHOW_UNINCLUDED"] = "show_unincluded";
+    Option["POINT_BUDGET"] = "point_budget";
     Option["POINTS"] = "points";
     Option["POINTS_FILL"] = "points_fill";
     Option["POINTS_OPACITY"] = "points_opacity";
@@ -15479,6 +15498,8 @@ function __export(m) {
 Object.defineProperty(exports, "__esModule", { value: true });
 var scatter_1 = __webpack_require__(/*! ./scatter */ "./src/plots/scatter.ts");
 exports.ScatterPlot = scatter_1.default;
+var plot_abstract_1 = __webpack_require__(/*! ./plot-abstract */ "./src/plots/plot-abstract.ts");
+exports.dataFromColumns = plot_abstract_1.dataFromColumns;
 __export(__webpack_require__(/*! ./const */ "./src/plots/const.ts"));
 __export(__webpack_require__(/*! ./plot */ "./src/plots/plot.ts"));
 
@@ -15505,7 +15526,8 @@ class AbstractPlot {
             bottom: 75,
             left: 75
         };
-        this._data = data;
+        this._entries = data;
+        this._data = plottableData(data);
         this._options = options;
         // Create plot containers
         const { width, height } = this.root.getBoundingClientRect();
@@ -15561,13 +15583,29 @@ class AbstractPlot {
     get data() {
         return this._data;
     }
+    // The entries to draw, which may be fewer than the data
+    get drawnData() {
+        return this._data;
+    }
     set data(data) {
-        this._data = data;
+        this._entries = data;
+        this._data = plottableData(data);
         this.update();
     }
     setDataFromJSON(data) {
         this.data = JSON.parse(data);
     }
+    setDataFromColumns(columns) {
+        this.data = dataFromColumns(columns);
+    }
+    // Applies changes to the data as splices of the full list of entries, including those that cannot be drawn
+    updateDataFromJSON(changes) {
+        JSON.parse(changes).forEach(change => {
+            spliceEntries(this._entries, change.from, change.removed, change.added);
+        });
+        this._data = plottableData(this._entries);
+        this.update();
+    }
     get options() {
         return this._options;
     }
@@ -15637,6 +15675,66 @@ class AbstractPlot {
     }
 }
 exports.default = AbstractPlot;
+const NUMBER_KEYS = ["x", "sigma_x", "y", "sigma_y", "rho"];
+const TEXT_KEYS = ["label", "aliquot"];
+const FLAG_KEYS = ["selected", "visible"];
+// Decodes data sent as columns rather than entries: numbers as base64 little-endian float64 arrays, in which NaN is a
+// missing value, flags as base64 bitsets, and text as arrays
+function dataFromColumns(json) {
+    const columns = JSON.parse(json);
+    const numbers = NUMBER_KEYS.map(key => new Float64Array(decodeBase64(columns[key]).buffer));
+    const flags = FLAG_KEYS.map(key => decodeBase64(columns[key]));
+    const data = new Array(columns.length);
+    for (let i = 0; i < columns.length; i++) {
+        const entry = {};
+        NUMBER_KEYS.forEach((key, k) => {
+            if (!isNaN(numbers[k][i]))
+                entry[key] = numbers[k][i];
+        });
+        TEXT_KEYS.forEach(key => {
+            if (columns[key][i] !== null)
+                entry[key] = columns[key][i];
+        });
+        FLAG_KEYS.forEach((key, k) => {
+            entry[key] = (flags[k][i >> 3] & (1 << (i & 7))) !== 0;
+        });
+        data[i] = entry;
+    }
+    return data;
+}
+exports.dataFromColumns = dataFromColumns;
+function decodeBase64(base64) {
+    const chars = atob(base64);
+    const bytes = new Uint8Array(chars.length);
+    for (let i = 0; i < chars.length; i++) {
+        bytes[i] = chars.charCodeAt(i);
+    }
+    return bytes;
+}
+// Entries that are missing an x or y value cannot be drawn; missing uncertainties and correlations are zero
+function plottableData(data) {
+    const plottable = data.filter(d => isValue(d.x) && isValue(d.y));
+    plottable.forEach(d => {
+        d.sigma_x = isValue(d.sigma_x) ? d.sigma_x : 0;
+        d.sigma_y = isValue(d.sigma_y) ? d.sigma_y : 0;
+        d.rho = isValue(d.rho) ? d.rho : 0;
+    });
+    return plottable;
+}
+// Like Array.prototype.splice, without passing each added entry as an argument
+function spliceEntries(entries, from, removed, added) {
+    if (removed === added.length) {
+        added.forEach((entry, i) => entries[from + i] = entry);
+        return;
+    }
+    const tail = entries.splice(from + removed, entries.length - from - removed);
+    entries.length = from;
+    added.forEach(entry => entries.push(entry));
+    tail.forEach(entry => entries.push(entry));
+}
+function isValue(value) {
+    return typeof value === "number" && isFinite(value);
+}
 function constructLayerMap(parent, layers) {
     if (!parent)
         throw Error("A parent selection must be provided.");
@@ -15747,8 +15845,14 @@ class ScatterPlot extends plot_abstract_1.default {
             .zoom()
             .x(this.x.scale)
             .y(this.y.scale);
+        // Redraws at most once per frame while panning and zooming
         this.zoom.on("zoom", () => {
-            this.update();
+            if (this.zoomFrame)
+                return;
+            this.zoomFrame = requestAnimationFrame(() => {
+                this.zoomFrame = null;
+                this.update();
+            });
         });
         this.zoom.on("zoomend", () => {
             if (this.onZoomEnd)
@@ -15793,8 +15897,21 @@ class ScatterPlot extends plot_abstract_1.default {
         }
         selector.text(text);
     }
+    get drawnData() {
+        return this._drawnData;
+    }
     update() {
         this.resize();
+        // The entries to draw are only chosen again if the data, viewport, or options that affect them have changed
+        const xDomain = this.x.scale.domain(), yDomain = this.y.scale.domain(), drawnKey = [
+            this.data, xDomain[0], xDomain[1], yDomain[0], yDomain[1], this.canvasWidth, this.canvasHeight,
+            this.options["point_budget" /* POINT_BUDGET */], this.options["uncertainty" /* UNCERTAINTY */],
+            this.options["show_unincluded" /* SHOW_UNINCLUDED */]
+        ];
+        if (!this._drawnKey || drawnKey.some((value, i) => value !== this._drawnKey[i])) {
+            this._drawnData = levelOfDetail(this);
+            this._drawnKey = drawnKey;
+        }
         let rightText = this.rightTextSVGElement;
         this.updateRightText(rightText);
         this.displayContainer
@@ -15906,6 +16023,58 @@ class ScatterPlot extends plot_abstract_1.default {
     }
 }
 exports.default = ScatterPlot;
+const DEFAULT_POINT_BUDGET = 20000;
+// Chooses the entries to draw, so that large data sets can be panned and zoomed smoothly. If there are more entries than
+// the point budget, only those whose uncertainties reach into the viewport are drawn, and if there are still more than
+// the budget, the canvas is divided into square bins, about as many as the budget, and only the most significant entry
+// in each bin is drawn: the one with the largest uncertainty ellipse. Included and unincluded entries are binned apart,
+// so that every drawn bin shows the right selection state. Zooming in until no more than the budget are in view draws
+// every entry in view.
+function levelOfDetail(plot) {
+    const data = plot.data;
+    const budget = plot.options["point_budget" /* POINT_BUDGET */] > 0 ?
+        plot.options["point_budget" /* POINT_BUDGET */] : DEFAULT_POINT_BUDGET;
+    if (data.length <= budget)
+        return data;
+    const xDomain = plot.x.scale.domain(), yDomain = plot.y.scale.domain(), xMin = Math.min(xDomain[0], xDomain[1]), xMax = Math.max(xDomain[0], xDomain[1]), yMin = Math.min(yDomain[0], yDomain[1]), yMax = Math.max(yDomain[0], yDomain[1]), uncertainty = plot.options["uncertainty" /* UNCERTAINTY */] || 1, showUnincluded = plot.options["show_unincluded" /* SHOW_UNINCLUDED */];
+    const isInView = d => {
+        const sigmaX = uncertainty * d.sigma_x, sigmaY = uncertainty * d.sigma_y;
+        return (d.selected || showUnincluded) &&
+            d.x + sigmaX >= xMin && d.x - sigmaX <= xMax && d.y + sigmaY >= yMin && d.y - sigmaY <= yMax;
+    };
+    let inViewCount = 0, selectedCount = 0;
+    for (let i = 0; i < data.length; i++) {
+        if (isInView(data[i])) {
+            inViewCount++;
+            if (data[i].selected)
+                selectedCount++;
+        }
+    }
+    if (inViewCount <= budget)
+        return data.filter(isInView);
+    // Bins are made larger when entries of both selection states are in view, since each bin may then draw two
+    const states = (selectedCount > 0 && selectedCount < inViewCount) ? 2 : 1, binSize = Math.max(1, Math.sqrt(states * plot.canvasWidth * plot.canvasHeight / budget)), columns = Math.max(1, Math.ceil(plot.canvasWidth / binSize)), rows = Math.max(1, Math.ceil(plot.canvasHeight / binSize));
+    // The scales are linear, so bins are computed from the domains rather than by calling the scales for each entry
+    const xRange = plot.x.scale.range(), yRange = plot.y.scale.range(), xFactor = (xRange[1] - xRange[0]) / (xDomain[1] - xDomain[0]) / binSize, yFactor = (yRange[1] - yRange[0]) / (yDomain[1] - yDomain[0]) / binSize, xOffset = xRange[0] / binSize - xDomain[0] * xFactor, yOffset = yRange[0] / binSize - yDomain[0] * yFactor;
+    const bins = new Int32Array(columns * rows * 2).fill(-1), significance = new Float64Array(bins.length);
+    for (let i = 0; i < data.length; i++) {
+        const d = data[i];
+        if (!isInView(d))
+            continue;
+        // Entries centered outside of the viewport are binned at its edge
+        const column = Math.min(Math.max(Math.floor(d.x * xFactor + xOffset), 0), columns - 1), row = Math.min(Math.max(Math.floor(d.y * yFactor + yOffset), 0), rows - 1), bin = (row * columns + column) * 2 + (d.selected ? 1 : 0), area = d.sigma_x * d.sigma_y;
+        if (bins[bin] < 0 || area > significance[bin]) {
+            bins[bin] = i;
+            significance[bin] = area;
+        }
+    }
+    const drawn = [];
+    for (let b = 0; b < bins.length; b++) {
+        if (bins[b] >= 0)
+            drawn.push(data[bins[b]]);
+    }
+    return drawn;
+}
 
 
 /***/ }),
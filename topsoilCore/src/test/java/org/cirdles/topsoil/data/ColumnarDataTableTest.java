@@ -0,0 +1,136 @@
+package org.cirdles.topsoil.data;
+
+import org.cirdles.topsoil.Variable;
+import org.cirdles.topsoil.file.parser.DataParser;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ColumnarDataTableTest {
+
+    @Test
+    public void parseDataTable_columnar_test() throws IOException {
+        Path path = Files.createTempFile("topsoil", ".csv");
+        try {
+            for (DataTemplate template : DataTemplate.values()) {
+                TableAssert.copyExample(template, path);
+                DataTable eager = template.getParser().parseDataTable(path, ",", "table");
+                DataParser parser = template.getParser();
+                parser.setColumnarStorage(true);
+                DataTable columnar = parser.parseDataTable(path, ",", "table");
+
+                assertTrue(columnar instanceof ColumnarDataTable);
+                List<? extends DataColumn<?>> eagerColumns = eager.getLeafColumns();
+                List<? extends DataColumn<?>> columnarColumns = columnar.getLeafColumns();
+                TableAssert.assertSameValues(eager, columnar);
+
+                // Plot data is read from the arrays, but should be the same as for any other table, including for a
+                // percent uncertainty whose dependency is not mapped
+                for (Uncertainty uncertainty :
+                        Arrays.asList(Uncertainty.ONE_SIGMA_ABSOLUTE, Uncertainty.ONE_SIGMA_PERCENT)) {
+                    eager.setUncertainty(uncertainty);
+                    columnar.setUncertainty(uncertainty);
+                    for (List<Variable<?>> variables : Arrays.<List<Variable<?>>>asList(
+                            Arrays.asList(Variable.X, Variable.SIGMA_X, Variable.Y),
+                            Arrays.asList(Variable.X, Variable.SIGMA_X, Variable.SIGMA_Y))) {
+                        Map<Variable<?>, DataColumn<?>> eagerMap = new HashMap<>();
+                        Map<Variable<?>, DataColumn<?>> columnarMap = new HashMap<>();
+                        int v = 0;
+                        for (int c = 0; c < eagerColumns.size() && v < variables.size(); c++) {
+                            if (eagerColumns.get(c).getType() == Number.class) {
+                                eagerMap.put(variables.get(v), eagerColumns.get(c));
+                                columnarMap.put(variables.get(v), columnarColumns.get(c));
+                                v++;
+                            }
+                        }
+                        assertEquals(
+                                TableUtils.getPlotData(eager, eagerMap),
+                                TableUtils.getPlotData(columnar, columnarMap)
+                        );
+                    }
+                }
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void copyOf_test() {
+        DataColumn<Number> x = new SimpleDataColumn<>("x", true, 0.0, Number.class);
+        DataColumn<String> label = new SimpleDataColumn<>("label", true, "", String.class);
+        SimpleDataRow row1 = new SimpleDataRow("row1");
+        row1.setValueForColumn(x, 1.5);
+        row1.setValueForColumn(label, "a");
+        SimpleDataRow row2 = new SimpleDataRow("row2", false);
+        row2.setValueForColumn(label, "a");
+        SimpleDataRow parent = new SimpleDataRow("parent");
+        parent.addChild(row1);
+        parent.addChild(row2);
+        ColumnarDataTable table = ColumnarDataTable.copyOf(new SimpleDataTable(
+                DataTemplate.DEFAULT, "table", Arrays.asList(x, label), Arrays.asList(parent)
+        ));
+
+        assertEquals(3, table.getRowCount());
+        List<? extends DataRow> rows = table.getLeafRows();
+        assertEquals(2, rows.size());
+        assertEquals(1.5, rows.get(0).getValueForColumn(x));
+        assertEquals("a", rows.get(0).getValueForColumn(label));
+        assertNull(rows.get(1).getValueForColumn(x));
+        assertEquals("a", rows.get(1).getValueForColumn(label));
+        assertFalse(rows.get(1).isSelected());
+        Map<? extends DataColumn<?>, Object> values = rows.get(1).getColumnValueMap();
+        assertEquals(1, values.size());
+        assertFalse(values.containsKey(x));
+
+        rows.get(1).setValueForColumn(x, 2.5);
+        rows.get(0).setValueForColumn(label, null);
+        assertEquals(2.5, rows.get(1).getValueForColumn(x));
+        assertNull(rows.get(0).getValueForColumn(label));
+        // The map is a view of the row's values
+        assertEquals(2, values.size());
+        assertEquals(2.5, values.get(x));
+    }
+
+    @Test
+    public void trimToSize_sparse_test() {
+        DataColumn<Number> x = new SimpleDataColumn<>("x", true, 0.0, Number.class);
+        DataColumn<Number> y = new SimpleDataColumn<>("y", true, 0.0, Number.class);
+        ColumnarDataTable table = new ColumnarDataTable(DataTemplate.DEFAULT, "table", Arrays.asList(x, y));
+        for (int i = 0; i < 100; i++) {
+            ColumnarDataRow row = table.createRow("row" + i);
+            table.setDouble(row.getIndex(), 0, i);
+            if (i % 10 == 3) {
+                table.setDouble(row.getIndex(), 1, -i);
+            }
+            table.getRows().add(row);
+        }
+        table.trimToSize();
+
+        assertFalse(table.isSparse(0));
+        assertTrue(table.isSparse(1));
+        assertTrue(table.hasValue(13, 1));
+        assertFalse(table.hasValue(14, 1));
+        assertEquals(-13.0, table.getValue(13, 1));
+        assertNull(table.getValue(14, 1));
+
+        // Changing an existing value keeps the column sparse, but adding a value does not
+        table.setDouble(13, 1, 1.0);
+        assertTrue(table.isSparse(1));
+        table.setValue(14, 1, 2.0);
+        assertFalse(table.isSparse(1));
+        assertEquals(1.0, table.getValue(13, 1));
+        assertEquals(2.0, table.getValue(14, 1));
+        assertEquals(-93.0, table.getValue(93, 1));
+        assertNull(table.getValue(15, 1));
+    }
+
+}
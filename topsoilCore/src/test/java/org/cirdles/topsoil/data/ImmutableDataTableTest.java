@@ -0,0 +1,58 @@
+package org.cirdles.topsoil.data;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ImmutableDataTableTest {
+
+    @Test
+    public void copyOf_test() {
+        SimpleDataColumn<Number> x = new SimpleDataColumn<>("x", true, 0.0, Number.class);
+        SimpleDataColumn<String> label = new SimpleDataColumn<>("label", true, "", String.class);
+        SimpleDataRow child = new SimpleDataRow("child");
+        child.setValueForColumn(x, 1.5);
+        child.setValueForColumn(label, "one");
+        SimpleDataRow parent = new SimpleDataRow("parent", true, child);
+        SimpleDataTable table = new SimpleDataTable(
+                DataTemplate.DEFAULT, "table", Arrays.asList(new SimpleDataColumn<>("group", true, x), label),
+                Arrays.asList(parent)
+        );
+        table.setUncertainty(Uncertainty.TWO_SIGMA_PERCENT);
+
+        ImmutableDataTable copy = ImmutableDataTable.copyOf(table);
+        assertSame(copy, ImmutableDataTable.copyOf(copy));
+        assertEquals("table", copy.getTitle());
+        assertEquals(Uncertainty.TWO_SIGMA_PERCENT, copy.getUncertainty());
+
+        // Values are mapped by the copies of their columns
+        DataColumn<?> xCopy = copy.findColumn("x");
+        assertNotSame(x, xCopy);
+        assertEquals(1, copy.indexOfLeafColumn(copy.findColumn("label")));
+        DataRow childCopy = copy.findRow("child");
+        assertEquals(1.5, childCopy.getColumnValueMap().get(xCopy));
+        assertEquals(0, copy.indexOfLeafRow(childCopy));
+
+        // Later changes to the source are not seen by the copy
+        child.setValueForColumn(x, 2.5);
+        table.getRows().add(new SimpleDataRow("other"));
+        assertEquals(1.5, childCopy.getColumnValueMap().get(xCopy));
+        assertEquals(1, copy.getRows().size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void setValueForColumn_test() {
+        SimpleDataColumn<Number> x = new SimpleDataColumn<>("x", true, 0.0, Number.class);
+        List<DataColumn<?>> columns = Arrays.asList(x);
+        List<DataRow> rows = Arrays.asList(new SimpleDataRow("row"));
+        ImmutableDataTable copy = ImmutableDataTable.copyOf(
+                new SimpleDataTable(DataTemplate.DEFAULT, "table", columns, rows)
+        );
+        // A copied row rejects a value for any column, so the source column is enough to check this
+        copy.getRows().get(0).setValueForColumn(x, 1.0);
+    }
+
+}
@@ -0,0 +1,60 @@
+package org.cirdles.topsoil.data;
+
+import org.cirdles.topsoil.file.parser.DataParser;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class LazyDataTableTest {
+
+    @Test
+    public void parseDataTable_lazy_test() throws IOException {
+        Path path = Files.createTempFile("topsoil", ".csv");
+        try {
+            for (DataTemplate template : DataTemplate.values()) {
+                TableAssert.copyExample(template, path);
+                DataTable eager = template.getParser().parseDataTable(path, ",", "table");
+                DataParser parser = template.getParser();
+                parser.setLazyDecoding(true);
+                DataTable lazy = parser.parseDataTable(path, ",", "table");
+
+                assertTrue(lazy instanceof LazyDataTable);
+                TableAssert.assertSameValues(eager, lazy);
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void setValueForColumn_test() {
+        DataColumn<Number> x = new SimpleDataColumn<>("x", true, 0.0, Number.class);
+        DataColumn<String> label = new SimpleDataColumn<>("label", true, "", String.class);
+        DataColumn<Number> other = new SimpleDataColumn<>("other", true, 0.0, Number.class);
+        LazyDataTable table = new LazyDataTable(DataTemplate.DEFAULT, "table", Arrays.asList(x, label));
+        table.getText().append("1.5").append("one").append("oops");
+        LazyDataRow row = table.createRow("row1", new int[]{ 0, 3, 6 });
+        LazyDataRow invalid = table.createRow("row2", new int[]{ 6, 10, 10 });
+
+        assertEquals(1.5, row.getValueForColumn(x));
+        assertEquals("one", row.getValueForColumn(label));
+        assertNull(invalid.getValueForColumn(x));
+        assertEquals("", invalid.getValueForColumn(label));
+
+        row.setValueForColumn(x, 2.5);
+        row.setValueForColumn(label, null);
+        row.setValueForColumn(other, 3.5);
+        assertEquals(2.5, row.getValueForColumn(x));
+        assertNull(row.getValueForColumn(label));
+        assertEquals(3.5, row.getValueForColumn(other));
+        assertEquals(2, row.getColumnValueMap().size());
+        assertEquals(3.5, row.getColumnValueMap().get(other));
+        assertFalse(row.getColumnValueMap().containsKey(label));
+    }
+
+}
@@ -0,0 +1,56 @@
+package org.cirdles.topsoil.data;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.ListIterator;
+
+import static org.junit.Assert.*;
+
+public class SimpleDataTableTest {
+
+    @Test
+    public void leafColumns_cache_test() {
+        SimpleDataColumn<?> a = new SimpleDataColumn<>("a", true, 0.0, Number.class);
+        SimpleDataColumn<?> b = new SimpleDataColumn<>("b", true, 0.0, Number.class);
+        SimpleDataColumn<?> c = new SimpleDataColumn<>("c", true, 0.0, Number.class);
+        SimpleDataTable table = new SimpleDataTable(
+                DataTemplate.DEFAULT, "table", Arrays.asList(new SimpleDataColumn<>("group", true, a, b)), null
+        );
+
+        List<DataColumn<?>> leaves = table.getLeafColumns();
+        assertEquals(Arrays.asList(a, b), leaves);
+        assertSame(leaves, table.getLeafColumns());
+        assertEquals(1, table.indexOfLeafColumn(b));
+        assertEquals(-1, table.indexOfLeafColumn(c));
+
+        // Modifying the list of columns discards the cache
+        table.getColumns().set(0, c);
+        assertEquals(Arrays.asList(c), table.getLeafColumns());
+        assertEquals(0, table.indexOfLeafColumn(c));
+        assertEquals(-1, table.indexOfLeafColumn(a));
+    }
+
+    @Test
+    public void leafRows_replaceWhileIterating_test() {
+        SimpleDataRow a = new SimpleDataRow("a");
+        SimpleDataRow b = new SimpleDataRow("b");
+        SimpleDataTable table = new SimpleDataTable(DataTemplate.DEFAULT, "table", null, Arrays.asList(a, b));
+        assertEquals(Arrays.asList(a, b), table.getLeafRows());
+
+        // Replacing rows is not a structural modification, so it does not disturb iteration
+        List<DataRow> rows = table.getRows();
+        for (ListIterator<DataRow> iterator = rows.listIterator(); iterator.hasNext(); ) {
+            iterator.set(new SimpleDataRow(iterator.next().getTitle() + "2"));
+        }
+        int i = 0;
+        for (DataRow row : rows) {
+            rows.set(i++, row);
+        }
+
+        assertEquals("a2", table.getLeafRows().get(0).getTitle());
+        assertEquals(-1, table.indexOfLeafRow(b));
+    }
+
+}
@@ -0,0 +1,58 @@
+package org.cirdles.topsoil.data;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Assertions shared by the tests of the different kinds of {@link DataTable}.
+ */
+final class TableAssert {
+
+    private TableAssert() {}
+
+    /**
+     * Copies the example data for a template to the provided path.
+     *
+     * @param template  DataTemplate
+     * @param path      Path to copy the example to
+     */
+    static void copyExample(DataTemplate template, Path path) throws IOException {
+        try (InputStream in = DataTemplate.class.getResourceAsStream(
+                (template == DataTemplate.SQUID_3) ? "squid3-example.csv" : "upb-example.csv")) {
+            Files.copy(in, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Asserts that a table has the same rows, with the same titles and values, as a table parsed eagerly from the
+     * same data. Columns are matched by their position among the leaf columns of each table.
+     *
+     * @param eager     DataTable parsed eagerly
+     * @param other     DataTable to compare
+     */
+    static void assertSameValues(DataTable eager, DataTable other) {
+        List<? extends DataColumn<?>> eagerColumns = eager.getLeafColumns();
+        List<? extends DataColumn<?>> otherColumns = other.getLeafColumns();
+        List<? extends DataRow> eagerRows = eager.getLeafRows();
+        List<? extends DataRow> otherRows = other.getLeafRows();
+        assertEquals(eagerColumns.size(), otherColumns.size());
+        assertEquals(eager.getRows().size(), other.getRows().size());
+        assertEquals(eagerRows.size(), otherRows.size());
+        for (int r = 0; r < eagerRows.size(); r++) {
+            assertEquals(eagerRows.get(r).getTitle(), otherRows.get(r).getTitle());
+            for (int c = 0; c < eagerColumns.size(); c++) {
+                assertEquals(
+                        eagerRows.get(r).getValueForColumn(eagerColumns.get(c)),
+                        otherRows.get(r).getValueForColumn(otherColumns.get(c))
+                );
+            }
+        }
+    }
+
+}
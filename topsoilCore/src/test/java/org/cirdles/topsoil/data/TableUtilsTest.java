@@ -0,0 +1,66 @@
+package org.cirdles.topsoil.data;
+
+import org.cirdles.topsoil.Variable;
+import org.cirdles.topsoil.plot.DataEntry;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class TableUtilsTest {
+
+    @Test
+    public void indexByTitle_test() {
+        // Titles repeat at different depths, so the index must keep the same first match as a search
+        SimpleDataColumn<?> a1 = new SimpleDataColumn<>("a", true, 0.0, Number.class);
+        SimpleDataColumn<?> b1 = new SimpleDataColumn<>("b", true, 0.0, Number.class);
+        SimpleDataColumn<?> c1 = new SimpleDataColumn<>("c", true, 0.0, Number.class);
+        SimpleDataColumn<?> deep = new SimpleDataColumn<>("deep", true, c1);
+        SimpleDataColumn<?> first = new SimpleDataColumn<>("first", true, a1, deep);
+        SimpleDataColumn<?> c2 = new SimpleDataColumn<>("c", true, 0.0, Number.class);
+        SimpleDataColumn<?> a2 = new SimpleDataColumn<>("a", true, 0.0, Number.class);
+        SimpleDataColumn<?> second = new SimpleDataColumn<>("second", true, c2, a2, b1);
+        List<DataColumn<?>> columns = Arrays.asList(first, second);
+
+        Map<String, DataColumn<?>> index = TableUtils.indexByTitle(columns);
+        for (String title : Arrays.asList("a", "b", "c", "deep", "first", "second", "missing")) {
+            assertSame(TableUtils.findIn(title, columns), index.get(title));
+        }
+        assertSame(c1, index.get("c"));
+        assertSame(a1, index.get("a"));
+    }
+
+    @Test
+    public void getPlotData_missing_test() {
+        SimpleDataColumn<Number> x = new SimpleDataColumn<>("x", true, 0.0, Number.class);
+        SimpleDataColumn<Number> sigmaX = new SimpleDataColumn<>("sigmaX", true, 0.0, Number.class);
+        SimpleDataRow complete = new SimpleDataRow("complete");
+        complete.setValueForColumn(x, 0.0);
+        complete.setValueForColumn(sigmaX, 10.0);
+        SimpleDataRow missing = new SimpleDataRow("missing");
+        missing.setValueForColumn(sigmaX, 10.0);
+        SimpleDataTable table = new SimpleDataTable(
+                DataTemplate.DEFAULT, "table", Arrays.asList(x, sigmaX), Arrays.asList(complete, missing)
+        );
+        table.setUncertainty(Uncertainty.ONE_SIGMA_PERCENT);
+        Map<Variable<?>, DataColumn<?>> variableMap = new HashMap<>();
+        variableMap.put(Variable.X, x);
+        variableMap.put(Variable.SIGMA_X, sigmaX);
+
+        for (DataTable t : Arrays.asList(table, ColumnarDataTable.copyOf(table))) {
+            List<DataEntry> entries = TableUtils.getPlotData(t, variableMap);
+            // A real zero is kept, while a missing value and the percent uncertainty depending on it are left out
+            assertEquals(0.0, entries.get(0).get(Variable.X));
+            assertEquals(0.0, entries.get(0).get(Variable.SIGMA_X));
+            assertFalse(entries.get(1).containsKey(Variable.X));
+            assertFalse(entries.get(1).containsKey(Variable.SIGMA_X));
+            // Variables that are not mapped still have their default values
+            assertEquals(Variable.Y.getDefaultValue(), entries.get(1).get(Variable.Y));
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+package org.cirdles.topsoil.file;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class DelimitedTokenizerTest {
+
+    static String QUOTED_CONTENT = "name, value ,note\r\n" +
+            "\"Smith, J.\",1.5,\"said \"\"hi\"\"\"\n" +
+            "\" spaced \", \"2.5\" ,\"multi\nline\"\n" +
+            "a\"b,,\n";
+
+    @Test
+    public void tokenize_test() {
+        DelimitedTokenizer tokenizer = new DelimitedTokenizer(",");
+        int next = tokenizer.tokenize(QUOTED_CONTENT, 0, QUOTED_CONTENT.length(), true);
+        assertArrayEquals(new String[]{ "name", "value", "note" }, tokenizer.getCells(QUOTED_CONTENT));
+
+        next = tokenizer.tokenize(QUOTED_CONTENT, next, QUOTED_CONTENT.length(), true);
+        assertArrayEquals(new String[]{ "Smith, J.", "1.5", "said \"hi\"" }, tokenizer.getCells(QUOTED_CONTENT));
+        assertTrue(tokenizer.isEscaped(2));
+
+        next = tokenizer.tokenize(QUOTED_CONTENT, next, QUOTED_CONTENT.length(), true);
+        assertArrayEquals(new String[]{ " spaced ", "2.5", "multi\nline" }, tokenizer.getCells(QUOTED_CONTENT));
+
+        next = tokenizer.tokenize(QUOTED_CONTENT, next, QUOTED_CONTENT.length(), true);
+        assertArrayEquals(new String[]{ "a\"b", "", "" }, tokenizer.getCells(QUOTED_CONTENT));
+        assertEquals(QUOTED_CONTENT.length(), next);
+    }
+
+    @Test
+    public void tokenize_incomplete_test() {
+        DelimitedTokenizer tokenizer = new DelimitedTokenizer("::");
+        String content = "a::\"b\nc\"::d";
+        assertEquals(-1, tokenizer.tokenize(content, 0, content.length() - 2, false));
+        assertEquals(-1, tokenizer.tokenize(content, 0, content.length(), false));
+        assertEquals(content.length(), tokenizer.tokenize(content, 0, content.length(), true));
+        assertArrayEquals(new String[]{ "a", "b\nc", "d" }, tokenizer.getCells(content));
+    }
+
+    @Test
+    public void readers_test() throws IOException {
+        Path path = Files.createTempFile("topsoil", ".csv");
+        try {
+            Files.write(path, QUOTED_CONTENT.getBytes(StandardCharsets.UTF_8));
+            try (RecordReader mapped = new MappedRecordReader(path, ",");
+                 RecordReader delimited = new DelimitedReader(new StringReader(QUOTED_CONTENT), ",")) {
+                while (delimited.next()) {
+                    assertTrue(mapped.next());
+                    assertArrayEquals(delimited.getCells(), mapped.getCells());
+                }
+                assertFalse(mapped.next());
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+}
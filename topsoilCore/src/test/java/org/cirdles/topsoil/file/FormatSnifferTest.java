@@ -0,0 +1,83 @@
+package org.cirdles.topsoil.file;
+
+import org.cirdles.topsoil.data.DataTemplate;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import static org.junit.Assert.*;
+
+public class FormatSnifferTest {
+
+    private Path path;
+
+    @Before
+    public void setUp() throws IOException {
+        path = Files.createTempFile("topsoil", ".txt");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    public void sniff_default_test() throws IOException {
+        copyResource("upb-example.csv");
+        DataFormat format = FormatSniffer.sniff(path);
+
+        assertTrue(format.hasByteOrderMark());
+        assertEquals(StandardCharsets.UTF_8, format.getCharset());
+        assertEquals(Delimiter.COMMA, format.getDelimiter());
+        assertEquals(DataTemplate.DEFAULT, format.getTemplate());
+        assertEquals(1, format.getHeaderRowCount());
+        assertEquals(5, format.getColumnTypes().size());
+        assertEquals(Number.class, format.getColumnTypes().get(0));
+        assertFalse(format.isEmpty());
+    }
+
+    @Test
+    public void sniff_squid3_test() throws IOException {
+        copyResource("squid3-example.csv");
+        DataFormat format = FormatSniffer.sniff(path);
+
+        assertTrue(Files.size(path) > FormatSniffer.PREFIX_SIZE);
+        assertEquals(Delimiter.COMMA, format.getDelimiter());
+        assertEquals(DataTemplate.SQUID_3, format.getTemplate());
+        assertEquals(5, format.getHeaderRowCount());
+        assertEquals(String.class, format.getColumnTypes().get(0));
+    }
+
+    @Test
+    public void sniff_String_test() {
+        DataFormat format = FormatSniffer.sniff("a\tb\n1.0\tx\n2.0\ty\n");
+
+        assertEquals(Delimiter.TAB, format.getDelimiter());
+        assertEquals(1, format.getHeaderRowCount());
+        assertEquals(Number.class, format.getColumnTypes().get(0));
+        assertEquals(String.class, format.getColumnTypes().get(1));
+    }
+
+    @Test
+    public void sniff_empty_test() throws IOException {
+        Files.write(path, "\n  \n".getBytes(StandardCharsets.UTF_8));
+        DataFormat format = FormatSniffer.sniff(path);
+
+        assertTrue(format.isEmpty());
+        assertNull(format.getDelimiter());
+    }
+
+    private void copyResource(String name) throws IOException {
+        try (InputStream in = DataTemplate.class.getResourceAsStream(name)) {
+            Files.copy(in, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package org.cirdles.topsoil.file;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class MappedRecordReaderTest {
+
+    private Path path;
+
+    @Before
+    public void setUp() throws IOException {
+        path = Files.createTempFile("topsoil", ".txt");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    public void next_test() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(new byte[]{ (byte) 0xEF, (byte) 0xBB, (byte) 0xBF });
+        bytes.write("a ;; b;;c\r\n\r\n1.5;;-2e3;; \r3;;x\n  \n4;;5;;6".getBytes(StandardCharsets.UTF_8));
+        Files.write(path, bytes.toByteArray());
+
+        try (RecordReader records = TopsoilFileUtils.openRecordReader(path, ";;")) {
+            assertTrue(records instanceof MappedRecordReader);
+            assertEquals(2, records.lookAhead(2).size());
+
+            assertTrue(records.next());
+            assertArrayEquals(new String[]{ "a", "b", "c" }, records.getCells());
+            assertTrue(records.next());
+            assertEquals(3, records.getCellCount());
+            assertEquals(-2000.0, records.getDouble(1), 0);
+            assertTrue(records.isEmpty(2));
+            assertTrue(records.next());
+            assertArrayEquals(new String[]{ "3", "x" }, records.getCells());
+            assertTrue(records.next());
+            assertEquals(6.0, records.getDouble(2), 0);
+            assertFalse(records.next());
+        }
+    }
+
+    @Test
+    public void getDouble_test() throws IOException {
+        String[] values = { "0.1", "-0.000123", "1.7976931348623157E308", "12345678901234567890", "NaN", "0x1.8p3" };
+        Files.write(path, String.join("\n", values).getBytes(StandardCharsets.UTF_8));
+
+        try (RecordReader records = new MappedRecordReader(path, ",")) {
+            for (String value : values) {
+                assertTrue(records.next());
+                assertEquals(Double.parseDouble(value), records.getDouble(0), 0);
+            }
+        }
+    }
+
+}
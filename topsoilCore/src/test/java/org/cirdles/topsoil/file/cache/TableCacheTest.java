@@ -0,0 +1,160 @@
+package org.cirdles.topsoil.file.cache;
+
+import org.cirdles.topsoil.data.ColumnarDataTable;
+import org.cirdles.topsoil.data.DataColumn;
+import org.cirdles.topsoil.data.DataRow;
+import org.cirdles.topsoil.data.DataTable;
+import org.cirdles.topsoil.data.DataTemplate;
+import org.cirdles.topsoil.data.LazyDataTable;
+import org.cirdles.topsoil.file.parser.DataParser;
+import org.cirdles.topsoil.utils.StringPool;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class TableCacheTest {
+
+    private Path directory;
+    private Path path;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("topsoil");
+        path = directory.resolve("data.csv");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    public void load_test() throws IOException {
+        TableCache cache = new TableCache(directory.resolve("cache"), Long.MAX_VALUE);
+        for (DataTemplate template : DataTemplate.values()) {
+            copyResource((template == DataTemplate.SQUID_3) ? "squid3-example.csv" : "upb-example.csv");
+            DataParser parser = template.getParser();
+            parser.setTableCache(cache);
+
+            DataTable parsed = parser.parseDataTable(path, ",", "parsed");
+            assertNotNull(cache.getEntry(path, parser.getClass().getName() + "\n,").load());
+            DataTable cached = parser.parseDataTable(path, ",", "cached");
+
+            assertEquals("cached", cached.getTitle());
+            assertEquals(template, cached.getTemplate());
+            assertTablesEqual(parsed, cached);
+        }
+    }
+
+    @Test
+    public void load_columnar_test() throws IOException {
+        TableCache cache = new TableCache(directory.resolve("cache"), Long.MAX_VALUE);
+        StringPool pool = new StringPool();
+        copyResource("squid3-example.csv");
+        DataParser parser = DataTemplate.SQUID_3.getParser();
+        parser.setTableCache(cache);
+        DataTable parsed = parser.parseDataTable(path, ",", "parsed");
+
+        parser.setColumnarStorage(true);
+        parser.setStringPool(pool);
+        DataTable cached = parser.parseDataTable(path, ",", "cached");
+        assertTrue(cached instanceof ColumnarDataTable);
+        assertTablesEqual(parsed, cached);
+
+        DataColumn<?> column = firstStringColumn(cached);
+        Object value = cached.getLeafRows().get(0).getValueForColumn(column);
+        assertSame(pool.intern(new String((String) value)), value);
+    }
+
+    @Test
+    public void load_lazy_test() throws IOException {
+        TableCache cache = new TableCache(directory.resolve("cache"), Long.MAX_VALUE);
+        copyResource("upb-example.csv");
+        DataParser parser = DataTemplate.DEFAULT.getParser();
+        parser.setTableCache(cache);
+        parser.parseDataTable(path, ",", "parsed");
+
+        parser.setLazyDecoding(true);
+        assertTrue(parser.parseDataTable(path, ",", "lazy") instanceof LazyDataTable);
+    }
+
+    @Test
+    public void load_modified_test() throws IOException {
+        TableCache cache = new TableCache(directory.resolve("cache"), Long.MAX_VALUE);
+        Files.write(path, "x,y\n1.0,2.0\n".getBytes(StandardCharsets.UTF_8));
+        cache.getEntry(path, "variant").store(DataTemplate.DEFAULT.getParser().parseDataTable(path, ",", "table"));
+        assertNotNull(cache.getEntry(path, "variant").load());
+
+        Files.write(path, "3.0,4.0\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        assertNull(cache.getEntry(path, "variant").load());
+        assertNull(cache.getEntry(path, "other").load());
+    }
+
+    @Test
+    public void evict_test() throws IOException {
+        TableCache cache = new TableCache(directory.resolve("cache"), 1);
+        Files.write(path, "x,y\n1.0,2.0\n".getBytes(StandardCharsets.UTF_8));
+        cache.getEntry(path, "variant").store(DataTemplate.DEFAULT.getParser().parseDataTable(path, ",", "table"));
+
+        try (Stream<Path> entries = Files.list(directory.resolve("cache"))) {
+            assertEquals(0, entries.count());
+        }
+    }
+
+    private void assertTablesEqual(DataTable expected, DataTable actual) {
+        List<? extends DataColumn<?>> expectedColumns = expected.getLeafColumns();
+        List<? extends DataColumn<?>> actualColumns = actual.getLeafColumns();
+        List<? extends DataRow> expectedRows = expected.getLeafRows();
+        List<? extends DataRow> actualRows = actual.getLeafRows();
+
+        assertEquals(expected.getColumns().size(), actual.getColumns().size());
+        assertEquals(expected.getRows().size(), actual.getRows().size());
+        assertEquals(expectedColumns.size(), actualColumns.size());
+        assertEquals(expectedRows.size(), actualRows.size());
+        for (int c = 0; c < expectedColumns.size(); c++) {
+            assertEquals(expectedColumns.get(c).getTitle(), actualColumns.get(c).getTitle());
+            assertEquals(expectedColumns.get(c).getType(), actualColumns.get(c).getType());
+        }
+        for (int r = 0; r < expectedRows.size(); r++) {
+            assertEquals(expectedRows.get(r).getTitle(), actualRows.get(r).getTitle());
+            assertEquals(expectedRows.get(r).isSelected(), actualRows.get(r).isSelected());
+            for (int c = 0; c < expectedColumns.size(); c++) {
+                assertEquals(
+                        expectedRows.get(r).getValueForColumn(expectedColumns.get(c)),
+                        actualRows.get(r).getValueForColumn(actualColumns.get(c))
+                );
+            }
+        }
+    }
+
+    private DataColumn<?> firstStringColumn(DataTable table) {
+        for (DataColumn<?> column : table.getLeafColumns()) {
+            if (column.getType() == String.class) {
+                return column;
+            }
+        }
+        throw new AssertionError("Table has no String column.");
+    }
+
+    private void copyResource(String name) throws IOException {
+        try (InputStream in = DataTemplate.class.getResourceAsStream(name)) {
+            Files.copy(in, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+}
@@ -0,0 +1,211 @@
+package org.cirdles.topsoil.file.parser;
+
+import org.cirdles.topsoil.data.DataColumn;
+import org.cirdles.topsoil.data.DataRow;
+import org.cirdles.topsoil.data.DataTable;
+import org.cirdles.topsoil.file.MappedRecordReader;
+import org.cirdles.topsoil.file.RecordReader;
+import org.cirdles.topsoil.file.TopsoilFileUtils;
+import org.cirdles.topsoil.utils.StringPool;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class DefaultDataParserTest {
+
+    static String CSV_CONTENT = "Col1,Col2,Col3\n" +
+            "0.0,one,2.0\n" +
+            "\n" +
+            "0.1,two,\n" +
+            "0.2,three,2.2\n";
+
+    @Test
+    public void parseDataTable_Reader_test() throws IOException {
+        DataTable table = new DefaultDataParser().parseDataTable(new StringReader(CSV_CONTENT), ",", "table");
+        List<? extends DataColumn<?>> columns = table.getLeafColumns();
+        List<? extends DataRow> rows = table.getRows();
+
+        assertEquals(3, columns.size());
+        assertEquals(Number.class, columns.get(0).getType());
+        assertEquals(String.class, columns.get(1).getType());
+        assertEquals(3, rows.size());
+        assertEquals("row3", rows.get(2).getTitle());
+        assertEquals("three", rows.get(2).getValueForColumn(columns.get(1)));
+        assertNull(rows.get(1).getValueForColumn(columns.get(2)));
+    }
+
+    @Test
+    public void parseDataTable_String_test() {
+        DataTable table = new DefaultDataParser().parseDataTable(CSV_CONTENT, ",", null);
+        assertEquals("DataFromClipboard", table.getTitle());
+        assertEquals(3, table.getRows().size());
+    }
+
+    @Test
+    public void parseDataTable_empty_test() throws IOException {
+        DataTable table = new DefaultDataParser().parseDataTable(new StringReader(""), ",", "empty");
+        assertTrue(table.getColumns().isEmpty());
+        assertTrue(table.getRows().isEmpty());
+    }
+
+    @Test
+    public void parseDataTable_parallel_test() {
+        StringBuilder content = new StringBuilder("x,y,label\n");
+        for (int i = 0; i < 20000; i++) {
+            content.append(i).append(',').append(i * 0.5).append(",s").append(i).append('\n');
+        }
+        DataTable parallel = new DefaultDataParser(true).parseDataTable(content.toString(), ",", "table");
+        DataTable sequential = new DefaultDataParser(false).parseDataTable(content.toString(), ",", "table");
+        List<? extends DataRow> parallelRows = parallel.getRows();
+        List<? extends DataRow> sequentialRows = sequential.getRows();
+        List<? extends DataColumn<?>> parallelColumns = parallel.getLeafColumns();
+        List<? extends DataColumn<?>> sequentialColumns = sequential.getLeafColumns();
+
+        assertEquals(20000, parallelRows.size());
+        assertEquals(sequentialRows.size(), parallelRows.size());
+        for (int i = 0; i < parallelRows.size(); i++) {
+            assertEquals("row" + (i + 1), parallelRows.get(i).getTitle());
+            assertEquals(sequentialRows.get(i).getTitle(), parallelRows.get(i).getTitle());
+            assertTrue(parallelRows.get(i).isSelected());
+            for (int c = 0; c < parallelColumns.size(); c++) {
+                assertEquals(
+                        sequentialRows.get(i).getValueForColumn(sequentialColumns.get(c)),
+                        parallelRows.get(i).getValueForColumn(parallelColumns.get(c))
+                );
+            }
+        }
+    }
+
+    @Test
+    public void parseDataTable_projection_test() {
+        String content = "a,b,a,c\n1.0,x,2.0,y\n3.0,z,4.0,w\n";
+        BitSet projection = new BitSet();
+        projection.set(1);
+        projection.set(2);
+        for (boolean parallel : new boolean[]{ true, false }) {
+            DataParser parser = new DefaultDataParser(parallel);
+            parser.setColumnProjection(projection);
+            DataTable table = parser.parseDataTable(content, ",", "table");
+            List<? extends DataColumn<?>> columns = table.getLeafColumns();
+            List<? extends DataRow> rows = table.getRows();
+
+            assertEquals(2, columns.size());
+            assertEquals("b", columns.get(0).getTitle());
+            assertEquals("a(1)", columns.get(1).getTitle());
+            assertEquals(Number.class, columns.get(1).getType());
+            assertEquals("z", rows.get(1).getValueForColumn(columns.get(0)));
+            assertEquals(4.0, ((Number) rows.get(1).getValueForColumn(columns.get(1))).doubleValue(), 0);
+        }
+    }
+
+    @Test
+    public void parseRows_appended_test() throws IOException {
+        Path path = Files.createTempFile("topsoil", ".csv");
+        try {
+            Files.write(path, "x,label\n1.0,a\n2.0,b\n".getBytes(StandardCharsets.UTF_8));
+            long end = TopsoilFileUtils.findLastRecordEnd(path, 0, Files.size(path));
+            DataTable table;
+            try (RecordReader records = new MappedRecordReader(path, ",", 0, end)) {
+                table = new DefaultDataParser().parseDataTable(records, "table");
+            }
+            assertEquals(Files.size(path), end);
+
+            // The last record is incomplete, so it should not be read until its line terminator is written
+            Files.write(path, "3.0,c\n4.0,d\n5.".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+            long appendedEnd = TopsoilFileUtils.findLastRecordEnd(path, end, Files.size(path));
+            List<DataRow> appended;
+            try (RecordReader records = new MappedRecordReader(path, ",", end, appendedEnd)) {
+                appended = new DefaultDataParser().parseRows(records, table.getLeafColumns(), table.getRows().size());
+            }
+            List<? extends DataColumn<?>> columns = table.getLeafColumns();
+
+            assertEquals(Files.size(path) - 2, appendedEnd);
+            assertEquals(2, appended.size());
+            assertEquals("row3", appended.get(0).getTitle());
+            assertEquals(4.0, ((Number) appended.get(1).getValueForColumn(columns.get(0))).doubleValue(), 0);
+            assertEquals("d", appended.get(1).getValueForColumn(columns.get(1)));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void parseDataTable_pooled_test() {
+        String content = "x,flag\n1.0,ok\n2.0,ok\n3.0,bad\n";
+        StringPool pool = new StringPool();
+        for (boolean parallel : new boolean[]{ true, false }) {
+            DataParser parser = new DefaultDataParser(parallel);
+            parser.setStringPool(pool);
+            DataTable table = parser.parseDataTable(content, ",", "table");
+            DataColumn<?> flag = table.getLeafColumns().get(1);
+            List<? extends DataRow> rows = table.getRows();
+
+            assertSame(pool.intern(new String("ok")), rows.get(0).getValueForColumn(flag));
+            assertSame(rows.get(0).getValueForColumn(flag), rows.get(1).getValueForColumn(flag));
+            assertEquals("bad", rows.get(2).getValueForColumn(flag));
+        }
+    }
+
+    @Test(expected = CancellationException.class)
+    public void parseDataTable_cancelled_test() {
+        StringBuilder content = new StringBuilder("x\n");
+        for (int i = 0; i < 5000; i++) {
+            content.append(i).append('\n');
+        }
+        AtomicLong rowsReported = new AtomicLong();
+        DataParser parser = new DefaultDataParser(false);
+        parser.setParseMonitor(new ParseMonitor() {
+            @Override
+            public void updateProgress(long rowsRead, long workDone, long totalWork) {
+                assertTrue(workDone <= totalWork);
+                rowsReported.set(rowsRead);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return rowsReported.get() >= 2048;
+            }
+        });
+        parser.parseDataTable(content.toString(), ",", "table");
+    }
+
+    @Test
+    public void parseDataTable_cancelledParallel_test() {
+        StringBuilder content = new StringBuilder("x\n");
+        for (int i = 0; i < 20000; i++) {
+            content.append(i).append('\n');
+        }
+        AtomicLong rowsReported = new AtomicLong();
+        DataParser parser = new DefaultDataParser(true);
+        parser.setParseMonitor(new ParseMonitor() {
+            @Override
+            public void updateProgress(long rowsRead, long workDone, long totalWork) {
+                rowsReported.set(rowsRead);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return rowsReported.get() >= 2048;
+            }
+        });
+        try {
+            parser.parseDataTable(content.toString(), ",", "table");
+            fail("Parse should have been cancelled.");
+        } catch (CancellationException e) {
+            // Cancellation is seen within a progress interval, rather than at the end of a batch
+            assertEquals(2048, rowsReported.get());
+        }
+    }
+
+}
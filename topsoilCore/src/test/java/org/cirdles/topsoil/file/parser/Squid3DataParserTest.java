@@ -0,0 +1,88 @@
+package org.cirdles.topsoil.file.parser;
+
+import org.cirdles.topsoil.data.ColumnarDataTable;
+import org.cirdles.topsoil.data.DataColumn;
+import org.cirdles.topsoil.data.DataRow;
+import org.cirdles.topsoil.data.DataTable;
+import org.cirdles.topsoil.data.LazyDataTable;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class Squid3DataParserTest {
+
+    static String CSV_CONTENT = ",Data,\n" +
+            ",,\n" +
+            ",,\n" +
+            ",,\n" +
+            "Fraction,Value,Note\n" +
+            "A1\n" +
+            "A1-1.1,1.0,x\n" +
+            "a1-2.1,2.0,y\n" +
+            "B2\n" +
+            "b2-1.1,3.0,z\n" +
+            "B\n" +
+            "B-1.1,4.0,w\n";
+
+    @Test
+    public void parseDataTable_aliquots_test() {
+        assertAliquots(new Squid3DataParser().parseDataTable(CSV_CONTENT, ",", "table"));
+    }
+
+    @Test
+    public void parseDataTable_columnarAliquots_test() {
+        Squid3DataParser parser = new Squid3DataParser();
+        parser.setColumnarStorage(true);
+        DataTable table = parser.parseDataTable(CSV_CONTENT, ",", "table");
+        assertTrue(table instanceof ColumnarDataTable);
+        assertAliquots(table);
+    }
+
+    @Test
+    public void parseDataTable_lazyAliquots_test() {
+        Squid3DataParser parser = new Squid3DataParser();
+        parser.setLazyDecoding(true);
+        DataTable table = parser.parseDataTable(CSV_CONTENT, ",", "table");
+        assertTrue(table instanceof LazyDataTable);
+        assertAliquots(table);
+    }
+
+    /**
+     * Each aliquot includes the rows that follow it whose labels begin with its label, ignoring case. A row whose
+     * label does not, including one shorter than the aliquot label, begins the next aliquot.
+     */
+    private void assertAliquots(DataTable table) {
+        List<? extends DataColumn<?>> columns = table.getLeafColumns();
+        List<? extends DataRow> aliquots = table.getRows();
+        assertEquals(2, columns.size());
+        assertEquals(Number.class, columns.get(0).getType());
+        assertEquals(String.class, columns.get(1).getType());
+
+        assertEquals(3, aliquots.size());
+        assertEquals("A1", aliquots.get(0).getTitle());
+        assertEquals("B2", aliquots.get(1).getTitle());
+        assertEquals("B", aliquots.get(2).getTitle());
+
+        List<? extends DataRow> spots = aliquots.get(0).getChildren();
+        assertEquals(2, spots.size());
+        assertEquals("A1-1.1", spots.get(0).getTitle());
+        assertEquals("a1-2.1", spots.get(1).getTitle());
+        assertEquals(2.0, spots.get(1).getValueForColumn(columns.get(0)));
+        assertEquals("y", spots.get(1).getValueForColumn(columns.get(1)));
+
+        spots = aliquots.get(1).getChildren();
+        assertEquals(1, spots.size());
+        assertEquals("b2-1.1", spots.get(0).getTitle());
+        assertEquals(3.0, spots.get(0).getValueForColumn(columns.get(0)));
+
+        spots = aliquots.get(2).getChildren();
+        assertEquals(1, spots.size());
+        assertEquals("B-1.1", spots.get(0).getTitle());
+        assertEquals("w", spots.get(0).getValueForColumn(columns.get(1)));
+
+        assertEquals(4, table.getLeafRows().size());
+    }
+
+}
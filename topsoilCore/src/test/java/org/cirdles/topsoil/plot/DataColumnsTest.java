@@ -0,0 +1,51 @@
+package org.cirdles.topsoil.plot;
+
+import org.cirdles.topsoil.Variable;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.junit.Assert.*;
+
+public class DataColumnsTest {
+
+    @Test
+    public void encode_test() {
+        DataEntry first = new DataEntry();
+        first.put(Variable.X, 1.5);
+        first.put(Variable.Y, 2.5);
+        first.put(Variable.LABEL, "first");
+        first.put(Variable.SELECTED, false);
+        DataEntry second = new DataEntry();
+        second.put(Variable.X, 3);
+        second.put(Variable.VISIBLE, false);
+
+        JSONObject json = new JSONObject(DataColumns.encode(Arrays.asList(first, second)));
+        assertEquals(2, json.getInt("length"));
+
+        ByteBuffer x = ByteBuffer.wrap(Base64.getDecoder().decode(json.getString("x"))).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(1.5, x.getDouble(0), 0.0);
+        assertEquals(3.0, x.getDouble(8), 0.0);
+        ByteBuffer y = ByteBuffer.wrap(Base64.getDecoder().decode(json.getString("y"))).order(ByteOrder.LITTLE_ENDIAN);
+        assertTrue(Double.isNaN(y.getDouble(8)));
+
+        assertEquals("first", json.getJSONArray("label").get(0));
+        assertTrue(json.getJSONArray("label").isNull(1));
+
+        // Missing flags are given their default values
+        assertEquals(0b10, Base64.getDecoder().decode(json.getString("selected"))[0]);
+        assertEquals(0b01, Base64.getDecoder().decode(json.getString("visible"))[0]);
+    }
+
+    @Test
+    public void encode_unknownVariable_test() {
+        DataEntry entry = new DataEntry();
+        entry.put(new Variable<Number>("z", "z", "z", 0.0, Number.class) {}, 1.0);
+        assertNull(DataColumns.encode(Arrays.asList(entry)));
+    }
+
+}
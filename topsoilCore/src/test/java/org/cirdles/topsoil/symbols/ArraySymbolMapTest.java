@@ -0,0 +1,89 @@
+package org.cirdles.topsoil.symbols;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ArraySymbolMapTest {
+
+    @Test
+    public void put_get_test() {
+        List<SimpleSymbolKey<Number>> keys = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            keys.add(new SimpleSymbolKey<>("key" + i, "key" + i, 0.0, Number.class));
+        }
+        ArraySymbolMap<SimpleSymbolKey<?>> map = new ArraySymbolMap<>();
+        // Put out of ordinal order, so that the slots grow in both directions
+        List<Integer> puts = Arrays.asList(10, 11, 3, 19, 0, 15, 4);
+        for (int i : puts) {
+            map.put(keys.get(i), (double) i);
+        }
+
+        assertEquals(puts.size(), map.size());
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(puts.contains(i) ? (double) i : null, map.get(keys.get(i)));
+        }
+        assertEquals(10.0, map.put(keys.get(10), 1.0));
+        assertEquals(1.0, map.get(keys.get(10)));
+
+        // Entries are iterated in insertion order
+        List<SimpleSymbolKey<?>> iterated = new ArrayList<>(map.keySet());
+        for (int i = 0; i < puts.size(); i++) {
+            assertSame(keys.get(puts.get(i)), iterated.get(i));
+        }
+
+        assertEquals(3.0, map.remove(keys.get(3)));
+        Iterator<Map.Entry<SimpleSymbolKey<?>, Object>> it = map.entrySet().iterator();
+        it.next();
+        it.remove();
+        assertEquals(puts.size() - 2, map.size());
+        assertFalse(map.containsKey(keys.get(3)));
+        assertFalse(map.containsKey(keys.get(10)));
+        assertTrue(map.containsKey(keys.get(11)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void put_wrongType_test() {
+        ArraySymbolMap<SimpleSymbolKey<?>> map = new ArraySymbolMap<>();
+        map.put(new SimpleSymbolKey<>("key", "key", 0.0, Number.class), "value");
+    }
+
+    @Test
+    public void serialization_test() throws IOException, ClassNotFoundException {
+        ArraySymbolMap<SimpleSymbolKey<?>> map = new ArraySymbolMap<>();
+        map.put(new SimpleSymbolKey<>("a", "a", 0.0, Number.class), 1.0);
+        map.put(new SimpleSymbolKey<>("b", "b", "", String.class), "two");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(map);
+        }
+        ArraySymbolMap<SimpleSymbolKey<?>> copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            // The stream holds the map written above
+            @SuppressWarnings("unchecked")
+            ArraySymbolMap<SimpleSymbolKey<?>> read = (ArraySymbolMap<SimpleSymbolKey<?>>) in.readObject();
+            copy = read;
+        }
+
+        assertEquals(2, copy.size());
+        List<Object> values = new ArrayList<>();
+        for (Map.Entry<SimpleSymbolKey<?>, Object> entry : copy.entrySet()) {
+            assertEquals(entry.getValue(), copy.get(entry.getKey()));
+            values.add(entry.getValue());
+        }
+        assertEquals(Arrays.asList(1.0, "two"), values);
+    }
+
+}
@@ -0,0 +1,72 @@
+package org.cirdles.topsoil.utils;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class NumberLexerTest {
+
+    private static final String[] NUMBERS = {
+            "0", "-0", "+1", "1.", ".5", "0.000123", "1.5000", "1000", "  42\t", "6.02214076e23", "1E-7", "-2e+3",
+            "1.7976931348623157E308", "4.9e-324", "1e400", "123456789012345678901234567890", "0.1f", "2D",
+            "NaN", "-Infinity", "0x1.8p3", "0X.8P-1", "-0x1p-1074", "0x1.fffffffffffff8p0"
+    };
+
+    private static final String[] NON_NUMBERS = {
+            "", " ", "-", ".", "e5", "1e", "1e+", "1.2.3", "1,5", "0x1.8", "0x", "nan", "Inf", "1 2", "12abc", "1ff"
+    };
+
+    @Test
+    public void lex_valid_test() {
+        NumberLexer lexer = new NumberLexer();
+        for (String number : NUMBERS) {
+            assertTrue(number, lexer.lex(number));
+            assertEquals(number, Double.parseDouble(number), lexer.doubleValue(), 0);
+            assertEquals(number, Double.doubleToLongBits(Double.parseDouble(number)),
+                         Double.doubleToLongBits(lexer.doubleValue()));
+        }
+    }
+
+    @Test
+    public void lex_invalid_test() {
+        NumberLexer lexer = new NumberLexer();
+        for (String text : NON_NUMBERS) {
+            assertFalse(text, lexer.lex(text));
+        }
+    }
+
+    @Test
+    public void lex_random_test() {
+        NumberLexer lexer = new NumberLexer();
+        Random random = new Random(0);
+        String text;
+        for (int i = 0; i < 100000; i++) {
+            switch (i % 4) {
+                case 0:
+                    text = Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20));
+                    break;
+                case 1:
+                    text = String.format("%.8e", random.nextGaussian());
+                    break;
+                case 2:
+                    text = Long.toString(random.nextLong());
+                    break;
+                default:
+                    text = Double.toHexString(random.nextDouble());
+            }
+            assertTrue(text, lexer.lex(text));
+            assertEquals(text, Double.doubleToLongBits(Double.parseDouble(text)),
+                         Double.doubleToLongBits(lexer.doubleValue()));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void doubleValue_invalid_test() {
+        NumberLexer lexer = new NumberLexer();
+        lexer.lex("abc");
+        lexer.doubleValue();
+    }
+
+}
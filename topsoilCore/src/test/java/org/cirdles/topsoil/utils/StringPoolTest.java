@@ -0,0 +1,50 @@
+package org.cirdles.topsoil.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class StringPoolTest {
+
+    @Test
+    public void intern_test() {
+        StringPool pool = new StringPool();
+        String first = pool.intern(new String("aliquot"));
+        assertSame(first, pool.intern(new String("aliquot")));
+        assertNull(pool.intern(null));
+    }
+
+    @Test
+    public void intern_concurrent_test() throws Exception {
+        StringPool pool = new StringPool();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String[]>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(executor.submit(() -> {
+                    String[] interned = new String[1000];
+                    for (int i = 0; i < interned.length; i++) {
+                        interned[i] = pool.intern(new String("s" + i));
+                    }
+                    return interned;
+                }));
+            }
+            String[] expected = results.get(0).get();
+            for (Future<String[]> result : results) {
+                String[] interned = result.get();
+                for (int i = 0; i < interned.length; i++) {
+                    assertSame(expected[i], interned[i]);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}